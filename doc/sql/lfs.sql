@@ -267,6 +267,9 @@ INSERT INTO "public"."auth_resource" VALUES (39, '新增资源类别', '/resourc
 INSERT INTO "public"."auth_resource" VALUES (40, '修改资源类别', '/resourceSort/updateResourceSort', '修改资源类别', '2021-04-17 19:56:54', 4);
 INSERT INTO "public"."auth_resource" VALUES (41, '删除资源类别', '/resourceSort/delResourceSort/**', '删除资源类别', '2021-04-17 19:57:10', 4);
 INSERT INTO "public"."auth_resource" VALUES (42, '版本日志列表', '/updateLog/list', '版本日志列表', '2021-04-17 21:41:58', 7);
+INSERT INTO "public"."auth_resource" VALUES (43, '导出任务', '/user/exportJob/**', '提交用户导出任务、查询任务状态、下载导出文件', '2026-10-17 23:40:00', 3);
+INSERT INTO "public"."auth_resource" VALUES (44, '导入用户', '/user/importUser', '从 Excel 批量导入用户', '2026-10-18 00:50:00', 3);
+INSERT INTO "public"."auth_resource" VALUES (45, '操作审计日志', '/auditLog/**', '查询操作审计日志', '2026-10-18 06:40:00', 1);
 
 -- ----------------------------
 -- Table structure for auth_resource_sort
@@ -438,6 +441,9 @@ INSERT INTO "public"."auth_role_resource_relation" VALUES (39, 1, 39);
 INSERT INTO "public"."auth_role_resource_relation" VALUES (40, 1, 40);
 INSERT INTO "public"."auth_role_resource_relation" VALUES (41, 1, 41);
 INSERT INTO "public"."auth_role_resource_relation" VALUES (42, 1, 42);
+INSERT INTO "public"."auth_role_resource_relation" VALUES (43, 1, 43);
+INSERT INTO "public"."auth_role_resource_relation" VALUES (44, 1, 44);
+INSERT INTO "public"."auth_role_resource_relation" VALUES (45, 1, 45);
 
 -- ----------------------------
 -- Table structure for auth_user
@@ -515,7 +521,7 @@ SELECT setval('"public"."auth_permission_id_seq"', 1, false);
 -- ----------------------------
 ALTER SEQUENCE "public"."auth_resource_id_seq"
 OWNED BY "public"."auth_resource"."id";
-SELECT setval('"public"."auth_resource_id_seq"', 43, false);
+SELECT setval('"public"."auth_resource_id_seq"', 46, false);
 
 -- ----------------------------
 -- Alter sequences owned by
@@ -550,7 +556,7 @@ SELECT setval('"public"."auth_role_permission_relation_id_seq"', 1, false);
 -- ----------------------------
 ALTER SEQUENCE "public"."auth_role_resource_relation_id_seq"
 OWNED BY "public"."auth_role_resource_relation"."id";
-SELECT setval('"public"."auth_role_resource_relation_id_seq"', 42, false);
+SELECT setval('"public"."auth_role_resource_relation_id_seq"', 46, false);
 
 -- ----------------------------
 -- Alter sequences owned by
@@ -677,3 +683,189 @@ CREATE UNIQUE INDEX "auth_user_role_relation_user_id_role_id_uindex" ON "public"
 -- Primary Key structure for table auth_user_role_relation
 -- ----------------------------
 ALTER TABLE "public"."auth_user_role_relation" ADD CONSTRAINT "auth_user_role_relation_pkey" PRIMARY KEY ("id");
+
+-- ----------------------------
+-- Sequence structure for auth_revoked_token_id_seq
+-- ----------------------------
+DROP SEQUENCE IF EXISTS "public"."auth_revoked_token_id_seq";
+CREATE SEQUENCE "public"."auth_revoked_token_id_seq" 
+INCREMENT 1
+MINVALUE  1
+MAXVALUE 9223372036854775807
+START 1
+CACHE 1;
+
+-- ----------------------------
+-- Table structure for auth_revoked_token
+-- ----------------------------
+DROP TABLE IF EXISTS "public"."auth_revoked_token";
+CREATE TABLE "public"."auth_revoked_token" (
+  "jti" varchar(64) COLLATE "pg_catalog"."default" NOT NULL,
+  "expire_time" int8 NOT NULL,
+  "id" int8 NOT NULL DEFAULT nextval('auth_revoked_token_id_seq'::regclass)
+)
+;
+COMMENT ON COLUMN "public"."auth_revoked_token"."jti" IS 'token id';
+COMMENT ON COLUMN "public"."auth_revoked_token"."id" IS '自增id，用于各实例增量同步吊销记录';
+COMMENT ON COLUMN "public"."auth_revoked_token"."expire_time" IS 'token 过期时间（毫秒）';
+
+-- ----------------------------
+-- Indexes structure for table auth_revoked_token
+-- ----------------------------
+CREATE INDEX "auth_revoked_token_expire_time_index" ON "public"."auth_revoked_token" USING btree (
+  "expire_time" "pg_catalog"."int8_ops" ASC NULLS LAST
+);
+CREATE UNIQUE INDEX "auth_revoked_token_id_uindex" ON "public"."auth_revoked_token" USING btree (
+  "id" "pg_catalog"."int8_ops" ASC NULLS LAST
+);
+
+-- ----------------------------
+-- Primary Key structure for table auth_revoked_token
+-- ----------------------------
+ALTER TABLE "public"."auth_revoked_token" ADD CONSTRAINT "auth_revoked_token_pkey" PRIMARY KEY ("jti");
+
+-- ----------------------------
+-- Sequence structure for lfs_authority_version_seq
+-- 集群共用的权限版本号
+-- ----------------------------
+DROP SEQUENCE IF EXISTS "public"."lfs_authority_version_seq";
+CREATE SEQUENCE "public"."lfs_authority_version_seq" 
+INCREMENT 1
+MINVALUE  1
+MAXVALUE 9223372036854775807
+START 1
+CACHE 1;
+
+-- ----------------------------
+-- Sequence structure for lfs_change_log_id_seq
+-- ----------------------------
+DROP SEQUENCE IF EXISTS "public"."lfs_change_log_id_seq";
+CREATE SEQUENCE "public"."lfs_change_log_id_seq" 
+INCREMENT 1
+MINVALUE  1
+MAXVALUE 9223372036854775807
+START 1
+CACHE 1;
+
+-- ----------------------------
+-- Table structure for lfs_change_log
+-- ----------------------------
+DROP TABLE IF EXISTS "public"."lfs_change_log";
+CREATE TABLE "public"."lfs_change_log" (
+  "id" int8 NOT NULL DEFAULT nextval('lfs_change_log_id_seq'::regclass),
+  "origin" varchar(128) COLLATE "pg_catalog"."default" NOT NULL,
+  "sequence" int8 NOT NULL,
+  "type" varchar(32) COLLATE "pg_catalog"."default" NOT NULL,
+  "ids" text COLLATE "pg_catalog"."default",
+  "create_time" int8 NOT NULL
+)
+;
+COMMENT ON COLUMN "public"."lfs_change_log"."id" IS '自增id';
+COMMENT ON COLUMN "public"."lfs_change_log"."origin" IS '发布事件的实例';
+COMMENT ON COLUMN "public"."lfs_change_log"."sequence" IS '实例内连续递增的事件序号';
+COMMENT ON COLUMN "public"."lfs_change_log"."type" IS '变更类型：USER、ROLE、RESOURCE、RESOURCE_SORT、MENU、RELATION';
+COMMENT ON COLUMN "public"."lfs_change_log"."ids" IS '变更数据的id，逗号分隔，为空表示该类型的全部数据';
+COMMENT ON COLUMN "public"."lfs_change_log"."create_time" IS '创建时间（毫秒）';
+COMMENT ON TABLE "public"."lfs_change_log" IS '集群缓存失效事件';
+
+-- ----------------------------
+-- Indexes structure for table lfs_change_log
+-- ----------------------------
+CREATE INDEX "lfs_change_log_create_time_index" ON "public"."lfs_change_log" USING btree (
+  "create_time" "pg_catalog"."int8_ops" ASC NULLS LAST
+);
+
+-- ----------------------------
+-- Primary Key structure for table lfs_change_log
+-- ----------------------------
+ALTER TABLE "public"."lfs_change_log" ADD CONSTRAINT "lfs_change_log_pkey" PRIMARY KEY ("id");
+
+-- ----------------------------
+-- Sequence structure for lfs_audit_log_id_seq
+-- ----------------------------
+DROP SEQUENCE IF EXISTS "public"."lfs_audit_log_id_seq";
+CREATE SEQUENCE "public"."lfs_audit_log_id_seq" 
+INCREMENT 1
+MINVALUE  1
+MAXVALUE 9223372036854775807
+START 1
+CACHE 1;
+
+-- ----------------------------
+-- Table structure for lfs_audit_log
+-- ----------------------------
+DROP TABLE IF EXISTS "public"."lfs_audit_log";
+CREATE TABLE "public"."lfs_audit_log" (
+  "id" int8 NOT NULL DEFAULT nextval('lfs_audit_log_id_seq'::regclass),
+  "request_id" varchar(64) COLLATE "pg_catalog"."default",
+  "username" varchar(64) COLLATE "pg_catalog"."default",
+  "description" varchar(255) COLLATE "pg_catalog"."default",
+  "method" varchar(255) COLLATE "pg_catalog"."default",
+  "url" varchar(255) COLLATE "pg_catalog"."default",
+  "http_method" varchar(16) COLLATE "pg_catalog"."default",
+  "ip" varchar(64) COLLATE "pg_catalog"."default",
+  "args" text COLLATE "pg_catalog"."default",
+  "result" varchar(128) COLLATE "pg_catalog"."default",
+  "cost" int8 NOT NULL,
+  "create_time" timestamp(6) NOT NULL
+)
+;
+COMMENT ON COLUMN "public"."lfs_audit_log"."id" IS '自增id';
+COMMENT ON COLUMN "public"."lfs_audit_log"."request_id" IS '请求ID，与 web.log 中的 requestId 对应';
+COMMENT ON COLUMN "public"."lfs_audit_log"."username" IS '操作用户名，未登录时为空';
+COMMENT ON COLUMN "public"."lfs_audit_log"."description" IS '操作描述';
+COMMENT ON COLUMN "public"."lfs_audit_log"."method" IS '接口方法';
+COMMENT ON COLUMN "public"."lfs_audit_log"."url" IS '请求路径';
+COMMENT ON COLUMN "public"."lfs_audit_log"."http_method" IS '请求方式';
+COMMENT ON COLUMN "public"."lfs_audit_log"."ip" IS '客户端IP';
+COMMENT ON COLUMN "public"."lfs_audit_log"."args" IS '请求参数，超长部分截断，密码字段已脱敏';
+COMMENT ON COLUMN "public"."lfs_audit_log"."result" IS '执行结果：ok 或异常类名';
+COMMENT ON COLUMN "public"."lfs_audit_log"."cost" IS '耗时（毫秒）';
+COMMENT ON COLUMN "public"."lfs_audit_log"."create_time" IS '操作时间';
+COMMENT ON TABLE "public"."lfs_audit_log" IS '操作审计日志';
+
+-- ----------------------------
+-- Indexes structure for table lfs_audit_log
+-- ----------------------------
+CREATE INDEX "lfs_audit_log_username_id_index" ON "public"."lfs_audit_log" USING btree (
+  "username" COLLATE "pg_catalog"."default" "pg_catalog"."text_ops" ASC NULLS LAST,
+  "id" "pg_catalog"."int8_ops" DESC NULLS LAST
+);
+CREATE INDEX "lfs_audit_log_create_time_index" ON "public"."lfs_audit_log" USING btree (
+  "create_time" "pg_catalog"."timestamp_ops" ASC NULLS LAST
+);
+
+-- ----------------------------
+-- Primary Key structure for table lfs_audit_log
+-- ----------------------------
+ALTER TABLE "public"."lfs_audit_log" ADD CONSTRAINT "lfs_audit_log_pkey" PRIMARY KEY ("id");
+
+-- ----------------------------
+-- Table structure for lfs_export_job
+-- ----------------------------
+DROP TABLE IF EXISTS "public"."lfs_export_job";
+CREATE TABLE "public"."lfs_export_job" (
+  "id" varchar(32) COLLATE "pg_catalog"."default" NOT NULL,
+  "owner" varchar(64) COLLATE "pg_catalog"."default" NOT NULL,
+  "status" varchar(16) COLLATE "pg_catalog"."default" NOT NULL,
+  "rows" int8 NOT NULL DEFAULT 0,
+  "size" int8 NOT NULL DEFAULT 0,
+  "message" varchar(255) COLLATE "pg_catalog"."default",
+  "create_time" timestamp(6) NOT NULL,
+  "finish_time" timestamp(6)
+)
+;
+COMMENT ON COLUMN "public"."lfs_export_job"."id" IS '任务id';
+COMMENT ON COLUMN "public"."lfs_export_job"."owner" IS '提交任务的用户名';
+COMMENT ON COLUMN "public"."lfs_export_job"."status" IS '任务状态：PENDING、RUNNING、DONE、FAILED';
+COMMENT ON COLUMN "public"."lfs_export_job"."rows" IS '导出行数';
+COMMENT ON COLUMN "public"."lfs_export_job"."size" IS '文件大小（字节）';
+COMMENT ON COLUMN "public"."lfs_export_job"."message" IS '失败原因';
+COMMENT ON COLUMN "public"."lfs_export_job"."create_time" IS '创建时间';
+COMMENT ON COLUMN "public"."lfs_export_job"."finish_time" IS '完成时间';
+COMMENT ON TABLE "public"."lfs_export_job" IS '异步导出任务，导出文件保存在各实例共享的暂存目录';
+
+-- ----------------------------
+-- Primary Key structure for table lfs_export_job
+-- ----------------------------
+ALTER TABLE "public"."lfs_export_job" ADD CONSTRAINT "lfs_export_job_pkey" PRIMARY KEY ("id");
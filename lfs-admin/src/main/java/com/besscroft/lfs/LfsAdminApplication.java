@@ -3,8 +3,10 @@ package com.besscroft.lfs;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Slf4j
+@EnableScheduling
 @SpringBootApplication(scanBasePackages = "com.besscroft.lfs")
 public class LfsAdminApplication {
 
@@ -0,0 +1,174 @@
+package com.besscroft.lfs.security.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 权限版本号，用于判断token中携带的资源权限是否已经过时
+ *
+ * 版本号取自数据库序列 lfs_authority_version_seq，集群内所有实例的版本可以直接比较，不依赖各实例的时钟。
+ * 角色、资源变更时提升全局版本，用户自身变更时只提升该用户的版本，用户当前版本为两者中的较大值。
+ * 其他实例的变更通过缓存失效总线送达时，变更实例已在提交后从序列取得新版本，本实例只需追平序列当前值，
+ * 不再取新版本，避免各实例互相把对方新签发的token判定为过时。
+ * 签发token时取序列当前值与本实例版本中的较大值，保证不低于任何实例在签发前发放的版本。
+ * 启动时全局版本取序列当前值，最近一次变更前签发的token视为过时，回退到数据库加载权限。
+ * 只在 jwt.authorityClaims 开启时使用，关闭时不访问序列，所有token都按过时处理。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 18:10
+ */
+@Slf4j
+@Component
+public class AuthorityVersions {
+
+    private static final String NEXT_SQL = "select nextval('lfs_authority_version_seq')";
+
+    private static final String LAST_SQL = "select last_value from lfs_authority_version_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+
+    /** 本实例见过的最大版本号，数据库不可用时在此基础上递增 */
+    private final AtomicLong lastVersion = new AtomicLong();
+
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private final Map<Long, Long> userVersions = new ConcurrentHashMap<>();
+
+    public AuthorityVersions(JdbcTemplate jdbcTemplate, @Value("${jwt.authorityClaims:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        long version = clusterVersion();
+        globalVersion.accumulateAndGet(version, Math::max);
+    }
+
+    /**
+     * 获取用户当前的权限版本
+     * @param userId 用户id
+     * @return 权限版本
+     */
+    public long current(Long userId) {
+        long global = globalVersion.get();
+        Long user = userId == null ? null : userVersions.get(userId);
+        return user == null ? global : Math.max(global, user);
+    }
+
+    /**
+     * 获取签发token时使用的权限版本，需要在查询权限集合之前调用
+     * @param userId 用户id
+     * @return 权限版本
+     */
+    public long issue(Long userId) {
+        if (!enabled) {
+            return current(userId);
+        }
+        return Math.max(current(userId), clusterVersion());
+    }
+
+    /**
+     * 判断token携带的权限版本是否仍然有效
+     * @param userId 用户id
+     * @param version token中的权限版本
+     * @return 是否有效
+     */
+    public boolean isCurrent(Long userId, Long version) {
+        return enabled && version != null && version >= current(userId);
+    }
+
+    /**
+     * 用户状态、角色变更后提升该用户的版本
+     * @param userId 用户id
+     */
+    public void bumpUser(Long userId) {
+        if (enabled && userId != null) {
+            userVersions.merge(userId, nextVersion(), Math::max);
+        }
+    }
+
+    /**
+     * 角色、资源变更影响多个用户，提升全局版本
+     */
+    public void bumpAll() {
+        if (enabled) {
+            raiseAll(nextVersion());
+        }
+    }
+
+    /**
+     * 其他实例的用户变更送达后，将这些用户的版本追平序列当前值
+     * @param userIds 用户id
+     */
+    public void syncUsers(Collection<Long> userIds) {
+        if (!enabled || userIds.isEmpty()) {
+            return;
+        }
+        long version = syncVersion();
+        for (Long userId : userIds) {
+            if (userId != null) {
+                userVersions.merge(userId, version, Math::max);
+            }
+        }
+    }
+
+    /**
+     * 其他实例的角色、资源变更送达后，将全局版本追平序列当前值
+     */
+    public void syncAll() {
+        if (enabled) {
+            raiseAll(syncVersion());
+        }
+    }
+
+    private void raiseAll(long global) {
+        globalVersion.accumulateAndGet(global, Math::max);
+        // 已被全局版本覆盖的用户版本不再需要
+        userVersions.values().removeIf(version -> version <= global);
+    }
+
+    private long nextVersion() {
+        long version;
+        try {
+            Long next = jdbcTemplate.queryForObject(NEXT_SQL, Long.class);
+            version = next == null ? 0 : next;
+        } catch (DataAccessException e) {
+            // 只会让其他实例签发的token在本实例被判定为过时，回退到数据库加载权限
+            log.warn("读取权限版本序列失败，使用本实例版本递增", e);
+            version = 0;
+        }
+        long local = version;
+        return lastVersion.updateAndGet(last -> Math.max(last + 1, local));
+    }
+
+    private long syncVersion() {
+        try {
+            return clusterVersion();
+        } catch (DataAccessException e) {
+            log.warn("读取权限版本序列失败，使用本实例版本递增", e);
+            return lastVersion.incrementAndGet();
+        }
+    }
+
+    private long clusterVersion() {
+        Long last = jdbcTemplate.queryForObject(LAST_SQL, Long.class);
+        long version = last == null ? 0 : last;
+        return lastVersion.accumulateAndGet(version, Math::max);
+    }
+
+}
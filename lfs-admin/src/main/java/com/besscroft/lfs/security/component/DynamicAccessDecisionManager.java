@@ -1,6 +1,8 @@
 package com.besscroft.lfs.security.component;
 
 import cn.hutool.core.collection.CollUtil;
+import com.besscroft.lfs.security.model.LFSUser;
+import com.besscroft.lfs.security.model.ResourceConfigAttribute;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDecisionManager;
 import org.springframework.security.access.AccessDeniedException;
@@ -9,6 +11,7 @@ import org.springframework.security.authentication.InsufficientAuthenticationExc
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
+import java.util.BitSet;
 import java.util.Collection;
 
 /**
@@ -26,7 +29,16 @@ public class DynamicAccessDecisionManager implements AccessDecisionManager {
         if (CollUtil.isEmpty(configAttributes)) {
             return;
         }
+        // 用户拥有的资源位图，与访问所需资源位图求交集即可完成判断
+        Object principal = authentication.getPrincipal();
+        BitSet ownedResourceIds = principal instanceof LFSUser ? ((LFSUser) principal).getResourceIds() : null;
         for (ConfigAttribute configAttribute : configAttributes) {
+            if (ownedResourceIds != null && configAttribute instanceof ResourceConfigAttribute) {
+                if (((ResourceConfigAttribute) configAttribute).isGrantedTo(ownedResourceIds)) {
+                    return;
+                }
+                continue;
+            }
             // 将访问所需资源或用户拥有资源进行比对
             String needAuthority = configAttribute.getAttribute();
             for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
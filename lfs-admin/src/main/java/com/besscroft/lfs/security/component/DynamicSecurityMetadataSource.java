@@ -1,60 +1,106 @@
 package com.besscroft.lfs.security.component;
 
 import cn.hutool.core.util.URLUtil;
+import com.besscroft.lfs.security.utils.PathPatternTrie;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.security.web.FilterInvocation;
 import org.springframework.security.web.access.intercept.FilterInvocationSecurityMetadataSource;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.PathMatcher;
 
 import javax.annotation.PostConstruct;
-import java.util.*;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 动态权限数据源，用于获取动态权限规则
  *
+ * 权限规则保存在不可变的快照中：由路径模式编译出的前缀树和所需权限一起构建，构建完成后整体替换。
+ * 鉴权时只读取当前快照，不加锁，也不会读到构建了一半的数据。
+ * 资源变更提交后调用 {@link #reload()}，在单独的线程中重新构建，连续多次变更合并为一次构建；
+ * 构建失败时保留原快照，下次变更时重试。
+ *
  * @Author Bess Croft
  * @Time 2021/7/7 17:19
  */
+@Slf4j
 public class DynamicSecurityMetadataSource implements FilterInvocationSecurityMetadataSource {
 
-    private static Map<String, ConfigAttribute> configAttributeMap = null;
+    private final AtomicReference<PermissionSnapshot> snapshot = new AtomicReference<>(PermissionSnapshot.EMPTY);
+
+    /** 已请求的快照版本，每次 reload 加一 */
+    private final AtomicLong requestedVersion = new AtomicLong();
+
+    private final ExecutorService reloadExecutor;
 
     @Autowired
     private DynamicSecurityService dynamicSecurityService;
 
+    public DynamicSecurityMetadataSource() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("permission-reload-");
+        threadFactory.setDaemon(true);
+        this.reloadExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
     @PostConstruct
     public void loadDataSource() {
-        configAttributeMap = dynamicSecurityService.loadDataSource();
+        rebuild(requestedVersion.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+    }
+
+    /**
+     * 异步重新加载权限规则，在资源变更的事务提交后调用
+     */
+    public void reload() {
+        long version = requestedVersion.incrementAndGet();
+        reloadExecutor.execute(() -> {
+            // 排队期间已有更新的构建覆盖了这次请求
+            if (snapshot.get().version >= version) {
+                return;
+            }
+            try {
+                rebuild(requestedVersion.get());
+            } catch (RuntimeException e) {
+                log.error("重新加载权限规则失败，继续使用版本 {}", snapshot.get().version, e);
+            }
+        });
     }
 
-    public void clearDataSource() {
-        configAttributeMap.clear();
-        configAttributeMap = null;
+    /**
+     * 构建快照，版本号在读取数据库前确定，读取期间的变更会再触发一次构建
+     */
+    private void rebuild(long version) {
+        Map<String, List<ConfigAttribute>> map = dynamicSecurityService.loadDataSource();
+        PermissionSnapshot next = new PermissionSnapshot(version, map);
+        snapshot.accumulateAndGet(next, (current, built) -> built.version >= current.version ? built : current);
+        log.debug("权限规则已加载：版本 {}，{} 条路径", version, map.size());
     }
 
     @Override
     public Collection<ConfigAttribute> getAttributes(Object o) throws IllegalArgumentException {
-        if (configAttributeMap == null) this.loadDataSource();
-        List<ConfigAttribute> configAttributes = new ArrayList<>();
         // 获取当前访问的路径
         String url = ((FilterInvocation) o).getRequestUrl();
         String path = URLUtil.getPath(url);
-        PathMatcher pathMatcher = new AntPathMatcher();
-        // 获取访问该路径所需资源
-        for (String pattern : configAttributeMap.keySet()) {
-            if (pathMatcher.match(pattern, path)) {
-                configAttributes.add(configAttributeMap.get(pattern));
-            }
-        }
-        // 返回请求权限集合
-        return configAttributes;
+        // 获取访问该路径所需资源，返回请求权限集合
+        return snapshot.get().trie.match(path);
     }
 
     @Override
     public Collection<ConfigAttribute> getAllConfigAttributes() {
-        return null;
+        return snapshot.get().attributes;
     }
 
     @Override
@@ -62,4 +108,32 @@ public class DynamicSecurityMetadataSource implements FilterInvocationSecurityMe
         return true;
     }
 
+    /**
+     * 权限规则快照，创建后不再修改
+     */
+    private static final class PermissionSnapshot {
+
+        private static final PermissionSnapshot EMPTY = new PermissionSnapshot(-1, Collections.emptyMap());
+
+        private final long version;
+
+        /** 由路径模式编译出的路径前缀树 */
+        private final PathPatternTrie<ConfigAttribute> trie;
+
+        private final Collection<ConfigAttribute> attributes;
+
+        private PermissionSnapshot(long version, Map<String, List<ConfigAttribute>> patterns) {
+            PathPatternTrie<ConfigAttribute> compiled = new PathPatternTrie<>();
+            List<ConfigAttribute> all = new ArrayList<>();
+            patterns.forEach((pattern, attributes) -> {
+                attributes.forEach(attribute -> compiled.insert(pattern, attribute));
+                all.addAll(attributes);
+            });
+            this.version = version;
+            this.trie = compiled;
+            this.attributes = Collections.unmodifiableList(all);
+        }
+
+    }
+
 }
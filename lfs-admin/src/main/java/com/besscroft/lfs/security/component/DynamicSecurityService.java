@@ -1,14 +1,16 @@
 package com.besscroft.lfs.security.component;
 
 import com.besscroft.lfs.entity.AuthResource;
+import com.besscroft.lfs.security.model.ResourceConfigAttribute;
 import com.besscroft.lfs.system.service.ResourceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 动态权限相关业务类
@@ -21,11 +23,13 @@ public class DynamicSecurityService {
     @Autowired
     private ResourceService resourceService;
 
-    public Map<String, ConfigAttribute> loadDataSource() {
-        Map<String, ConfigAttribute> map = new ConcurrentHashMap<>();
+    public Map<String, List<ConfigAttribute>> loadDataSource() {
+        Map<String, List<ConfigAttribute>> map = new HashMap<>();
         List<AuthResource> resourceList = resourceService.listAll();
         for (AuthResource resource : resourceList) {
-            map.put(resource.getUrl(), new org.springframework.security.access.SecurityConfig(resource.getId() + ":" + resource.getName()));
+            // 同一路径对应多个资源时每个资源一个属性，拥有任意一个资源即可访问
+            map.computeIfAbsent(resource.getUrl(), url -> new ArrayList<>())
+                    .add(new ResourceConfigAttribute(resource.getId(), resource.getName()));
         }
         return map;
     }
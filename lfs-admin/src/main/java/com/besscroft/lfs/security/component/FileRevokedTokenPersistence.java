@@ -0,0 +1,109 @@
+package com.besscroft.lfs.security.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已吊销token持久化：本地文件快照
+ *
+ * 每行一条记录（jti,过期时间），吊销时追加写入，清理时用仍然有效的记录重写整个文件。
+ * 适合单节点部署，多节点请使用 jdbc。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 19:05
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lfs.token.revocation.persistence", havingValue = "file")
+public class FileRevokedTokenPersistence implements RevokedTokenPersistence {
+
+    private final Path file;
+
+    public FileRevokedTokenPersistence(@Value("${lfs.token.revocation.file:data/revoked-tokens.txt}") String file) {
+        this.file = Paths.get(file);
+    }
+
+    @Override
+    public synchronized Map<String, Long> loadAll(long now) {
+        Map<String, Long> revoked = new HashMap<>();
+        if (!Files.exists(file)) {
+            return revoked;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                int separator = line.lastIndexOf(',');
+                if (separator <= 0) {
+                    continue;
+                }
+                try {
+                    long expireTime = Long.parseLong(line.substring(separator + 1).trim());
+                    if (expireTime >= now) {
+                        revoked.put(line.substring(0, separator), expireTime);
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("忽略无法解析的吊销记录:{}", line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return revoked;
+    }
+
+    @Override
+    public synchronized void save(String jti, long expireTime) {
+        try {
+            createParentDirectories();
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(jti + "," + expireTime);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void purge(long now, Map<String, Long> remaining) {
+        try {
+            createParentDirectories();
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : remaining.entrySet()) {
+                    if (entry.getValue() >= now) {
+                        writer.write(entry.getKey() + "," + entry.getValue());
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void createParentDirectories() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.besscroft.lfs.security.component;
+
+import com.besscroft.lfs.security.utils.PathPatternTrie;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 白名单匹配器，启动时将白名单路径按类型预编译：
+ * <ul>
+ *     <li>不含通配符的路径放入哈希表</li>
+ *     <li>形如 {@code /**}{@code /*.js} 的后缀规则放入后缀表</li>
+ *     <li>其余规则（如 {@code /v3/**}）放入路径前缀树</li>
+ * </ul>
+ * 同一个实例同时提供给 {@link com.besscroft.lfs.security.config.LfsSecurityConfig} 和 {@link com.besscroft.lfs.security.filter.DynamicSecurityFilter}，
+ * 判断时不再创建 AntPathMatcher。结果不缓存在请求属性中：FORWARD、ERROR 转发时路径会变化，需要重新判断。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 14:20
+ */
+public class IgnoreUrlsMatcher implements RequestMatcher {
+
+    /** 后缀规则，例如 "/**" + "/*.js" */
+    private static final Pattern EXTENSION_PATTERN = Pattern.compile("^/\\*\\*/\\*(\\.[^/*?{}]+)$");
+
+    private static final Pattern WILDCARD_PATTERN = Pattern.compile("[*?{]");
+
+    private final Set<String> exactPaths = new HashSet<>();
+
+    private final Set<String> extensions = new HashSet<>();
+
+    private final PathPatternTrie<String> patternTrie = new PathPatternTrie<>();
+
+    public IgnoreUrlsMatcher(List<String> urls) {
+        if (urls == null) {
+            return;
+        }
+        for (String url : urls) {
+            if (url == null) {
+                continue;
+            }
+            Matcher extension = EXTENSION_PATTERN.matcher(url);
+            if (extension.matches()) {
+                extensions.add(extension.group(1));
+            } else if (!WILDCARD_PATTERN.matcher(url).find()) {
+                exactPaths.add(normalize(url));
+            } else {
+                patternTrie.insert(url, url);
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return matches(getRequestPath(request));
+    }
+
+    /**
+     * 判断路径是否命中白名单，语义与 AntPathMatcher 一致
+     * @param path 请求路径
+     * @return 是否命中
+     */
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+        if (!exactPaths.isEmpty() && exactPaths.contains(normalize(path))) {
+            return true;
+        }
+        if (!extensions.isEmpty() && matchesExtension(path)) {
+            return true;
+        }
+        return patternTrie.size() > 0 && !patternTrie.match(path).isEmpty();
+    }
+
+    /**
+     * 后缀规则等价于：以 "/" 开头、不以 "/" 结尾，且最后一个分段以该后缀结尾
+     */
+    private boolean matchesExtension(String path) {
+        if (!path.startsWith("/") || path.endsWith("/")) {
+            return false;
+        }
+        int segmentStart = path.lastIndexOf('/') + 1;
+        for (int i = path.indexOf('.', segmentStart); i >= 0; i = path.indexOf('.', i + 1)) {
+            if (extensions.contains(path.substring(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 与 AntPathMatcher 一致，忽略连续的 "/"
+     */
+    private static String normalize(String path) {
+        if (!path.contains("//")) {
+            return path;
+        }
+        StringBuilder builder = new StringBuilder(path.length());
+        char previous = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c != '/' || previous != '/') {
+                builder.append(c);
+            }
+            previous = c;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 与 AntPathRequestMatcher 取同一个路径：servletPath + pathInfo
+     */
+    private static String getRequestPath(HttpServletRequest request) {
+        String url = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        if (pathInfo != null) {
+            url = (url != null && !url.isEmpty()) ? url + pathInfo : pathInfo;
+        }
+        return url;
+    }
+
+}
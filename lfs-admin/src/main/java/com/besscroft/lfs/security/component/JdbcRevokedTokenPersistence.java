@@ -0,0 +1,65 @@
+package com.besscroft.lfs.security.component;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 已吊销token持久化：数据库表 auth_revoked_token
+ *
+ * 自增id用于各实例增量读取其他实例写入的记录。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 19:00
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "lfs.token.revocation.persistence", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcRevokedTokenPersistence implements RevokedTokenPersistence {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, Long> loadAll(long now) {
+        Map<String, Long> revoked = new HashMap<>();
+        jdbcTemplate.query("select jti, expire_time from auth_revoked_token where expire_time >= ?",
+                rs -> {
+                    revoked.put(rs.getString(1), rs.getLong(2));
+                }, now);
+        return revoked;
+    }
+
+    @Override
+    public void save(String jti, long expireTime) {
+        jdbcTemplate.update("insert into auth_revoked_token (jti, expire_time) values (?, ?) on conflict (jti) do nothing",
+                jti, expireTime);
+    }
+
+    @Override
+    public void purge(long now, Map<String, Long> remaining) {
+        jdbcTemplate.update("delete from auth_revoked_token where expire_time < ?", now);
+    }
+
+    @Override
+    public long maxId() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from auth_revoked_token", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    @Override
+    public long loadSince(long afterId, BiConsumer<String, Long> consumer) {
+        long[] lastId = {afterId};
+        jdbcTemplate.query("select id, jti, expire_time from auth_revoked_token where id > ? order by id",
+                rs -> {
+                    lastId[0] = Math.max(lastId[0], rs.getLong(1));
+                    consumer.accept(rs.getString(2), rs.getLong(3));
+                }, afterId);
+        return lastId[0];
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.besscroft.lfs.security.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 登录时间延迟写入
+ *
+ * 获取用户信息的接口会被前端频繁调用，每次都更新 auth_user 会让读接口承担写事务。
+ * 这里只在内存中记录每个用户最新的登录时间，旧值直接被覆盖，定时及关闭时批量写入数据库。
+ * 写入时只会把登录时间往后推，多个实例同时写入也不会回退。
+ * 指标：lfs.login-time.pending（待写入用户数）、lfs.login-time.flush（写入耗时）、
+ * lfs.login-time.coalesced（被合并掉的写入次数）。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 22:40
+ */
+@Slf4j
+@Component
+public class LoginTimeRecorder {
+
+    /** 单批更新的用户数 */
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPDATE_SQL = "update auth_user set login_time = ? where id = ? and (login_time is null or login_time < ?)";
+
+    /** 用户id -> 最新登录时间（毫秒） */
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Timer flushTimer;
+
+    private final Counter coalescedCounter;
+
+    public LoginTimeRecorder(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("lfs.login-time.pending", pending, Map::size)
+                .description("待写入的登录时间数量")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("lfs.login-time.flush")
+                .description("登录时间批量写入耗时")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("lfs.login-time.coalesced")
+                .description("被合并掉的登录时间写入次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录登录时间，只保留每个用户最新的时间
+     * @param userId 用户id
+     * @param loginTime 登录时间
+     */
+    public void record(Long userId, Date loginTime) {
+        if (userId == null || loginTime == null) {
+            return;
+        }
+        long time = loginTime.getTime();
+        if (pending.putIfAbsent(userId, time) != null) {
+            // 已有待写入的值，合并为较新的一个
+            pending.merge(userId, time, Math::max);
+            coalescedCounter.increment();
+        }
+    }
+
+    /**
+     * 把待写入的登录时间批量写入数据库
+     */
+    @Scheduled(fixedDelayString = "${lfs.login-time.flush-interval:PT30S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : pending.entrySet()) {
+            Long userId = entry.getKey();
+            Long loginTime = entry.getValue();
+            // 取出期间被更新的值留到下次写入
+            if (pending.remove(userId, loginTime)) {
+                Timestamp timestamp = new Timestamp(loginTime);
+                batch.add(new Object[]{timestamp, userId, timestamp});
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+        } catch (Exception e) {
+            log.error("批量写入登录时间失败，{} 条记录将在下次重试", batch.size(), e);
+            // 放回时保留较新的值
+            for (Object[] args : batch) {
+                pending.merge((Long) args[1], ((Timestamp) args[0]).getTime(), Math::max);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.besscroft.lfs.security.component;
+
+import com.besscroft.lfs.constant.HttpStatus;
+import com.besscroft.lfs.exception.PiscesException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 密码哈希执行器，BCrypt 计算放到独立的有界线程池中执行
+ *
+ * 登录高峰时最多只有"线程数 + 队列容量"个请求线程在等待 BCrypt，其余请求立即以 429 失败，
+ * 等待超时以 503 失败，不会占满 Tomcat 线程而拖垮其他接口。
+ * 全局共用一个 {@link PasswordEncoder}，Spring Security 配置中的 passwordEncoder 也是同一个实例。
+ * 指标：lfs.password.hash（哈希耗时，operation=matches/encode）、lfs.password.rejected（拒绝次数）、
+ * executor.*（name=password-hasher，包含队列长度 executor.queued）。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 19:50
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final String EXECUTOR_NAME = "password-hasher";
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+    private final ThreadPoolExecutor executor;
+
+    /** 所有批量加密共用，同时占用的线程不超过线程池的一半 */
+    private final Semaphore batchPermits;
+
+    private final long timeoutNanos;
+
+    private final Timer matchesTimer;
+
+    private final Timer encodeTimer;
+
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(@Value("${lfs.password.threads:0}") int threads,
+                          @Value("${lfs.password.queue-capacity:64}") int queueCapacity,
+                          @Value("${lfs.password.timeout:5s}") Duration timeout,
+                          MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(EXECUTOR_NAME + "-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.batchPermits = new Semaphore(Math.max(1, poolSize / 2));
+        this.timeoutNanos = timeout.toNanos();
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        this.matchesTimer = Timer.builder("lfs.password.hash")
+                .description("密码哈希耗时")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("lfs.password.hash")
+                .description("密码哈希耗时")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("lfs.password.rejected")
+                .description("线程池已满被拒绝的哈希请求")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 校验密码
+     * @param rawPassword 明文密码
+     * @param encodedPassword 加密后的密码
+     * @return 是否匹配
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 加密密码
+     * @param rawPassword 明文密码
+     * @return 加密后的密码
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 批量加密密码，用于导入等后台任务
+     *
+     * 所有批量加密合计占用的线程不超过线程池的一半，多个导入同时执行时也给登录留出空闲线程；
+     * 线程池已满时在调用线程上加密，不会被拒绝。
+     * @param rawPasswords 明文密码
+     * @return 加密后的密码，顺序与参数一致
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<BatchTask> tasks = new ArrayList<>(rawPasswords.size());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                batchPermits.acquire();
+                BatchTask task = new BatchTask(rawPassword);
+                tasks.add(task);
+                try {
+                    futures.add(executor.submit(task));
+                } catch (RejectedExecutionException e) {
+                    FutureTask<String> inline = new FutureTask<>(task);
+                    inline.run();
+                    futures.add(inline);
+                }
+            }
+            List<String> encoded = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                encoded.add(future.get());
+            }
+            return encoded;
+        } catch (InterruptedException e) {
+            cancel(tasks, futures);
+            Thread.currentThread().interrupt();
+            throw new PiscesException(HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        } catch (ExecutionException e) {
+            cancel(tasks, futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new PiscesException(cause == null ? e.getMessage() : cause.getMessage());
+        }
+    }
+
+    /**
+     * 共用的加密器
+     */
+    public PasswordEncoder getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Timer timer, Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("密码哈希线程池已满，拒绝请求");
+            throw new PiscesException(HttpStatus.TOO_MANY_REQUESTS, "登录请求过多，请稍后重试");
+        }
+        try {
+            return future.get(timeoutNanos - (System.nanoTime() - submitted), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("密码哈希等待超时");
+            throw new PiscesException(HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PiscesException(HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后重试");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new PiscesException(cause == null ? e.getMessage() : cause.getMessage());
+        }
+    }
+
+    /**
+     * 取消未完成的批量加密，取消后不会执行的任务在这里归还许可
+     */
+    private static void cancel(List<BatchTask> tasks, List<Future<String>> futures) {
+        futures.forEach(future -> future.cancel(true));
+        tasks.forEach(BatchTask::release);
+    }
+
+    /**
+     * 批量加密中的单个任务，持有一个许可，执行结束或取消时归还且只归还一次
+     */
+    private final class BatchTask implements Callable<String> {
+
+        private final CharSequence rawPassword;
+
+        private final AtomicBoolean held = new AtomicBoolean(true);
+
+        private BatchTask(CharSequence rawPassword) {
+            this.rawPassword = rawPassword;
+        }
+
+        @Override
+        public String call() throws Exception {
+            try {
+                return encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword));
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (held.compareAndSet(true, false)) {
+                batchPermits.release();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.besscroft.lfs.security.component;
+
+import com.besscroft.lfs.security.model.LFSUser;
+import com.besscroft.lfs.system.utils.TransactionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 已认证用户缓存，避免每个请求都查询用户和资源
+ *
+ * 按用户名缓存 {@link UserDetails}，按写入时间过期并限制条目数量。
+ * 用户状态、角色、资源变更后需要调用 invalidate 方法使缓存失效，失效会在事务提交后执行，
+ * 避免并发请求在事务提交前把旧数据重新加载进缓存。
+ * 失效时会提升 {@link AuthorityVersions}，使携带旧权限版本的token回退到数据库加载权限；
+ * 事务中的变更在变更时和事务提交后各提升一次版本，事务提交前加载到的旧权限同样会被判定为过时；没有事务时只提升一次。
+ * 其他实例的变更通过 evict 方法处理，只追平权限版本，不再提升。
+ * 命中、未命中、淘汰次数通过 Micrometer 以 cache.* 指标暴露（cache=principal）。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 16:10
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private static final String CACHE_NAME = "principal";
+
+    private final Cache<String, UserDetails> cache;
+
+    private final AuthorityVersions authorityVersions;
+
+    public PrincipalCache(@Value("${lfs.cache.principal.maximum-size:10000}") long maximumSize,
+                          @Value("${lfs.cache.principal.expire-after-write:5m}") Duration expireAfterWrite,
+                          MeterRegistry meterRegistry,
+                          AuthorityVersions authorityVersions) {
+        this.authorityVersions = authorityVersions;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 获取缓存的用户，未命中时调用 loader 加载
+     * @param username 用户名
+     * @param loader 加载方法
+     * @return 用户信息
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    /**
+     * 根据用户名使缓存失效
+     * @param username 用户名
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> cache.invalidate(username));
+    }
+
+    /**
+     * 根据用户id使缓存失效，用于只知道用户id的变更（状态、角色、删除）
+     * @param userId 用户id
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.nowAndAfterCommit(() -> authorityVersions.bumpUser(userId));
+        TransactionUtils.afterCommit(() -> cache.asMap().values().removeIf(user ->
+                user instanceof LFSUser && userId.equals(((LFSUser) user).getUserId())));
+    }
+
+    /**
+     * 清空缓存，用于角色、资源等影响多个用户的变更
+     */
+    public void invalidateAll() {
+        TransactionUtils.nowAndAfterCommit(authorityVersions::bumpAll);
+        TransactionUtils.afterCommit(cache::invalidateAll);
+    }
+
+    /**
+     * 其他实例变更了这些用户，立即使缓存失效
+     * @param userIds 用户id
+     */
+    public void evictUsers(Collection<Long> userIds) {
+        authorityVersions.syncUsers(userIds);
+        Set<Long> ids = new HashSet<>(userIds);
+        cache.asMap().values().removeIf(user ->
+                user instanceof LFSUser && ids.contains(((LFSUser) user).getUserId()));
+    }
+
+    /**
+     * 其他实例的变更影响多个用户，立即清空缓存
+     */
+    public void evictAll() {
+        authorityVersions.syncAll();
+        cache.invalidateAll();
+    }
+
+    /**
+     * 缓存统计信息：命中、未命中、淘汰次数等
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 当前缓存条目数（近似值）
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+}
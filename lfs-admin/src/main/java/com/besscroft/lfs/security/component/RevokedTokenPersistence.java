@@ -0,0 +1,56 @@
+package com.besscroft.lfs.security.component;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 已吊销token的持久化，保证重启后吊销记录仍然有效
+ *
+ * 通过 lfs.token.revocation.persistence 选择实现：jdbc（默认）、file，配置为 none 时只保存在内存中。
+ * 支持增量读取的实现（jdbc）可以在多个实例之间同步吊销记录。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 18:55
+ */
+public interface RevokedTokenPersistence {
+
+    /**
+     * 加载所有未过期的吊销记录
+     * @param now 当前时间（毫秒）
+     * @return jti -> 过期时间（毫秒）
+     */
+    Map<String, Long> loadAll(long now);
+
+    /**
+     * 保存一条吊销记录
+     * @param jti token id
+     * @param expireTime token过期时间（毫秒）
+     */
+    void save(String jti, long expireTime);
+
+    /**
+     * 清理已过期的吊销记录
+     * @param now 当前时间（毫秒）
+     * @param remaining 仍然有效的吊销记录，快照类实现可以直接用它重写
+     */
+    void purge(long now, Map<String, Long> remaining);
+
+    /**
+     * 已写入记录的最大id，不支持增量读取时返回 -1
+     * @return 最大id
+     */
+    default long maxId() {
+        return -1;
+    }
+
+    /**
+     * 增量读取吊销记录，用于获取其他实例吊销的token
+     * @param afterId 只读取id大于该值的记录
+     * @param consumer 接收 jti 和过期时间（毫秒）
+     * @return 读取到的最大id，没有记录时返回 afterId
+     */
+    default long loadSince(long afterId, BiConsumer<String, Long> consumer) {
+        return afterId;
+    }
+
+}
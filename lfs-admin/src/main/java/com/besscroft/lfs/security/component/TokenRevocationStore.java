@@ -0,0 +1,168 @@
+package com.besscroft.lfs.security.component;
+
+import com.besscroft.lfs.security.utils.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已吊销token存储，退出登录后token在过期前不能再使用
+ *
+ * 以 jti 为键、token过期时间为值保存在内存中，并用布隆过滤器做否定判断：
+ * 绝大多数请求的token没有被吊销，只需几次哈希探测即可放行，不查询数据库。
+ * 过期记录定时清理，清理时重建布隆过滤器；持久化由 {@link RevokedTokenPersistence} 完成，启动时加载。
+ * 持久化支持增量读取时（jdbc），定时读取其他实例新写入的吊销记录，退出登录在所有实例上生效。
+ * 自增id在并发插入时可能晚于更大的id提交，读取时回看最近若干条记录，已有的记录直接跳过。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 19:10
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final RevokedTokenPersistence persistence;
+
+    private final long expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    private final int lookback;
+
+    /** 已同步的最大记录id，持久化不支持增量读取时为 -1，只在同步线程中修改 */
+    private volatile long lastId = -1;
+
+    private volatile BloomFilter bloomFilter;
+
+    /** 吊销与清理的持久化操作互斥，避免清理快照覆盖刚写入的记录 */
+    private final Object persistenceLock = new Object();
+
+    public TokenRevocationStore(ObjectProvider<RevokedTokenPersistence> persistence,
+                                @Value("${lfs.token.revocation.expected-insertions:100000}") long expectedInsertions,
+                                @Value("${lfs.token.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                @Value("${lfs.token.revocation.lookback:100}") int lookback,
+                                MeterRegistry meterRegistry) {
+        this.persistence = persistence.getIfAvailable();
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.lookback = lookback;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        Gauge.builder("lfs.token.revoked", revoked, Map::size)
+                .description("未过期的已吊销token数量")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (persistence == null) {
+            return;
+        }
+        try {
+            // 先取最大id再全量加载，两者之间写入的记录由同步读取补上
+            lastId = persistence.maxId();
+            revoked.putAll(persistence.loadAll(System.currentTimeMillis()));
+            rebuildBloomFilter();
+            log.info("加载已吊销token:{}条", revoked.size());
+        } catch (Exception e) {
+            log.error("加载已吊销token失败", e);
+        }
+    }
+
+    /**
+     * 判断token是否已被吊销
+     * @param jti token id
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * 吊销token
+     * @param jti token id
+     * @param expireTime token过期时间（毫秒），过期后记录会被清理
+     */
+    public void revoke(String jti, long expireTime) {
+        if (jti == null || expireTime < System.currentTimeMillis()) {
+            return;
+        }
+        synchronized (persistenceLock) {
+            // 先写过滤器再写集合，并发读取时不会出现集合中有而过滤器中没有的情况
+            bloomFilter.put(jti);
+            revoked.put(jti, expireTime);
+            if (persistence != null) {
+                persistence.save(jti, expireTime);
+            }
+        }
+    }
+
+    /**
+     * 定时读取其他实例写入的吊销记录
+     */
+    @Scheduled(fixedDelayString = "${lfs.token.revocation.sync-interval:PT1S}")
+    public void sync() {
+        if (persistence == null || lastId < 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            lastId = Math.max(lastId, persistence.loadSince(Math.max(0, lastId - lookback), (jti, expireTime) -> {
+                if (expireTime < now || revoked.containsKey(jti)) {
+                    return;
+                }
+                synchronized (persistenceLock) {
+                    bloomFilter.put(jti);
+                    revoked.put(jti, expireTime);
+                }
+            }));
+        } catch (Exception e) {
+            log.error("同步已吊销token失败", e);
+        }
+    }
+
+    /**
+     * 定时清理已过期的吊销记录并重建布隆过滤器
+     */
+    @Scheduled(fixedDelayString = "${lfs.token.revocation.purge-interval:PT10M}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        synchronized (persistenceLock) {
+            int before = revoked.size();
+            revoked.values().removeIf(expireTime -> expireTime < now);
+            rebuildBloomFilter();
+            if (persistence != null) {
+                try {
+                    persistence.purge(now, new HashMap<>(revoked));
+                } catch (Exception e) {
+                    log.error("清理已吊销token持久化记录失败", e);
+                }
+            }
+            if (before != revoked.size()) {
+                log.info("清理已过期的吊销token:{}条", before - revoked.size());
+            }
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revoked.size() * 2L), falsePositiveRate);
+        for (String jti : revoked.keySet()) {
+            rebuilt.put(jti);
+        }
+        bloomFilter = rebuilt;
+    }
+
+}
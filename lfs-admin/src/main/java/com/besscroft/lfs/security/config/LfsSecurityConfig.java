@@ -2,6 +2,8 @@ package com.besscroft.lfs.security.config;
 
 import com.besscroft.lfs.security.component.DynamicAccessDecisionManager;
 import com.besscroft.lfs.security.component.DynamicSecurityMetadataSource;
+import com.besscroft.lfs.security.component.IgnoreUrlsMatcher;
+import com.besscroft.lfs.security.component.PasswordHasher;
 import com.besscroft.lfs.security.filter.AuthenticationFilter;
 import com.besscroft.lfs.security.filter.DynamicSecurityFilter;
 import com.besscroft.lfs.security.handler.LfsDeniedHandler;
@@ -20,7 +22,6 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -36,6 +37,9 @@ public class LfsSecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     @Bean
     public UserDetailsService userDetailsService() {
         //获取登录用户信息
@@ -47,9 +51,7 @@ public class LfsSecurityConfig extends WebSecurityConfigurerAdapter {
         ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry registry = http
                 .authorizeRequests();
         // 不需要保护的资源路径允许访问,像登陆、注册接口肯定是不需要认证的
-        for (String url : ignoreUrlsConfig().getUrls()) {
-            registry.antMatchers(url).permitAll();
-        }
+        registry.requestMatchers(ignoreUrlsMatcher()).permitAll();
         //允许跨域请求的OPTIONS请求
         registry.antMatchers(HttpMethod.OPTIONS)
                 .permitAll();
@@ -110,9 +112,15 @@ public class LfsSecurityConfig extends WebSecurityConfigurerAdapter {
         return new IgnoreUrlsConfig();
     }
 
+    @Bean
+    public IgnoreUrlsMatcher ignoreUrlsMatcher() {
+        return new IgnoreUrlsMatcher(ignoreUrlsConfig().getUrls());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // 与登录、新增用户共用同一个加密器
+        return passwordHasher.getPasswordEncoder();
     }
 
     @Bean
@@ -1,7 +1,10 @@
 package com.besscroft.lfs.security.filter;
 
+import com.besscroft.lfs.security.component.AuthorityVersions;
+import com.besscroft.lfs.security.component.PrincipalCache;
+import com.besscroft.lfs.security.model.LFSUser;
+import com.besscroft.lfs.security.model.ParsedToken;
 import com.besscroft.lfs.security.utils.JWTUtils;
-import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -33,6 +36,12 @@ public class AuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AuthorityVersions authorityVersions;
+
     @Value("${jwt.tokenHeader}")
     private String tokenHeader;
 
@@ -41,22 +50,30 @@ public class AuthenticationFilter extends OncePerRequestFilter {
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        log.info("--- AuthenticationFilter begin ---");
+        log.debug("--- AuthenticationFilter begin ---");
         // 从请求头中获取token字符串并解析
         String authHeader = request.getHeader(this.tokenHeader);
         if (authHeader != null && authHeader.startsWith(this.tokenHead)) {
             String authToken = authHeader.substring(this.tokenHead.length());
-            log.info("token:{}",authToken);
-            Claims claims = jwtUtils.getClaimsFromToken(authToken);
-            if (claims != null) {
-                String username = claims.getSubject();
-                UserDetails user = userDetailsService.loadUserByUsername(username);
+            ParsedToken parsedToken = jwtUtils.parseToken(authToken);
+            if (parsedToken != null) {
+                String username = parsedToken.getSubject();
+                // 不输出token原文，避免日志泄露凭证
+                log.debug("token用户:{}", username);
+                UserDetails user;
+                if (parsedToken.hasAuthorityClaims()
+                        && authorityVersions.isCurrent(parsedToken.getUserId(), parsedToken.getAuthorityVersion())) {
+                    // token携带的权限仍是最新版本，直接使用，不查询数据库
+                    user = new LFSUser(parsedToken.getUserId(), username, parsedToken.getResourceIds(), parsedToken.getAuthorityVersion());
+                } else {
+                    user = principalCache.get(username, userDetailsService::loadUserByUsername);
+                }
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
-        log.info("--- AuthenticationFilter end ---");
+        log.debug("--- AuthenticationFilter end ---");
         filterChain.doFilter(request, response);
     }
 
@@ -2,15 +2,13 @@ package com.besscroft.lfs.security.filter;
 
 import com.besscroft.lfs.security.component.DynamicAccessDecisionManager;
 import com.besscroft.lfs.security.component.DynamicSecurityMetadataSource;
-import com.besscroft.lfs.security.config.IgnoreUrlsConfig;
+import com.besscroft.lfs.security.component.IgnoreUrlsMatcher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.access.SecurityMetadataSource;
 import org.springframework.security.access.intercept.AbstractSecurityInterceptor;
 import org.springframework.security.access.intercept.InterceptorStatusToken;
 import org.springframework.security.web.FilterInvocation;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.PathMatcher;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
@@ -27,7 +25,7 @@ public class DynamicSecurityFilter extends AbstractSecurityInterceptor implement
     @Autowired
     private DynamicSecurityMetadataSource dynamicSecurityMetadataSource;
     @Autowired
-    private IgnoreUrlsConfig ignoreUrlsConfig;
+    private IgnoreUrlsMatcher ignoreUrlsMatcher;
 
     @Autowired
     public void setMyAccessDecisionManager(DynamicAccessDecisionManager dynamicAccessDecisionManager) {
@@ -48,12 +46,9 @@ public class DynamicSecurityFilter extends AbstractSecurityInterceptor implement
             return;
         }
         // 白名单请求直接放行
-        PathMatcher pathMatcher = new AntPathMatcher();
-        for (String path : ignoreUrlsConfig.getUrls()) {
-            if(pathMatcher.match(path,request.getRequestURI())){
-                fi.getChain().doFilter(fi.getRequest(), fi.getResponse());
-                return;
-            }
+        if (ignoreUrlsMatcher.matches(request)) {
+            fi.getChain().doFilter(fi.getRequest(), fi.getResponse());
+            return;
         }
         // 此处会调用AccessDecisionManager中的decide方法进行鉴权操作
         InterceptorStatusToken token = super.beforeInvocation(fi);
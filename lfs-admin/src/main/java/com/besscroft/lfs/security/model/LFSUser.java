@@ -6,7 +6,10 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,17 +23,76 @@ public class LFSUser implements UserDetails {
 
     private List<AuthResource> authResources;
 
-    public LFSUser(AuthUser authUser, List<AuthResource> authResources) {
+    /** 用户拥有的资源id位图，构造时计算一次 */
+    private final BitSet resourceIds = new BitSet();
+
+    /** 用户拥有的资源权限，构造时计算一次 */
+    private final List<GrantedAuthority> authorities;
+
+    /** 加载权限时的权限版本 */
+    private final long authorityVersion;
+
+    public LFSUser(AuthUser authUser, List<AuthResource> authResources, long authorityVersion) {
         this.authUser = authUser;
         this.authResources = authResources;
+        this.authorityVersion = authorityVersion;
+        for (AuthResource resource : authResources) {
+            setResourceBit(resourceIds, resource.getId());
+        }
+        this.authorities = Collections.unmodifiableList(authResources.stream()
+                .map(role ->new SimpleGrantedAuthority(role.getId()+":"+role.getName()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 根据token中携带的权限信息构建用户，不查询数据库
+     *
+     * token中只有资源id，权限字符串只包含资源id；访问决策走资源位图，不受影响
+     * @param userId 用户id
+     * @param username 用户名
+     * @param resourceIds 资源id位图
+     * @param authorityVersion token中的权限版本
+     */
+    public LFSUser(Long userId, String username, BitSet resourceIds, long authorityVersion) {
+        this.authUser = AuthUser.builder().id(userId).username(username).status(1).build();
+        this.authResources = Collections.emptyList();
+        this.authorityVersion = authorityVersion;
+        this.resourceIds.or(resourceIds);
+        List<GrantedAuthority> authorityList = new ArrayList<>(resourceIds.cardinality());
+        for (int id = resourceIds.nextSetBit(0); id >= 0; id = resourceIds.nextSetBit(id + 1)) {
+            authorityList.add(new SimpleGrantedAuthority(String.valueOf(id)));
+        }
+        this.authorities = Collections.unmodifiableList(authorityList);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // 返回当前用户的角色
-        return authResources.stream()
-                .map(role ->new SimpleGrantedAuthority(role.getId()+":"+role.getName()))
-                .collect(Collectors.toList());
+        return authorities;
+    }
+
+    /**
+     * 获取用户拥有的资源id位图
+     * @return 资源id位图
+     */
+    public BitSet getResourceIds() {
+        return resourceIds;
+    }
+
+    /**
+     * 获取用户id
+     * @return 用户id
+     */
+    public Long getUserId() {
+        return authUser.getId();
+    }
+
+    /**
+     * 获取加载权限时的权限版本
+     * @return 权限版本
+     */
+    public long getAuthorityVersion() {
+        return authorityVersion;
     }
 
     @Override
@@ -66,4 +128,15 @@ public class LFSUser implements UserDetails {
         return authUser.getStatus().equals(1);
     }
 
+    /**
+     * 资源id写入位图，资源表主键为 int4，超出范围的id直接忽略
+     * @param bitSet 位图
+     * @param resourceId 资源id
+     */
+    static void setResourceBit(BitSet bitSet, Long resourceId) {
+        if (resourceId != null && resourceId >= 0 && resourceId <= Integer.MAX_VALUE) {
+            bitSet.set(resourceId.intValue());
+        }
+    }
+
 }
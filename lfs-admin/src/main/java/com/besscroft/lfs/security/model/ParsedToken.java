@@ -0,0 +1,129 @@
+package com.besscroft.lfs.security.model;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.BitSet;
+import java.util.Date;
+
+/**
+ * 已验签的token，签名校验和 JSON 解析只做一次，后续的用户名、过期时间、刷新时间判断都基于该对象
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 16:40
+ */
+public class ParsedToken {
+
+    private final String token;
+
+    private final String id;
+
+    private final String subject;
+
+    private final Date created;
+
+    private final Date expiration;
+
+    private final Claims claims;
+
+    private final Long userId;
+
+    private final BitSet resourceIds;
+
+    private final Long authorityVersion;
+
+    public ParsedToken(String token, Claims claims, Date created) {
+        this(token, claims, created, null, null, null);
+    }
+
+    public ParsedToken(String token, Claims claims, Date created, Long userId, BitSet resourceIds, Long authorityVersion) {
+        this.token = token;
+        this.id = claims.getId();
+        this.subject = claims.getSubject();
+        this.created = created;
+        this.expiration = claims.getExpiration();
+        this.claims = claims;
+        this.userId = userId;
+        this.resourceIds = resourceIds;
+        this.authorityVersion = authorityVersion;
+    }
+
+    /**
+     * 原始token字符串（不含tokenHead）
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * token id（jti），用于吊销
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 登录用户名
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * token生成（刷新）时间，旧token中可能不存在
+     */
+    public Date getCreated() {
+        return created;
+    }
+
+    /**
+     * token过期时间
+     */
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * 原始负载
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * 用户id，仅自包含权限的token中存在
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * 用户拥有的资源id位图，仅自包含权限的token中存在，只读
+     */
+    public BitSet getResourceIds() {
+        return resourceIds;
+    }
+
+    /**
+     * 签发时的权限版本，仅自包含权限的token中存在
+     */
+    public Long getAuthorityVersion() {
+        return authorityVersion;
+    }
+
+    /**
+     * 是否携带了完整的权限信息
+     */
+    public boolean hasAuthorityClaims() {
+        return userId != null && resourceIds != null && authorityVersion != null;
+    }
+
+    /**
+     * 判断token在指定时间是否已经过期
+     * @param now 当前时间
+     * @return 是否过期
+     */
+    public boolean isExpiredAt(Date now) {
+        return expiration != null && expiration.before(now);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.besscroft.lfs.security.model;
+
+import org.springframework.security.access.ConfigAttribute;
+
+import java.util.BitSet;
+
+/**
+ * 资源权限配置属性，每个资源一个，携带该资源id的位图
+ * 同一路径对应多个资源时返回多个属性，拥有其中任意一个即可访问
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 15:02
+ */
+public class ResourceConfigAttribute implements ConfigAttribute {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 访问所需资源id */
+    private final BitSet resourceIds = new BitSet();
+
+    /** 与用户权限字符串相同的格式：资源id:资源名称 */
+    private final String attribute;
+
+    /**
+     * @param resourceId 资源id
+     * @param name 资源名称
+     */
+    public ResourceConfigAttribute(Long resourceId, String name) {
+        LFSUser.setResourceBit(resourceIds, resourceId);
+        this.attribute = resourceId + ":" + name;
+    }
+
+    public BitSet getResourceIds() {
+        return resourceIds;
+    }
+
+    /**
+     * 判断是否拥有该资源
+     * @param ownedResourceIds 用户拥有的资源id位图
+     * @return 是否放行
+     */
+    public boolean isGrantedTo(BitSet ownedResourceIds) {
+        return ownedResourceIds != null && resourceIds.intersects(ownedResourceIds);
+    }
+
+    @Override
+    public String getAttribute() {
+        return attribute;
+    }
+
+    @Override
+    public String toString() {
+        return attribute;
+    }
+
+}
@@ -1,18 +1,26 @@
 package com.besscroft.lfs.security.utils;
 
 import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
+import com.besscroft.lfs.security.component.TokenRevocationStore;
+import com.besscroft.lfs.security.component.VerifiedTokenCache;
+import com.besscroft.lfs.security.model.LFSUser;
+import com.besscroft.lfs.security.model.ParsedToken;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,6 +41,12 @@ public class JWTUtils {
 
     private static final String CLAIM_KEY_CREATED = "created";
 
+    private static final String CLAIM_KEY_USER_ID = "uid";
+
+    private static final String CLAIM_KEY_RESOURCES = "rid";
+
+    private static final String CLAIM_KEY_AUTHORITY_VERSION = "aver";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -42,12 +56,24 @@ public class JWTUtils {
     @Value("${jwt.tokenHead}")
     private String tokenHead;
 
+    /** 是否在token中携带资源权限（资源id位图 + 权限版本），开启后认证不再查询数据库 */
+    @Value("${jwt.authorityClaims:false}")
+    private boolean authorityClaims;
+
+    /** 已验签token缓存，lfs.cache.token.enabled=false 时不存在 */
+    @Autowired(required = false)
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired(required = false)
+    private TokenRevocationStore tokenRevocationStore;
+
     /**
      * 根据负责生成JWT的token
      */
     public String generateToken(Map<String, Object> claims) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(IdUtil.fastSimpleUUID())
                 .setExpiration(generateExpirationDate())
                 .signWith(SignatureAlgorithm.HS512, secret)
                 .compact();
@@ -57,22 +83,78 @@ public class JWTUtils {
      * 从token中获取JWT中的负载
      */
     public Claims getClaimsFromToken(String token) {
+        ParsedToken parsedToken = parseToken(token);
+        return parsedToken == null ? null : parsedToken.getClaims();
+    }
+
+    /**
+     * 校验签名并解析token，只做一次验签，后续判断都基于返回的对象
+     * @param token 不带tokenHead的token
+     * @return 解析结果，token为空、过期或非法时返回null
+     */
+    public ParsedToken parseToken(String token) {
         // 如果是空字符串直接返回null
         if (!StringUtils.hasLength(token)) {
             return null;
         }
+        ParsedToken parsedToken = verifiedTokenCache != null
+                ? verifiedTokenCache.get(token, this::verifyToken)
+                : verifyToken(token);
+        // 已退出登录的token
+        if (parsedToken != null && tokenRevocationStore != null && tokenRevocationStore.isRevoked(parsedToken.getId())) {
+            return null;
+        }
+        return parsedToken;
+    }
+
+    /**
+     * 吊销token，吊销后直到过期都不能再使用
+     * @param headToken 带tokenHead的token
+     * @return 是否吊销成功
+     */
+    public boolean revokeHeadToken(String headToken) {
+        if (tokenRevocationStore == null || StrUtil.isEmpty(headToken) || !headToken.startsWith(tokenHead)) {
+            return false;
+        }
+        ParsedToken parsedToken = parseToken(headToken.substring(tokenHead.length()));
+        // 旧版本签发的token没有jti，无法吊销，只能等待过期
+        if (parsedToken == null || parsedToken.getId() == null || parsedToken.getExpiration() == null) {
+            return false;
+        }
+        tokenRevocationStore.revoke(parsedToken.getId(), parsedToken.getExpiration().getTime());
+        return true;
+    }
 
-        Claims claims = null;
+    /**
+     * 验签并构建解析结果，失败时返回null
+     */
+    private ParsedToken verifyToken(String token) {
         // 解析失败了会抛出异常，所以我们要捕捉一下。token过期、token非法都会导致解析失败
         try {
-            claims = Jwts.parser()
-                    .setSigningKey(secret)
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = parseClaims(token);
+            Date created = claims.get(CLAIM_KEY_CREATED, Date.class);
+            String resources = claims.get(CLAIM_KEY_RESOURCES, String.class);
+            if (authorityClaims && resources != null) {
+                return new ParsedToken(token, claims, created,
+                        claims.get(CLAIM_KEY_USER_ID, Long.class),
+                        BitSet.valueOf(Base64.getUrlDecoder().decode(resources)),
+                        claims.get(CLAIM_KEY_AUTHORITY_VERSION, Long.class));
+            }
+            return new ParsedToken(token, claims, created);
         } catch (Exception e) {
             LOGGER.info("JWT格式验证失败:{}", token);
         }
-        return claims;
+        return null;
+    }
+
+    /**
+     * 验签并解析负载，整个工具类只有这里调用 jjwt 解析
+     */
+    protected Claims parseClaims(String token) {
+        return Jwts.parser()
+                .setSigningKey(secret)
+                .parseClaimsJws(token)
+                .getBody();
     }
 
     /**
@@ -86,14 +168,8 @@ public class JWTUtils {
      * 从token中获取登录用户名
      */
     public String getUserNameFromToken(String token) {
-        String username;
-        try {
-            Claims claims = getClaimsFromToken(token);
-            username = claims.getSubject();
-        } catch (Exception e) {
-            username = null;
-        }
-        return username;
+        ParsedToken parsedToken = parseToken(token);
+        return parsedToken == null ? null : parsedToken.getSubject();
     }
 
     /**
@@ -103,24 +179,19 @@ public class JWTUtils {
      * @param userDetails 从数据库中查询出来的用户信息
      */
     public boolean validateToken(String token, UserDetails userDetails) {
-        String username = getUserNameFromToken(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return validateToken(parseToken(token), userDetails);
     }
 
     /**
-     * 判断token是否已经失效
-     */
-    private boolean isTokenExpired(String token) {
-        Date expiredDate = getExpiredDateFromToken(token);
-        return expiredDate.before(new Date());
-    }
-
-    /**
-     * 从token中获取过期时间
+     * 验证已解析的token是否还有效
+     *
+     * @param parsedToken 已解析的token
+     * @param userDetails 从数据库中查询出来的用户信息
      */
-    private Date getExpiredDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getExpiration();
+    public boolean validateToken(ParsedToken parsedToken, UserDetails userDetails) {
+        return parsedToken != null
+                && userDetails.getUsername().equals(parsedToken.getSubject())
+                && !parsedToken.isExpiredAt(new Date());
     }
 
     /**
@@ -130,11 +201,17 @@ public class JWTUtils {
         Map<String, Object> claims = new HashMap<>();
         claims.put(CLAIM_KEY_USERNAME, userDetails.getUsername());
         claims.put(CLAIM_KEY_CREATED, new Date());
+        if (authorityClaims && userDetails instanceof LFSUser) {
+            LFSUser user = (LFSUser) userDetails;
+            claims.put(CLAIM_KEY_USER_ID, user.getUserId());
+            claims.put(CLAIM_KEY_RESOURCES, Base64.getUrlEncoder().withoutPadding().encodeToString(user.getResourceIds().toByteArray()));
+            claims.put(CLAIM_KEY_AUTHORITY_VERSION, user.getAuthorityVersion());
+        }
         return generateToken(claims);
     }
 
     /**
-     * 当原来的token没过期时是可以刷新的
+     * 当原来的token没过期时是可以刷新的，签发新token后吊销原token，退出登录时只需吊销最新的token
      *
      * @param oldToken 带tokenHead的token
      */
@@ -147,37 +224,43 @@ public class JWTUtils {
             return null;
         }
         // token校验不通过
-        Claims claims = getClaimsFromToken(token);
-        if (claims==null) {
+        ParsedToken parsedToken = parseToken(token);
+        if (parsedToken == null) {
             return null;
         }
+        Date now = new Date();
         // 如果token已经过期，不支持刷新
-        if (isTokenExpired(token)) {
+        if (parsedToken.isExpiredAt(now)) {
             return null;
         }
         // 如果token在30分钟之内刚刷新过，返回原token
-        if (tokenRefreshJustBefore(token,30*60)) {
+        if (tokenRefreshJustBefore(parsedToken, 30 * 60, now)) {
             return token;
         } else {
-            claims.put(CLAIM_KEY_CREATED, new Date());
-            return generateToken(claims);
+            // 解析结果可能被缓存共享，复制一份负载再修改
+            Map<String, Object> claims = new HashMap<>(parsedToken.getClaims());
+            claims.put(CLAIM_KEY_CREATED, now);
+            String refreshed = generateToken(claims);
+            if (tokenRevocationStore != null && parsedToken.getId() != null && parsedToken.getExpiration() != null) {
+                tokenRevocationStore.revoke(parsedToken.getId(), parsedToken.getExpiration().getTime());
+            }
+            return refreshed;
         }
     }
 
     /**
      * 判断token在指定时间内是否刚刚刷新过
-     * @param token 原token
+     * @param parsedToken 已解析的token
      * @param time 指定时间（秒）
+     * @param refreshDate 刷新时间
      */
-    private boolean tokenRefreshJustBefore(String token, int time) {
-        Claims claims = getClaimsFromToken(token);
-        Date created = claims.get(CLAIM_KEY_CREATED, Date.class);
-        Date refreshDate = new Date();
-        // 刷新时间在创建时间的指定时间内
-        if (refreshDate.after(created)&&refreshDate.before(DateUtil.offsetSecond(created,time))) {
-            return true;
+    private boolean tokenRefreshJustBefore(ParsedToken parsedToken, int time, Date refreshDate) {
+        Date created = parsedToken.getCreated();
+        if (created == null) {
+            return false;
         }
-        return false;
+        // 刷新时间在创建时间的指定时间内
+        return refreshDate.after(created) && refreshDate.before(DateUtil.offsetSecond(created, time));
     }
 
 }
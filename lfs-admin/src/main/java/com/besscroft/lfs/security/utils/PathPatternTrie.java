@@ -0,0 +1,260 @@
+package com.besscroft.lfs.security.utils;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路径模式前缀树
+ *
+ * 将 Ant 风格的路径模式按 "/" 切分后编译为一棵分段前缀树，匹配时按路径分段推进状态集合，
+ * 代价只与路径深度相关，而与模式数量无关。匹配语义与 {@link AntPathMatcher#match(String, String)} 保持一致：
+ * <ul>
+ *     <li>字面量分段走哈希表</li>
+ *     <li>{@code *} 与 {@code {var}} 分段匹配任意单个分段</li>
+ *     <li>{@code **} 分段匹配零个或多个分段</li>
+ *     <li>其余带通配符的分段（如 {@code *.js}、{@code {id:\d+}}）交给 AntPathMatcher 逐段匹配</li>
+ * </ul>
+ * 构建完成后只读，可以被多个线程并发匹配。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 10:12
+ */
+public class PathPatternTrie<T> {
+
+    private static final String PATH_SEPARATOR = "/";
+
+    private static final String DOUBLE_STAR = "**";
+
+    private static final String SINGLE_STAR = "*";
+
+    /** 分段通配符匹配器，AntPathMatcher 内部会缓存编译后的分段模式 */
+    private final AntPathMatcher segmentMatcher = new AntPathMatcher();
+
+    /** 以 "/" 开头的模式 */
+    private final Node<T> absoluteRoot = new Node<>(false);
+
+    /** 不以 "/" 开头的模式 */
+    private final Node<T> relativeRoot = new Node<>(false);
+
+    private int size;
+
+    /**
+     * 插入一个路径模式
+     * @param pattern Ant 风格路径模式
+     * @param value 模式对应的值
+     */
+    public void insert(String pattern, T value) {
+        if (pattern == null) {
+            return;
+        }
+        Node<T> node = pattern.startsWith(PATH_SEPARATOR) ? absoluteRoot : relativeRoot;
+        String lastToken = null;
+        for (String token : tokenize(pattern)) {
+            node = node.child(token);
+            lastToken = token;
+        }
+        node.entries.add(new Entry<>(value, pattern.endsWith(PATH_SEPARATOR), lastToken));
+        size++;
+    }
+
+    /**
+     * 获取匹配路径的所有值
+     * @param path 请求路径
+     * @return 匹配的值集合，没有匹配时返回空集合
+     */
+    public List<T> match(String path) {
+        if (path == null || size == 0) {
+            return Collections.emptyList();
+        }
+        Node<T> root = path.startsWith(PATH_SEPARATOR) ? absoluteRoot : relativeRoot;
+        List<String> segments = tokenize(path);
+        List<Node<T>> current = new ArrayList<>();
+        addState(current, root);
+        for (String segment : segments) {
+            if (current.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Node<T>> next = new ArrayList<>();
+            for (Node<T> node : current) {
+                step(node, segment, next);
+            }
+            current = next;
+        }
+        boolean pathEndsWithSeparator = path.endsWith(PATH_SEPARATOR);
+        List<T> result = new ArrayList<>();
+        for (Node<T> node : current) {
+            for (Entry<T> entry : node.entries) {
+                if (DOUBLE_STAR.equals(entry.lastToken) || entry.endsWithSeparator == pathEndsWithSeparator) {
+                    result.add(entry.value);
+                }
+            }
+            // AntPathMatcher 特例：模式中不含 "**"，路径以 "/" 结尾且模式只剩最后一个 "*" 分段时同样视为匹配
+            if (pathEndsWithSeparator && !node.afterDoubleStar && node.any != null) {
+                for (Entry<T> entry : node.any.entries) {
+                    if (SINGLE_STAR.equals(entry.lastToken)) {
+                        result.add(entry.value);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 已插入的模式数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 状态推进：消费一个路径分段
+     */
+    private void step(Node<T> node, String segment, List<Node<T>> next) {
+        // "**" 节点可以继续吞掉当前分段
+        if (node.doubleStarSelf) {
+            addState(next, node);
+        }
+        if (node.literals != null) {
+            Node<T> literal = node.literals.get(segment);
+            if (literal != null) {
+                addState(next, literal);
+            }
+        }
+        if (node.any != null) {
+            addState(next, node.any);
+        }
+        if (node.globs != null) {
+            for (Map.Entry<String, Node<T>> glob : node.globs.entrySet()) {
+                if (segmentMatcher.match(glob.getKey(), segment)) {
+                    addState(next, glob.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * 加入状态集合，同时展开 "**" 的零分段匹配
+     */
+    private void addState(List<Node<T>> states, Node<T> node) {
+        for (Node<T> state : states) {
+            if (state == node) {
+                return;
+            }
+        }
+        states.add(node);
+        if (node.doubleStar != null) {
+            addState(states, node.doubleStar);
+        }
+    }
+
+    /**
+     * 与 AntPathMatcher 一致：按 "/" 切分并忽略空分段，不做 trim
+     */
+    private static List<String> tokenize(String path) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        int length = path.length();
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                tokens.add(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return tokens;
+    }
+
+    private static boolean isWildcardToken(String token) {
+        return token.indexOf('*') >= 0 || token.indexOf('?') >= 0 || token.indexOf('{') >= 0;
+    }
+
+    /**
+     * 形如 {var} 的无正则变量分段，与 "*" 等价
+     */
+    private static boolean isPlainVariable(String token) {
+        return token.length() > 2 && token.charAt(0) == '{' && token.charAt(token.length() - 1) == '}'
+                && token.indexOf(':') < 0 && token.indexOf('{', 1) < 0;
+    }
+
+    private static final class Node<T> {
+
+        /** 当前节点是否为 "**" 节点 */
+        private final boolean doubleStarSelf;
+
+        /** 从根到当前节点的路径上是否出现过 "**" */
+        private final boolean afterDoubleStar;
+
+        private Map<String, Node<T>> literals;
+
+        private Node<T> any;
+
+        private Node<T> doubleStar;
+
+        private Map<String, Node<T>> globs;
+
+        private final List<Entry<T>> entries = new ArrayList<>(1);
+
+        private Node(boolean afterDoubleStar) {
+            this(false, afterDoubleStar);
+        }
+
+        private Node(boolean doubleStarSelf, boolean afterDoubleStar) {
+            this.doubleStarSelf = doubleStarSelf;
+            this.afterDoubleStar = afterDoubleStar;
+        }
+
+        private Node<T> child(String token) {
+            if (DOUBLE_STAR.equals(token)) {
+                if (doubleStar == null) {
+                    doubleStar = new Node<>(true, true);
+                }
+                return doubleStar;
+            }
+            if (SINGLE_STAR.equals(token) || isPlainVariable(token)) {
+                if (any == null) {
+                    any = new Node<>(afterDoubleStar);
+                }
+                return any;
+            }
+            if (isWildcardToken(token)) {
+                if (globs == null) {
+                    globs = new HashMap<>();
+                }
+                return globs.computeIfAbsent(token, k -> new Node<>(afterDoubleStar));
+            }
+            if (literals == null) {
+                literals = new HashMap<>();
+            }
+            return literals.computeIfAbsent(token, k -> new Node<>(afterDoubleStar));
+        }
+
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+
+        /** 模式是否以 "/" 结尾 */
+        private final boolean endsWithSeparator;
+
+        /** 模式最后一个分段，模式为空时为 null */
+        private final String lastToken;
+
+        private Entry(T value, boolean endsWithSeparator, String lastToken) {
+            this.value = value;
+            this.endsWithSeparator = endsWithSeparator;
+            this.lastToken = lastToken;
+        }
+
+    }
+
+}
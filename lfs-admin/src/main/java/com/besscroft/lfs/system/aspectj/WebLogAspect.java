@@ -1,43 +1,76 @@
 package com.besscroft.lfs.system.aspectj;
 
-import cn.hutool.core.lang.UUID;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.json.JSON;
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
-import lombok.RequiredArgsConstructor;
-import org.aspectj.lang.JoinPoint;
+import com.besscroft.lfs.annotation.WebLog;
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.system.component.AuditLogWriter;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * web操作日志处理切面
  *
+ * 每次调用只输出一条日志，由 log4j2.xml 中的异步追加器写入 web.log，不在请求线程中写文件。
+ * 注解描述和方法名按 {@link Method} 解析一次后缓存；请求参数只在日志级别开启时才序列化，并限制长度。
+ * 请求ID使用 ThreadLocalRandom 生成，不争用 SecureRandom。
+ * 写操作同时作为审计日志交给 {@link AuditLogWriter}，由后台线程批量写入数据库。
+ *
  * @Author Bess Croft
  * @Time 2021/7/24 12:27
  */
 @Aspect
 @Component
 @Order(1)
-@RequiredArgsConstructor
 public class WebLogAspect {
 
     private static final String KEY = "requestId";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WebLogAspect.class);
 
-    /** 换行符 */
-    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private final Map<Method, MethodMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    /** 请求参数日志最大长度 */
+    private final int maxArgsLength;
+
+    private final AuditLogWriter auditLogWriter;
 
-    /** 用来记录请求进入的时间，防止多线程时出错，这里用了ThreadLocal */
-    ThreadLocal<Long> START_TIME = new ThreadLocal<>();
+    public WebLogAspect(@Value("${lfs.web-log.max-args-length:512}") int maxArgsLength,
+                        AuditLogWriter auditLogWriter) {
+        this.maxArgsLength = maxArgsLength;
+        this.auditLogWriter = auditLogWriter;
+    }
 
     /** 配置织入点，以自定义 @webLog 注解为切点 */
     @Pointcut("@annotation(com.besscroft.lfs.annotation.WebLog)")
@@ -46,92 +79,185 @@ public class WebLogAspect {
     }
 
     /**
-     * 环绕方法
-     * 执行切点后，会依次调用 @Before -> 接口逻辑代码 -> @After -> @AfterReturning
-     * @param proceedingJoinPoint
-     * @return
-     * @throws Throwable
+     * 环绕方法，记录请求信息、执行结果和耗时
+     * @param proceedingJoinPoint 切点
+     * @return 接口返回值
+     * @throws Throwable 接口抛出的异常
      */
     @Around("webLog()")
     public Object doAround(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        // 开始时间
-        START_TIME.set(System.currentTimeMillis());
-        // 执行切点
-        Object result = proceedingJoinPoint.proceed();
-        // 获取当前请求对象
-        ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        assert requestAttributes != null;
-        // 执行时间
-        LOGGER.info("Time Consuming:{}", System.currentTimeMillis() - START_TIME.get());
-        // 出口移除请求ID
-        MDC.remove(KEY);
-        return result;
+        // 嵌套调用时沿用外层的请求ID
+        boolean newRequestId = MDC.get(KEY) == null;
+        if (newRequestId) {
+            MDC.put(KEY, IdUtil.fastSimpleUUID());
+        }
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return proceedingJoinPoint.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            log(proceedingJoinPoint, (System.nanoTime() - start) / 1_000_000, error);
+            if (newRequestId) {
+                MDC.remove(KEY);
+            }
+        }
     }
 
-    /**
-     * 在切点之前织入
-     * @param joinPoint
-     */
-    @Before("webLog()")
-    public void deBefore(JoinPoint joinPoint) throws Exception {
-        // 入口传入请求ID
-        MDC.put(KEY, UUID.randomUUID().toString());
-        // 获取当前请求对象
-        ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        HttpServletRequest request = requestAttributes.getRequest();
-
-        // 获取 @WebLog 注解的描述信息
-        String methodDescription = getAspectLogDescription(joinPoint);
-
-        // 打印请求相关参数
-        LOGGER.info("================== Start ==================");
-        // 打印请求 url
-        LOGGER.info("URL            :{}", request.getRequestURL().toString());
-        // 打印描述信息
-        LOGGER.info("Description    :{}", methodDescription);
-        // 打印 Http method
-        LOGGER.info("HTTP Method    :{}", request.getMethod());
-        // 打印调用 controller 的全路径以及执行方法
-        LOGGER.info("Class Method   :{}.{}()", joinPoint.getSignature().getDeclaringTypeName(), joinPoint.getSignature().getName());
-        // 打印请求的 IP
-        LOGGER.info("IP             :{}", request.getRemoteAddr());
-        // 打印请求入参
-        LOGGER.info("Request Args   :{}", JSONUtil.toJsonStr(joinPoint.getArgs()));
+    private void log(ProceedingJoinPoint joinPoint, long costMillis, Throwable error) {
+        HttpServletRequest request = currentRequest();
+        String httpMethod = request == null ? null : request.getMethod();
+        boolean audit = auditLogWriter.accepts(httpMethod);
+        if (!audit && !LOGGER.isInfoEnabled()) {
+            return;
+        }
+        MethodMetadata metadata = metadataCache.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), MethodMetadata::new);
+        String url = request == null ? null : request.getRequestURI();
+        String ip = request == null ? null : request.getRemoteAddr();
+        String result = error == null ? "ok" : error.getClass().getSimpleName();
+        LazyArgs args = new LazyArgs(joinPoint.getArgs(), maxArgsLength);
+        LOGGER.info("description={} method={} url={} httpMethod={} ip={} cost={}ms result={} args={}",
+                metadata.description, metadata.name, url, httpMethod, ip, costMillis, result, args);
+        if (audit) {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setRequestId(MDC.get(KEY));
+            auditLog.setUsername(currentUsername());
+            auditLog.setDescription(metadata.description);
+            auditLog.setMethod(metadata.name);
+            auditLog.setUrl(url);
+            auditLog.setHttpMethod(httpMethod);
+            auditLog.setIp(ip);
+            // 参数在请求线程中序列化，写入线程中实体可能已脱离会话或被修改
+            auditLog.setArgs(args.toString());
+            auditLog.setResult(result);
+            auditLog.setCost(costMillis);
+            auditLog.setCreateTime(LocalDateTime.now());
+            auditLogWriter.record(auditLog);
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) requestAttributes).getRequest();
+        }
+        return null;
     }
 
     /**
-     * 在切点之后织入
+     * 方法上只在第一次调用时解析的信息
      */
-    @After("webLog()")
-    public void doAfter(JoinPoint joinPoint) {
-        LOGGER.info("================== End ==================" + LINE_SEPARATOR);
+    private static final class MethodMetadata {
+
+        private final String description;
+
+        private final String name;
+
+        private MethodMetadata(Method method) {
+            WebLog webLog = AnnotatedElementUtils.findMergedAnnotation(method, WebLog.class);
+            this.description = webLog == null ? "" : webLog.description();
+            this.name = method.getDeclaringClass().getName() + "." + method.getName() + "()";
+        }
+
     }
 
     /**
-     * 获取切面注解的描述
-     *
-     * @param joinPoint 切点
-     * @return 描述信息
-     * @throws Exception
+     * 请求参数，在日志框架格式化消息或写入审计日志时才序列化，只序列化一次，超过长度的部分截断
      */
-    public String getAspectLogDescription(JoinPoint joinPoint) throws Exception {
-        String targetName = joinPoint.getTarget().getClass().getName();
-        String methodName = joinPoint.getSignature().getName();
-        Object[] arguments = joinPoint.getArgs();
-        Class<?> targetClass = Class.forName(targetName);
-        Method[] methods = targetClass.getMethods();
-        StringBuilder description = new StringBuilder("");
-        for (Method method : methods) {
-            if (method.getName().equals(methodName)) {
-                Class[] clazzs = method.getParameterTypes();
-                if (clazzs.length == arguments.length) {
-                    description.append(method.getAnnotation(com.besscroft.lfs.annotation.WebLog .class).description());
-                    break;
+    private static final class LazyArgs {
+
+        private static final int MAX_ELEMENTS = 100;
+
+        private static final String PASSWORD = "password";
+
+        private static final String MASK = "******";
+
+        private final Object[] args;
+
+        private final int maxLength;
+
+        private String value;
+
+        private LazyArgs(Object[] args, int maxLength) {
+            this.args = args;
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public String toString() {
+            if (value == null) {
+                value = render();
+            }
+            return value;
+        }
+
+        private String render() {
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = 0; i < args.length && builder.length() <= maxLength; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(render(args[i]));
+            }
+            builder.append(']');
+            if (builder.length() > maxLength) {
+                builder.setLength(maxLength);
+                builder.append("...");
+            }
+            return builder.toString();
+        }
+
+        private static String render(Object arg) {
+            if (arg == null) {
+                return "null";
+            }
+            // 请求、响应、文件和流不序列化
+            if (arg instanceof ServletRequest || arg instanceof ServletResponse || arg instanceof MultipartFile
+                    || arg instanceof InputStream || arg instanceof OutputStream) {
+                return arg.getClass().getSimpleName();
+            }
+            if (arg instanceof CharSequence || arg instanceof Number || arg instanceof Boolean) {
+                return String.valueOf(arg);
+            }
+            // 大集合只输出数量，避免序列化后再截断
+            if (arg instanceof Collection && ((Collection<?>) arg).size() > MAX_ELEMENTS) {
+                return arg.getClass().getSimpleName() + "(size=" + ((Collection<?>) arg).size() + ")";
+            }
+            JSON json = JSONUtil.parse(arg);
+            mask(json);
+            return json.toString();
+        }
+
+        /**
+         * 密码字段不输出到日志和审计表
+         */
+        private static void mask(Object json) {
+            if (json instanceof JSONObject) {
+                for (Map.Entry<String, Object> entry : ((JSONObject) json).entrySet()) {
+                    if (entry.getKey().toLowerCase().contains(PASSWORD)) {
+                        entry.setValue(MASK);
+                    } else {
+                        mask(entry.getValue());
+                    }
+                }
+            } else if (json instanceof JSONArray) {
+                for (Object element : (JSONArray) json) {
+                    mask(element);
                 }
             }
         }
-        return description.toString();
+
     }
 
 }
-
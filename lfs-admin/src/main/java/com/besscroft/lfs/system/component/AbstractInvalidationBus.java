@@ -0,0 +1,142 @@
+package com.besscroft.lfs.system.component;
+
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.system.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 缓存失效总线公共逻辑：事务提交后发送、分配序号、按版本向量去重和检测丢失
+ *
+ * 每个实例启动时生成唯一标识，事件序号在实例内从 1 开始连续递增。
+ * 接收方记录每个实例已处理的最大序号：小于等于该序号的事件是重复投递，直接忽略；
+ * 序号不连续说明中间的事件没有收到，通知订阅者清除全部缓存。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 04:10
+ */
+@Slf4j
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    /** 单个事件最多携带的id数量，超过时按该类型全部数据处理 */
+    private static final int MAX_IDS = 1000;
+
+    protected final String origin;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    /** 接收与发送使用不同的锁，同一 JVM 内的总线互相投递时不会死锁 */
+    private final Object receiveLock = new Object();
+
+    protected AbstractInvalidationBus(String nodeName) {
+        this.origin = nodeName + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public void publish(ChangeEvent.Type type, Collection<Long> ids) {
+        List<Long> payload = Collections.emptyList();
+        if (ids != null) {
+            payload = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            if (payload.isEmpty()) {
+                return;
+            }
+            // 事件中空的id集合表示全部数据
+            if (payload.size() > MAX_IDS) {
+                payload = Collections.emptyList();
+            }
+        }
+        List<Long> sent = payload;
+        TransactionUtils.afterCommit(() -> send(type, sent));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Map<String, Long> versions() {
+        return Collections.unmodifiableMap(versions);
+    }
+
+    /**
+     * 发送事件，实现需要保证同一实例的事件按序号顺序送达
+     * @param type 变更类型
+     * @param ids 变更数据的id
+     */
+    protected abstract void send(ChangeEvent.Type type, List<Long> ids);
+
+    /**
+     * 分配下一个序号，发送失败时序号不回退，接收方会据此发现事件丢失
+     */
+    protected long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * 初始化版本向量，只在开始接收事件前调用
+     * @param origin 实例
+     * @param sequence 已处理的序号
+     */
+    protected void initVersion(String origin, long sequence) {
+        versions.merge(origin, sequence, Math::max);
+    }
+
+    /**
+     * 处理收到的事件
+     * @param event 变更事件
+     */
+    protected void receive(ChangeEvent event) {
+        synchronized (receiveLock) {
+            if (origin.equals(event.getOrigin())) {
+                return;
+            }
+            long seq = event.getSequence();
+            Long last = versions.get(event.getOrigin());
+            if (last != null && seq <= last) {
+                return;
+            }
+            versions.put(event.getOrigin(), seq);
+            // 未记录过的实例从序号 1 开始
+            long expected = last == null ? 1 : last + 1;
+            if (seq != expected) {
+                log.warn("实例 {} 的变更事件不连续：期望 {}，收到 {}，清除全部缓存", event.getOrigin(), expected, seq);
+                for (Listener listener : listeners) {
+                    try {
+                        listener.onMissed(event.getOrigin());
+                    } catch (RuntimeException e) {
+                        log.error("处理丢失事件失败", e);
+                    }
+                }
+                return;
+            }
+            for (Listener listener : listeners) {
+                try {
+                    listener.onChange(event);
+                } catch (RuntimeException e) {
+                    log.error("处理变更事件失败：{}", event, e);
+                }
+            }
+        }
+    }
+
+    protected ChangeEvent event(long sequence, ChangeEvent.Type type, List<Long> ids) {
+        return new ChangeEvent(origin, sequence, type, new ArrayList<>(ids));
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.besscroft.lfs.system.component;
+
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.system.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 操作审计日志异步批量写入
+ *
+ * 请求线程只把审计日志放入无锁队列，队列容量通过计数器限制，满时直接丢弃并计数，不阻塞请求也不占用更多内存。
+ * 后台线程每次取出一批日志用 JDBC 批量插入；队列积压到一批时立即唤醒，否则按间隔写入。
+ * 写入失败的日志不重试，同样计入丢弃数，避免数据库故障时在内存中堆积。
+ * 指标：lfs.audit.pending（待写入数量）、lfs.audit.flush（批量写入耗时）、
+ * lfs.audit.dropped（丢弃数量，reason=overflow 队列已满，reason=error 写入失败）。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 06:20
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private final ConcurrentLinkedQueue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+
+    /** 队列中的日志数，ConcurrentLinkedQueue.size() 需要遍历队列 */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** 上次输出告警后丢弃的日志数 */
+    private final AtomicLong droppedSinceReport = new AtomicLong();
+
+    private final AuditLogRepository auditLogRepository;
+
+    private final boolean enabled;
+
+    private final boolean includeReads;
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final long flushIntervalNanos;
+
+    private final Duration retention;
+
+    private final Timer flushTimer;
+
+    private final Counter overflowCounter;
+
+    private final Counter errorCounter;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public AuditLogWriter(AuditLogRepository auditLogRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${lfs.audit.enabled:true}") boolean enabled,
+                          @Value("${lfs.audit.include-reads:false}") boolean includeReads,
+                          @Value("${lfs.audit.capacity:10000}") int capacity,
+                          @Value("${lfs.audit.batch-size:200}") int batchSize,
+                          @Value("${lfs.audit.flush-interval:PT1S}") Duration flushInterval,
+                          @Value("${lfs.audit.retention:P90D}") Duration retention) {
+        this.auditLogRepository = auditLogRepository;
+        this.enabled = enabled;
+        this.includeReads = includeReads;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retention = retention;
+        Gauge.builder("lfs.audit.pending", size, AtomicInteger::get)
+                .description("待写入的审计日志数量")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("lfs.audit.flush")
+                .description("审计日志批量写入耗时")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("lfs.audit.dropped")
+                .description("丢弃的审计日志数量")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.errorCounter = Counter.builder("lfs.audit.dropped")
+                .description("丢弃的审计日志数量")
+                .tag("reason", "error")
+                .register(meterRegistry);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audit-writer-");
+        threadFactory.setDaemon(true);
+        this.writer = threadFactory.newThread(this::run);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    /**
+     * 是否记录该请求方式的操作，默认不记录 GET、HEAD、OPTIONS 等只读请求
+     * @param httpMethod 请求方式，不在 web 请求中调用时为空
+     * @return 是否记录
+     */
+    public boolean accepts(String httpMethod) {
+        if (!enabled) {
+            return false;
+        }
+        return includeReads || httpMethod == null
+                || !("GET".equals(httpMethod) || "HEAD".equals(httpMethod) || "OPTIONS".equals(httpMethod));
+    }
+
+    /**
+     * 放入写入队列，不阻塞
+     * @param auditLog 审计日志
+     * @return 队列已满被丢弃时返回 false
+     */
+    public boolean record(AuditLog auditLog) {
+        int pending = size.incrementAndGet();
+        if (pending > capacity) {
+            size.decrementAndGet();
+            overflowCounter.increment();
+            droppedSinceReport.incrementAndGet();
+            return false;
+        }
+        queue.offer(auditLog);
+        if (pending == batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * 取出一批日志写入数据库
+     * @return 取出的日志数
+     */
+    public int flush() {
+        List<AuditLog> batch = new ArrayList<>();
+        AuditLog auditLog;
+        while (batch.size() < batchSize && (auditLog = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(auditLog);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            flushTimer.record(() -> auditLogRepository.insertAll(batch));
+        } catch (Exception e) {
+            log.error("批量写入审计日志失败，丢弃 {} 条", batch.size(), e);
+            errorCounter.increment(batch.size());
+        }
+        return batch.size();
+    }
+
+    /**
+     * 清理过期的审计日志
+     */
+    @Scheduled(fixedDelayString = "${lfs.audit.purge-interval:PT1H}")
+    public void purge() {
+        if (!enabled || retention.isZero()) {
+            return;
+        }
+        int purged = auditLogRepository.deleteBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("清理过期审计日志 {} 条", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        // 写入线程退出后写完剩余的日志
+        while (flush() > 0) {
+            // 继续写入下一批
+        }
+    }
+
+    private void run() {
+        while (running) {
+            int written;
+            try {
+                written = flush();
+            } catch (Throwable e) {
+                log.error("审计日志写入线程异常", e);
+                written = 0;
+            }
+            long dropped = droppedSinceReport.getAndSet(0);
+            if (dropped > 0) {
+                log.warn("审计日志队列已满，丢弃 {} 条", dropped);
+            }
+            if (written < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+}
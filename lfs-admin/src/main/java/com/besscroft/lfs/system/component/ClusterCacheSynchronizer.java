@@ -0,0 +1,123 @@
+package com.besscroft.lfs.system.component;
+
+import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.entity.AuthResource;
+import com.besscroft.lfs.entity.AuthResourceSort;
+import com.besscroft.lfs.entity.AuthRole;
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.security.component.DynamicSecurityMetadataSource;
+import com.besscroft.lfs.security.component.PrincipalCache;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
+import com.besscroft.lfs.system.service.KeywordIndexService;
+import com.besscroft.lfs.system.service.MenuService;
+import com.besscroft.lfs.system.service.ResourceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * 根据其他实例的变更事件清除本实例的缓存
+ *
+ * 与服务层处理本实例变更时清除的缓存一致：已认证用户缓存和权限版本、角色路由缓存、资源树缓存、
+ * 动态权限规则、Hibernate 二级缓存以及关键字搜索索引。
+ * 事件丢失时无法确定变更范围，清除全部缓存并重新加载搜索索引。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 04:40
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterCacheSynchronizer implements InvalidationBus.Listener {
+
+    private final InvalidationBus invalidationBus;
+    private final PrincipalCache principalCache;
+    private final MenuService menuService;
+    private final ResourceService resourceService;
+    private final KeywordIndexService keywordIndexService;
+    private final RbacCacheEvictor rbacCacheEvictor;
+    /** 权限数据源由安全配置创建，而安全配置依赖用户服务，延迟获取避免循环依赖 */
+    private final ObjectProvider<DynamicSecurityMetadataSource> dynamicSecurityMetadataSource;
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribe(this);
+    }
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        log.debug("收到变更事件：{}", event);
+        List<Long> ids = event.getIds();
+        switch (event.getType()) {
+            case USER:
+                if (ids.isEmpty()) {
+                    principalCache.evictAll();
+                } else {
+                    principalCache.evictUsers(ids);
+                }
+                refreshIndex(Category.USER, ids);
+                break;
+            case ROLE:
+                principalCache.evictAll();
+                menuService.clearRouterCache();
+                rbacCacheEvictor.evictEntity(AuthRole.class);
+                refreshIndex(Category.ROLE, ids);
+                break;
+            case RESOURCE:
+                // 先清除资源查询缓存，权限规则重新加载时才能读到最新数据
+                rbacCacheEvictor.evictEntity(AuthResource.class);
+                principalCache.evictAll();
+                resourceService.clearResourceTreeCache();
+                dynamicSecurityMetadataSource.ifAvailable(DynamicSecurityMetadataSource::reload);
+                refreshIndex(Category.RESOURCE, ids);
+                break;
+            case RESOURCE_SORT:
+                resourceService.clearResourceTreeCache();
+                rbacCacheEvictor.evictEntity(AuthResourceSort.class);
+                break;
+            case MENU:
+                menuService.clearRouterCache();
+                rbacCacheEvictor.evictEntity(AuthMenu.class);
+                refreshIndex(Category.MENU, ids);
+                break;
+            case RELATION:
+                rbacCacheEvictor.evictRelations();
+                if (ids.isEmpty()) {
+                    // 角色的菜单、资源关系变更
+                    principalCache.evictAll();
+                    menuService.clearRouterCache();
+                } else {
+                    // 用户的角色关系变更
+                    principalCache.evictUsers(ids);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void onMissed(String origin) {
+        rbacCacheEvictor.evictAll();
+        principalCache.evictAll();
+        menuService.clearRouterCache();
+        resourceService.clearResourceTreeCache();
+        dynamicSecurityMetadataSource.ifAvailable(DynamicSecurityMetadataSource::reload);
+        for (Category category : Category.values()) {
+            keywordIndexService.reload(category);
+        }
+    }
+
+    private void refreshIndex(Category category, List<Long> ids) {
+        if (ids.isEmpty()) {
+            keywordIndexService.reload(category);
+        } else {
+            keywordIndexService.refresh(category, ids);
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.besscroft.lfs.system.component;
+
+import com.besscroft.lfs.model.ChangeEvent;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 集群缓存失效总线，在实例之间传递用户、角色、资源、菜单及关联关系的变更
+ *
+ * 通过 lfs.cluster.bus 选择实现：jdbc（默认，轮询 lfs_change_log 表）、local（同一 JVM 内的实例）。
+ * 本实例的变更由服务层直接清除缓存，订阅者只会收到其他实例发布的事件。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 04:05
+ */
+public interface InvalidationBus {
+
+    /**
+     * 发布变更事件，事务提交后发送
+     * @param type 变更类型
+     * @param ids 变更数据的id，为 null 表示该类型的全部数据，为空集合时不发布
+     */
+    void publish(ChangeEvent.Type type, Collection<Long> ids);
+
+    /**
+     * 订阅其他实例的变更事件
+     * @param listener 订阅者
+     */
+    void subscribe(Listener listener);
+
+    /**
+     * 版本向量：各实例已收到的最大事件序号
+     * @return 实例 -> 序号
+     */
+    Map<String, Long> versions();
+
+    /**
+     * 变更事件订阅者
+     */
+    interface Listener {
+
+        /**
+         * 收到其他实例的变更事件
+         * @param event 变更事件
+         */
+        void onChange(ChangeEvent event);
+
+        /**
+         * 版本向量发现事件序号不连续，中间的事件已丢失，需要清除全部缓存
+         * @param origin 丢失事件的实例
+         */
+        void onMissed(String origin);
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.besscroft.lfs.system.component;
+
+import cn.hutool.core.util.StrUtil;
+import com.besscroft.lfs.model.ChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 基于数据库表 lfs_change_log 的缓存失效总线
+ *
+ * 事务提交后写入一行变更记录，各实例定时轮询新增的记录。只使用标准 SQL，PostgreSQL 和嵌入式数据库都可以使用。
+ * 自增id在并发插入时可能晚于更大的id提交，轮询时回看最近若干行，已处理过的记录按版本向量去重；
+ * 回看范围之外仍然漏掉的记录，会在该实例下一次发布时被版本向量发现。
+ * 启动时从表中已有的最大id开始轮询，并以各实例已有的最大序号初始化版本向量。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 04:20
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lfs.cluster.bus", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcInvalidationBus extends AbstractInvalidationBus {
+
+    private static final String INSERT_SQL = "insert into lfs_change_log (origin, sequence, type, ids, create_time) values (?, ?, ?, ?, ?)";
+
+    private static final String POLL_SQL = "select id, origin, sequence, type, ids from lfs_change_log where id > ? order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int lookback;
+
+    private final Duration retention;
+
+    /** 已读取的最大id，只在轮询线程中访问 */
+    private long lastId;
+
+    public JdbcInvalidationBus(JdbcTemplate jdbcTemplate,
+                               @Value("${lfs.cluster.node-name:${spring.application.name:lfs-admin}}") String nodeName,
+                               @Value("${lfs.cluster.lookback:100}") int lookback,
+                               @Value("${lfs.cluster.retention:P1D}") Duration retention) {
+        super(nodeName);
+        this.jdbcTemplate = jdbcTemplate;
+        this.lookback = lookback;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    public void init() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from lfs_change_log", Long.class);
+        lastId = maxId == null ? 0 : maxId;
+        jdbcTemplate.query("select origin, max(sequence) from lfs_change_log group by origin",
+                rs -> {
+                    initVersion(rs.getString(1), rs.getLong(2));
+                });
+        log.info("缓存失效总线已启动：实例 {}，起始记录 {}", origin, lastId);
+    }
+
+    /**
+     * 同一实例的序号分配和插入串行执行，保证实例内的记录按序号提交
+     */
+    @Override
+    protected synchronized void send(ChangeEvent.Type type, List<Long> ids) {
+        long sequence = nextSequence();
+        try {
+            jdbcTemplate.update(INSERT_SQL, origin, sequence, type.name(),
+                    ids.stream().map(String::valueOf).collect(Collectors.joining(",")), System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("发布变更事件失败：{} {}，其他实例会在下一次事件时清除全部缓存", type, sequence, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lfs.cluster.poll-interval:PT1S}")
+    public void poll() {
+        List<ChangeEvent> events = new ArrayList<>();
+        jdbcTemplate.query(POLL_SQL, rs -> {
+            lastId = Math.max(lastId, rs.getLong(1));
+            events.add(new ChangeEvent(rs.getString(2), rs.getLong(3),
+                    ChangeEvent.Type.valueOf(rs.getString(4)), parseIds(rs.getString(5))));
+        }, Math.max(0, lastId - lookback));
+        events.forEach(this::receive);
+    }
+
+    @Scheduled(fixedDelayString = "${lfs.cluster.purge-interval:PT1H}")
+    public void purge() {
+        int purged = jdbcTemplate.update("delete from lfs_change_log where create_time < ?",
+                System.currentTimeMillis() - retention.toMillis());
+        if (purged > 0) {
+            log.info("清理过期变更记录 {} 条", purged);
+        }
+    }
+
+    private static List<Long> parseIds(String ids) {
+        List<Long> list = new ArrayList<>();
+        if (StrUtil.isNotBlank(ids)) {
+            for (String id : ids.split(",")) {
+                list.add(Long.valueOf(id));
+            }
+        }
+        return list;
+    }
+
+}
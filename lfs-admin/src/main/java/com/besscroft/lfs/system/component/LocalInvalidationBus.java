@@ -0,0 +1,47 @@
+package com.besscroft.lfs.system.component;
+
+import com.besscroft.lfs.model.ChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 同一 JVM 内的缓存失效总线，用于单实例部署和测试
+ *
+ * 同一 JVM 中创建的总线互相投递事件，发送时在发布线程中同步送达，不需要数据库表。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 04:30
+ */
+@Component
+@ConditionalOnProperty(name = "lfs.cluster.bus", havingValue = "local")
+public class LocalInvalidationBus extends AbstractInvalidationBus {
+
+    private static final List<LocalInvalidationBus> BUSES = new CopyOnWriteArrayList<>();
+
+    public LocalInvalidationBus(@Value("${lfs.cluster.node-name:${spring.application.name:lfs-admin}}") String nodeName) {
+        super(nodeName);
+        BUSES.add(this);
+    }
+
+    @PreDestroy
+    public void close() {
+        BUSES.remove(this);
+    }
+
+    /**
+     * 同一实例的事件按序号顺序送达
+     */
+    @Override
+    protected synchronized void send(ChangeEvent.Type type, List<Long> ids) {
+        ChangeEvent event = event(nextSequence(), type, ids);
+        for (LocalInvalidationBus bus : BUSES) {
+            bus.receive(event);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.besscroft.lfs.system.component;
+
+import cn.hutool.core.util.StrUtil;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按请求采样开启 DEBUG 日志
+ *
+ * 请求头的值与配置的密钥一致或按比例随机选中的请求，在 MDC 中设置 logSampled=true，
+ * log4j2-async.xml 中的 DynamicThresholdFilter 据此放行该请求内的 DEBUG 日志。
+ * 过滤器在认证之前执行，请求头只有携带密钥才生效，避免匿名请求大量开启 DEBUG 日志挤占异步日志队列；
+ * 未配置请求头或密钥时不接受请求头。日志根级别为 DEBUG 的配置（log4j2.xml）不受影响。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 05:40
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LogSamplingFilter extends OncePerRequestFilter {
+
+    public static final String KEY = "logSampled";
+
+    private final double rate;
+
+    private final String header;
+
+    private final byte[] secret;
+
+    public LogSamplingFilter(@Value("${lfs.log.sampling.rate:0}") double rate,
+                             @Value("${lfs.log.sampling.header:}") String header,
+                             @Value("${lfs.log.sampling.secret:}") String secret) {
+        this.rate = rate;
+        this.header = StrUtil.isEmpty(secret) ? null : StrUtil.emptyToNull(header);
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!sampled(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MDC.put(KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(KEY);
+        }
+    }
+
+    private boolean sampled(HttpServletRequest request) {
+        String value = header == null ? null : request.getHeader(header);
+        if (value != null && MessageDigest.isEqual(secret, value.getBytes(StandardCharsets.UTF_8))) {
+            return true;
+        }
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.besscroft.lfs.system.component;
+
+import com.besscroft.lfs.constant.CacheRegion;
+import com.besscroft.lfs.system.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Consumer;
+
+/**
+ * 权限相关二级缓存失效
+ *
+ * 关联关系查询是原生 SQL，Hibernate 不知道结果依赖哪些表，关联表又由 JdbcTemplate 或原生 SQL 修改，
+ * Hibernate 无法自动判断查询缓存过时，需要在修改用户、角色、菜单、资源及其关联关系时调用这里使缓存失效。
+ * 原生 {@code @Modifying} 语句同样不经过 Hibernate 的实体状态管理，修改的实体区域也要显式清除。
+ * 失效在调用时和事务提交后各执行一次，避免并发查询在事务提交前把旧数据重新写入缓存。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 03:20
+ */
+@Component
+@RequiredArgsConstructor
+public class RbacCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 关联关系变更后清除关联关系查询缓存
+     */
+    public void evictRelations() {
+        evict(cache -> cache.evictQueryRegion(CacheRegion.RELATION));
+    }
+
+    /**
+     * 原生 SQL 修改实体后清除实体缓存，以及依赖该实体的查询缓存
+     * @param entityClass 实体类
+     */
+    public void evictEntity(Class<?> entityClass) {
+        evict(cache -> {
+            cache.evictEntityData(entityClass);
+            cache.evictQueryRegion(CacheRegion.RELATION);
+            cache.evictDefaultQueryRegion();
+        });
+    }
+
+    /**
+     * 清除全部二级缓存和查询缓存，用于无法确定变更范围的情况
+     */
+    public void evictAll() {
+        evict(Cache::evictAllRegions);
+    }
+
+    private void evict(Consumer<Cache> action) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        TransactionUtils.nowAndAfterCommit(() -> action.accept(cache));
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.besscroft.lfs.system.controller;
+
+import com.besscroft.lfs.annotation.WebLog;
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.model.CursorSlice;
+import com.besscroft.lfs.result.CommonResult;
+import com.besscroft.lfs.system.service.AuditLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Description
+ * @Author Bess Croft
+ * @Time 2026/10/18 06:40
+ */
+@Slf4j
+@Tag(name = "管理系统操作审计日志接口")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/auditLog")
+public class AuditLogController {
+
+    private final AuditLogService auditLogService;
+
+    @WebLog(description = "查询操作审计日志")
+    @Operation(summary = "查询操作审计日志")
+    @Parameters({
+            @Parameter(name = "before", description = "游标分页，上一页返回的 nextCursor，第一页不传"),
+            @Parameter(name = "pageSize", description = "多少条", required = true),
+            @Parameter(name = "username", description = "操作用户名"),
+            @Parameter(name = "startTime", description = "开始时间，格式 yyyy-MM-dd HH:mm:ss"),
+            @Parameter(name = "endTime", description = "结束时间（不包含），格式 yyyy-MM-dd HH:mm:ss"),
+            @Parameter(name = "withTotal", description = "是否返回近似总数")
+    })
+    @GetMapping("/list")
+    public CommonResult<CursorSlice<AuditLog>> list(@RequestParam(value = "before", required = false) Long before,
+                                                    @RequestParam("pageSize") Integer pageSize,
+                                                    @RequestParam(value = "username", required = false) String username,
+                                                    @RequestParam(value = "startTime", required = false)
+                                                    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+                                                    @RequestParam(value = "endTime", required = false)
+                                                    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+                                                    @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
+        CursorSlice<AuditLog> slice = auditLogService.getAuditLogSlice(before, pageSize, username, startTime, endTime, withTotal);
+        return CommonResult.success(slice);
+    }
+
+}
@@ -3,6 +3,7 @@ package com.besscroft.lfs.system.controller;
 import com.besscroft.lfs.annotation.WebLog;
 import com.besscroft.lfs.entity.AuthMenu;
 import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.model.CursorSlice;
 import com.besscroft.lfs.result.AjaxResult;
 import com.besscroft.lfs.result.CommonResult;
 import com.besscroft.lfs.system.service.MenuService;
@@ -41,20 +42,30 @@ public class MenuController {
     public CommonResult<List<AuthMenu>> getRouter() {
         AuthUser currentAdmin = userService.getCurrentAdmin();
         List<AuthMenu> list = menuService.getMenuListById(currentAdmin.getId());
-        log.info("菜单：{}",list);
+        log.debug("菜单：{} 个", list.size());
         return CommonResult.success(list);
     }
 
     @WebLog(description = "查询后台管理菜单列表")
     @Operation(summary = "查询后台管理菜单列表")
     @Parameters({
-            @Parameter(name = "pageNum", description = "第几页", required = true),
-            @Parameter(name = "pageSize", description = "多少条", required = true)
+            @Parameter(name = "pageNum", description = "第几页，传入 after 时忽略"),
+            @Parameter(name = "pageSize", description = "多少条", required = true),
+            @Parameter(name = "after", description = "游标分页，上一页返回的 nextCursor，第一页传 0；传入时返回游标分页结果"),
+            @Parameter(name = "withTotal", description = "游标分页时是否返回近似总数"),
+            @Parameter(name = "keyword", description = "关键字，页码分页时按关键字模糊查询")
     })
     @GetMapping("/list")
-    public CommonResult<Page<AuthMenu>> list(@RequestParam("pageNum") Integer pageNum,
-                           @RequestParam("pageSize") Integer pageSize) {
-        Page<AuthMenu> pageList = menuService.getMenuPageList(pageNum, pageSize, null);
+    public CommonResult<?> list(@RequestParam(value = "pageNum", defaultValue = "1") Integer pageNum,
+                                @RequestParam("pageSize") Integer pageSize,
+                                @RequestParam(value = "after", required = false) Long after,
+                                @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                @RequestParam(value = "keyword", required = false) String keyword) {
+        if (after != null) {
+            CursorSlice<AuthMenu> slice = menuService.getMenuSlice(after, pageSize, withTotal);
+            return CommonResult.success(slice);
+        }
+        Page<AuthMenu> pageList = menuService.getMenuPageList(pageNum, pageSize, keyword);
         return CommonResult.success(pageList);
     }
 
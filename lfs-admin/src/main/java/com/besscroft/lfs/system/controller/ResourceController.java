@@ -2,6 +2,7 @@ package com.besscroft.lfs.system.controller;
 
 import com.besscroft.lfs.annotation.WebLog;
 import com.besscroft.lfs.entity.AuthResource;
+import com.besscroft.lfs.model.CursorSlice;
 import com.besscroft.lfs.model.ResourceParam;
 import com.besscroft.lfs.result.AjaxResult;
 import com.besscroft.lfs.result.CommonResult;
@@ -35,13 +36,23 @@ public class ResourceController {
     @WebLog(description = "查询后台管理资源列表")
     @Operation(summary = "查询后台管理资源列表")
     @Parameters({
-            @Parameter(name = "pageNum", description = "第几页", required = true),
-            @Parameter(name = "pageSize", description = "多少条", required = true)
+            @Parameter(name = "pageNum", description = "第几页，传入 after 时忽略"),
+            @Parameter(name = "pageSize", description = "多少条", required = true),
+            @Parameter(name = "after", description = "游标分页，上一页返回的 nextCursor，第一页传 0；传入时返回游标分页结果"),
+            @Parameter(name = "withTotal", description = "游标分页时是否返回近似总数"),
+            @Parameter(name = "keyword", description = "关键字，页码分页时按关键字模糊查询")
     })
     @GetMapping("/list")
-    public CommonResult<Page<AuthResource>> list(@RequestParam("pageNum") Integer pageNum,
-                             @RequestParam("pageSize") Integer pageSize) {
-        Page<AuthResource> pageList = resourceService.getResourcePageList(pageNum, pageSize, null);
+    public CommonResult<?> list(@RequestParam(value = "pageNum", defaultValue = "1") Integer pageNum,
+                                @RequestParam("pageSize") Integer pageSize,
+                                @RequestParam(value = "after", required = false) Long after,
+                                @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                @RequestParam(value = "keyword", required = false) String keyword) {
+        if (after != null) {
+            CursorSlice<AuthResource> slice = resourceService.getResourceSlice(after, pageSize, withTotal);
+            return CommonResult.success(slice);
+        }
+        Page<AuthResource> pageList = resourceService.getResourcePageList(pageNum, pageSize, keyword);
         return CommonResult.success(pageList);
     }
 
@@ -6,8 +6,12 @@ import com.besscroft.lfs.annotation.WebLog;
 import com.besscroft.lfs.constant.HttpStatus;
 import com.besscroft.lfs.dto.LoginParam;
 import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.model.CursorSlice;
+import com.besscroft.lfs.model.ExportJob;
+import com.besscroft.lfs.model.UserImportResult;
 import com.besscroft.lfs.result.AjaxResult;
 import com.besscroft.lfs.result.CommonResult;
+import com.besscroft.lfs.system.service.ExportJobService;
 import com.besscroft.lfs.system.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,8 +25,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,7 +49,11 @@ public class UserController {
     @Value("${jwt.tokenHead}")
     private String tokenHead;
 
+    @Value("${jwt.tokenHeader}")
+    private String tokenHeader;
+
     private final UserService userService;
+    private final ExportJobService exportJobService;
 
     @WebLog(description = "登录以后返回token")
     @Operation(summary = "登录以后返回token")
@@ -70,14 +82,14 @@ public class UserController {
     @WebLog(description = "后台管理系统登出功能")
     @Operation(summary = "后台管理系统登出功能")
     @PostMapping(value = "/logout")
-    public AjaxResult logout() {
+    public AjaxResult logout(HttpServletRequest request) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         if(StrUtil.hasEmpty(username)){
             return AjaxResult.error(HttpStatus.UNAUTHORIZED, "暂未登录或token已经过期");
         }
         AuthUser currentAdmin = userService.getCurrentAdminByUserName(username);
         if (ObjectUtil.isNotNull(currentAdmin)) {
-            userService.logout(currentAdmin.getId());
+            userService.logout(currentAdmin.getId(), request.getHeader(tokenHeader));
         }
         return AjaxResult.success("成功退出登录啦！");
     }
@@ -85,13 +97,23 @@ public class UserController {
     @WebLog(description = "查询权限管理模块用户列表")
     @Operation(summary = "查询权限管理模块用户列表")
     @Parameters({
-            @Parameter(name = "pageNum", description = "第几页", required = true),
-            @Parameter(name = "pageSize", description = "多少条", required = true)
+            @Parameter(name = "pageNum", description = "第几页，传入 after 时忽略"),
+            @Parameter(name = "pageSize", description = "多少条", required = true),
+            @Parameter(name = "after", description = "游标分页，上一页返回的 nextCursor，第一页传 0；传入时返回游标分页结果"),
+            @Parameter(name = "withTotal", description = "游标分页时是否返回近似总数"),
+            @Parameter(name = "keyword", description = "关键字，页码分页时按关键字模糊查询")
     })
     @GetMapping("/list")
-    public CommonResult<Page<AuthUser>> list(@RequestParam("pageNum") Integer pageNum,
-                           @RequestParam("pageSize") Integer pageSize) {
-        Page<AuthUser> pageList = userService.getUserPageList(pageNum, pageSize, null);
+    public CommonResult<?> list(@RequestParam(value = "pageNum", defaultValue = "1") Integer pageNum,
+                                @RequestParam("pageSize") Integer pageSize,
+                                @RequestParam(value = "after", required = false) Long after,
+                                @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+                                @RequestParam(value = "keyword", required = false) String keyword) {
+        if (after != null) {
+            CursorSlice<AuthUser> slice = userService.getUserSlice(after, pageSize, withTotal);
+            return CommonResult.success(slice);
+        }
+        Page<AuthUser> pageList = userService.getUserPageList(pageNum, pageSize, keyword);
         return CommonResult.success(pageList);
     }
 
@@ -153,4 +175,39 @@ public class UserController {
         userService.export(data, response);
     }
 
+    @WebLog(description = "导入权限管理模块用户")
+    @Operation(summary = "导入权限管理模块用户")
+    @PostMapping("/importUser")
+    public CommonResult<UserImportResult> importUser(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return CommonResult.success(userService.importUsers(inputStream));
+        }
+    }
+
+    @WebLog(description = "提交权限管理模块用户导出任务")
+    @Operation(summary = "提交权限管理模块用户导出任务")
+    @PostMapping("/exportJob")
+    public CommonResult<ExportJob> submitExportJob(@RequestBody List<Long> data) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return CommonResult.success(exportJobService.submitUserExport(data, username));
+    }
+
+    @Operation(summary = "查询导出任务状态")
+    @Parameter(name = "id", description = "任务id", required = true)
+    @GetMapping("/exportJob/{id}")
+    public CommonResult<ExportJob> getExportJob(@PathVariable("id") String id) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return CommonResult.success(exportJobService.getJob(id, username));
+    }
+
+    @Operation(summary = "下载导出文件，支持断点续传")
+    @Parameter(name = "id", description = "任务id", required = true)
+    @GetMapping("/exportJob/{id}/file")
+    public void downloadExportJob(@PathVariable("id") String id,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        exportJobService.download(id, username, request, response);
+    }
+
 }
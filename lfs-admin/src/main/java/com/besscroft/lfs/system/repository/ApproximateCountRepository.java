@@ -0,0 +1,73 @@
+package com.besscroft.lfs.system.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+/**
+ * 列表近似总数
+ *
+ * 游标分页不统计总数，前端需要展示总数时从这里取。大表读取 pg_class.reltuples 中的统计估算值，
+ * 估算值小于阈值或表尚未 analyze 时退回精确 count。结果按表缓存，过期前不会重复查询。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 01:15
+ */
+@Slf4j
+@Repository
+public class ApproximateCountRepository {
+
+    /** 估算值低于该值时精确统计，小表 count 很快且估算误差比例大 */
+    private static final long EXACT_COUNT_THRESHOLD = 10000;
+
+    private static final String ESTIMATE_SQL = "select reltuples::bigint from pg_class where relname = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, Long> cache;
+
+    public ApproximateCountRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${lfs.page.count-ttl:PT1M}") Duration countTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(64)
+                .expireAfterWrite(countTtl)
+                .build();
+    }
+
+    /**
+     * 获取表的近似总数
+     * @param table 表名，只能传入常量
+     * @param condition 过滤条件，只能传入常量，为空时统计全表；带条件时统计估算值不适用，总是精确统计，只用于小表
+     * @return 近似总数
+     */
+    public long count(String table, String condition) {
+        String key = condition == null ? table : table + " where " + condition;
+        return cache.get(key, k -> condition == null ? estimate(table) : exactCount(k));
+    }
+
+    private long estimate(String table) {
+        Long estimate = null;
+        try {
+            estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class, table);
+        } catch (DataAccessException e) {
+            log.warn("读取表 {} 的统计估算值失败，改为精确统计", table, e);
+        }
+        if (estimate != null && estimate >= EXACT_COUNT_THRESHOLD) {
+            return estimate;
+        }
+        return exactCount(table);
+    }
+
+    private long exactCount(String from) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from " + from, Long.class);
+        return count == null ? 0 : count;
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.besscroft.lfs.system.repository;
+
+import com.besscroft.lfs.model.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 操作审计日志读写
+ *
+ * 查询按id倒序游标分页，只使用 lfs_audit_log 的索引：不带条件时走主键，按用户名查询走 (username, id)，
+ * 按时间范围查询走 create_time。
+ * 写入时各字段按 lfs_audit_log 的列长度截断，单条超长的日志不会导致整批写入失败。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 06:15
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogRepository {
+
+    private static final String INSERT_SQL = "insert into lfs_audit_log" +
+            " (request_id, username, description, method, url, http_method, ip, args, result, cost, create_time)" +
+            " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "select id, request_id, username, description, method, url, http_method, ip, args, result, cost, create_time" +
+            " from lfs_audit_log where 1 = 1";
+
+    /** 与 lfs_audit_log 的列长度一致 */
+    private static final int ID_LENGTH = 64;
+
+    private static final int TEXT_LENGTH = 255;
+
+    private static final int HTTP_METHOD_LENGTH = 16;
+
+    private static final int RESULT_LENGTH = 128;
+
+    private static final RowMapper<AuditLog> ROW_MAPPER = (rs, rowNum) -> {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setId(rs.getLong(1));
+        auditLog.setRequestId(rs.getString(2));
+        auditLog.setUsername(rs.getString(3));
+        auditLog.setDescription(rs.getString(4));
+        auditLog.setMethod(rs.getString(5));
+        auditLog.setUrl(rs.getString(6));
+        auditLog.setHttpMethod(rs.getString(7));
+        auditLog.setIp(rs.getString(8));
+        auditLog.setArgs(rs.getString(9));
+        auditLog.setResult(rs.getString(10));
+        auditLog.setCost(rs.getLong(11));
+        Timestamp createTime = rs.getTimestamp(12);
+        auditLog.setCreateTime(createTime == null ? null : createTime.toLocalDateTime());
+        return auditLog;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入审计日志
+     * @param auditLogs 审计日志集合
+     */
+    public void insertAll(List<AuditLog> auditLogs) {
+        List<Object[]> batchArgs = new ArrayList<>(auditLogs.size());
+        for (AuditLog auditLog : auditLogs) {
+            batchArgs.add(new Object[]{
+                    truncate(auditLog.getRequestId(), ID_LENGTH),
+                    truncate(auditLog.getUsername(), ID_LENGTH),
+                    truncate(auditLog.getDescription(), TEXT_LENGTH),
+                    truncate(auditLog.getMethod(), TEXT_LENGTH),
+                    truncate(auditLog.getUrl(), TEXT_LENGTH),
+                    truncate(auditLog.getHttpMethod(), HTTP_METHOD_LENGTH),
+                    truncate(auditLog.getIp(), ID_LENGTH),
+                    auditLog.getArgs(),
+                    truncate(auditLog.getResult(), RESULT_LENGTH),
+                    auditLog.getCost(),
+                    Timestamp.valueOf(auditLog.getCreateTime())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    /**
+     * 按id倒序查询一页审计日志
+     * @param before 只查询id小于该值的日志，为空时从最新的日志开始
+     * @param username 用户名，为空时不过滤
+     * @param startTime 开始时间（包含），为空时不过滤
+     * @param endTime 结束时间（不包含），为空时不过滤
+     * @param pageSize 每页条数
+     * @return 审计日志
+     */
+    public Slice<AuditLog> findBefore(Long before, String username, LocalDateTime startTime, LocalDateTime endTime, int pageSize) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        if (before != null) {
+            sql.append(" and id < ?");
+            args.add(before);
+        }
+        if (username != null) {
+            sql.append(" and username = ?");
+            args.add(username);
+        }
+        if (startTime != null) {
+            sql.append(" and create_time >= ?");
+            args.add(Timestamp.valueOf(startTime));
+        }
+        if (endTime != null) {
+            sql.append(" and create_time < ?");
+            args.add(Timestamp.valueOf(endTime));
+        }
+        // 多取一条判断是否还有下一页
+        sql.append(" order by id desc limit ?");
+        args.add(pageSize + 1);
+        List<AuditLog> content = jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+        boolean hasNext = content.size() > pageSize;
+        if (hasNext) {
+            content = content.subList(0, pageSize);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, pageSize), hasNext);
+    }
+
+    /**
+     * 删除过期的审计日志
+     * @param before 删除该时间之前的日志
+     * @return 删除条数
+     */
+    public int deleteBefore(LocalDateTime before) {
+        return jdbcTemplate.update("delete from lfs_audit_log where create_time < ?", Timestamp.valueOf(before));
+    }
+
+    /**
+     * 截断到列长度，不拆开代理对
+     */
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return value.substring(0, end);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.besscroft.lfs.system.repository;
+
+import com.besscroft.lfs.model.ExportJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 导出任务读写
+ *
+ * 任务状态保存在 lfs_export_job 表，集群内任意实例都可以查询、下载其他实例执行的任务。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 09:20
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExportJobRepository {
+
+    private static final String INSERT_SQL = "insert into lfs_export_job (id, owner, status, rows, size, message, create_time, finish_time)" +
+            " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "update lfs_export_job set status = ?, rows = ?, size = ?, message = ?, finish_time = ? where id = ?";
+
+    private static final String SELECT_SQL = "select id, owner, status, rows, size, message, create_time, finish_time from lfs_export_job where id = ?";
+
+    /** 完成超过保留时间的任务，以及创建超过保留时间仍未完成的任务（执行实例已停止） */
+    private static final String DELETE_EXPIRED_SQL = "delete from lfs_export_job" +
+            " where finish_time < ? or (finish_time is null and create_time < ?) returning id";
+
+    private static final RowMapper<ExportJob> ROW_MAPPER = (rs, rowNum) -> {
+        ExportJob job = new ExportJob();
+        job.setId(rs.getString(1));
+        job.setOwner(rs.getString(2));
+        job.setStatus(rs.getString(3));
+        job.setRows(rs.getLong(4));
+        job.setSize(rs.getLong(5));
+        job.setMessage(rs.getString(6));
+        job.setCreateTime(toLocalDateTime(rs.getTimestamp(7)));
+        job.setFinishTime(toLocalDateTime(rs.getTimestamp(8)));
+        return job;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 新增导出任务
+     * @param job 导出任务
+     */
+    public void insert(ExportJob job) {
+        jdbcTemplate.update(INSERT_SQL, job.getId(), job.getOwner(), job.getStatus(), job.getRows(), job.getSize(),
+                job.getMessage(), toTimestamp(job.getCreateTime()), toTimestamp(job.getFinishTime()));
+    }
+
+    /**
+     * 更新任务状态、结果
+     * @param job 导出任务
+     */
+    public void update(ExportJob job) {
+        jdbcTemplate.update(UPDATE_SQL, job.getStatus(), job.getRows(), job.getSize(), job.getMessage(),
+                toTimestamp(job.getFinishTime()), job.getId());
+    }
+
+    /**
+     * 查询导出任务
+     * @param id 任务id
+     * @return 导出任务，不存在时为空
+     */
+    public ExportJob findById(String id) {
+        List<ExportJob> jobs = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, id);
+        return jobs.isEmpty() ? null : jobs.get(0);
+    }
+
+    /**
+     * 删除过期的导出任务，多个实例同时清理时每条任务只返回给其中一个实例
+     * @param before 完成时间（未完成时为创建时间）早于该时间的任务视为过期
+     * @return 已删除的任务id
+     */
+    public List<String> deleteExpired(LocalDateTime before) {
+        Timestamp timestamp = Timestamp.valueOf(before);
+        return jdbcTemplate.queryForList(DELETE_EXPIRED_SQL, String.class, timestamp, timestamp);
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+}
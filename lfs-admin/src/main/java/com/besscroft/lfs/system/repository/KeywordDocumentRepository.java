@@ -0,0 +1,94 @@
+package com.besscroft.lfs.system.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.BiConsumer;
+
+/**
+ * 关键字索引数据读取，只查询需要索引的列
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 02:20
+ */
+@Repository
+@RequiredArgsConstructor
+public class KeywordDocumentRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 按id顺序读取一批数据
+     * @param category 数据类别
+     * @param afterId 从该id之后开始读取
+     * @param limit 最多读取条数
+     * @param consumer 接收id和需要索引的字段
+     * @return 读取到的最后一条数据的id，没有数据时返回 null
+     */
+    public Long scan(Category category, long afterId, int limit, BiConsumer<Long, String[]> consumer) {
+        Long[] lastId = new Long[1];
+        jdbcTemplate.query(category.scanSql, rs -> {
+            long id = rs.getLong(1);
+            String[] fields = new String[category.columns.length];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = rs.getString(i + 2);
+            }
+            consumer.accept(id, fields);
+            lastId[0] = id;
+        }, afterId, limit);
+        return lastId[0];
+    }
+
+    /**
+     * 按id读取数据，不存在或不需要索引的数据不会返回
+     * @param category 数据类别
+     * @param ids id集合
+     * @param consumer 接收id和需要索引的字段
+     */
+    public void find(Category category, Collection<Long> ids, BiConsumer<Long, String[]> consumer) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String sql = category.findSql + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        jdbcTemplate.query(sql, rs -> {
+            String[] fields = new String[category.columns.length];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = rs.getString(i + 2);
+            }
+            consumer.accept(rs.getLong(1), fields);
+        }, ids.toArray());
+    }
+
+    /**
+     * 关键字索引的数据类别
+     */
+    public enum Category {
+
+        USER("auth_user", null, "username", "nick_name", "email", "phone"),
+        ROLE("auth_role", "del = 1", "name"),
+        MENU("auth_menu", null, "name", "title"),
+        RESOURCE("auth_resource", null, "name", "url");
+
+        private final String[] columns;
+
+        private final String scanSql;
+
+        private final String findSql;
+
+        Category(String table, String condition, String... columns) {
+            this.columns = columns;
+            this.scanSql = "select id, " + String.join(", ", columns) +
+                    " from " + table +
+                    " where " + (condition == null ? "" : condition + " and ") + "id > ?" +
+                    " order by id limit ?";
+            this.findSql = "select id, " + String.join(", ", columns) +
+                    " from " + table +
+                    " where " + (condition == null ? "" : condition + " and ") + "id in (";
+        }
+
+    }
+
+}
@@ -1,13 +1,21 @@
 package com.besscroft.lfs.system.repository;
 
+import com.besscroft.lfs.constant.CacheRegion;
 import com.besscroft.lfs.entity.AuthMenu;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 /**
  * @Author Bess Croft
  * @Time 2021/7/8 15:52
@@ -19,6 +27,10 @@ public interface MenuRepository extends JpaRepository<AuthMenu, Long>, JpaSpecif
      * @param userId 用户id
      * @return 菜单集合
      */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegion.RELATION)
+    })
     @Query(value = "select" +
             "            m.*" +
             "        from auth_menu m" +
@@ -30,6 +42,24 @@ public interface MenuRepository extends JpaRepository<AuthMenu, Long>, JpaSpecif
             "        order by m.sort", nativeQuery = true)
     List<AuthMenu> findAllByUserId(Long userId);
 
+    /**
+     * 获取角色的所有菜单
+     * @param roleId 角色id
+     * @return 菜单集合
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegion.RELATION)
+    })
+    @Query(value = "select" +
+            "            m.*" +
+            "        from auth_menu m" +
+            "                 inner join auth_role_menu_relation rm on m.id = rm.menu_id" +
+            "                 inner join auth_role r on rm.role_id = r.id" +
+            "        where r.id =:roleId" +
+            "        order by m.sort", nativeQuery = true)
+    List<AuthMenu> findAllByRoleId(Long roleId);
+
     /**
      * 修改菜单显示状态
      * @param hidden 显示状态
@@ -50,6 +80,10 @@ public interface MenuRepository extends JpaRepository<AuthMenu, Long>, JpaSpecif
      * @param id 角色id
      * @return 角色的菜单数组
      */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegion.RELATION)
+    })
     @Query(value = "select" +
             "           menu_id" +
             "       from" +
@@ -58,33 +92,6 @@ public interface MenuRepository extends JpaRepository<AuthMenu, Long>, JpaSpecif
             "           role_id =:id", nativeQuery = true)
     List<Long> selectMenuTreeById(Long id);
 
-    /**
-     * 根据角色id删除角色菜单关系
-     * @param id 角色id
-     * @return
-     */
-    @Modifying
-    @Query(value = "delete" +
-            "       from" +
-            "           auth_role_menu_relation" +
-            "       where" +
-            "           role_id =:id", nativeQuery = true)
-    int deleteRoleMenuRelation(Long id);
-
-    /**
-     * 插入角色和菜单对应关系
-     * @param menuId 菜单id
-     * @param roleId 角色id
-     * @return
-     */
-    @Modifying
-    @Query(value = "insert into" +
-            "          auth_role_menu_relation" +
-            "            (role_id, menu_id)" +
-            "       values" +
-            "           (?2 , ?1)", nativeQuery = true)
-    int insertRoleMenuRelation(Long menuId, Long roleId);
-
     /**
      * 根据父菜单id获取所有菜单
      * @param parentId 父菜单id
@@ -92,4 +99,12 @@ public interface MenuRepository extends JpaRepository<AuthMenu, Long>, JpaSpecif
      */
     List<AuthMenu> findAllByParentId(Long parentId);
 
+    /**
+     * 游标分页查询菜单，按id升序返回id大于游标的记录，不统计总数
+     * @param id 游标，上一页最后一条记录的id
+     * @param pageable 分页参数，页码固定为 0
+     * @return 菜单切片
+     */
+    Slice<AuthMenu> findByIdGreaterThan(Long id, Pageable pageable);
+
 }
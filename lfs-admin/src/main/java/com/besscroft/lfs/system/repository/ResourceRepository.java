@@ -1,13 +1,20 @@
 package com.besscroft.lfs.system.repository;
 
+import com.besscroft.lfs.constant.CacheRegion;
 import com.besscroft.lfs.entity.AuthResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 /**
  * @Author Bess Croft
  * @Time 2021/7/2 11:25
@@ -19,6 +26,10 @@ public interface ResourceRepository extends JpaRepository<AuthResource, Long>, J
      * @param userId 用户id
      * @return 资源集合
      */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegion.RELATION)
+    })
     @Query(value = "select ar.* from auth_resource ar\n" +
             "inner join auth_role_resource_relation arrr on ar.id = arrr.resource_id\n" +
             "inner join auth_role re on arrr.role_id = re.id \n" +
@@ -31,6 +42,7 @@ public interface ResourceRepository extends JpaRepository<AuthResource, Long>, J
      * 查询所有资源
      * @return 资源集合
      */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<AuthResource> findAll();
 
     /**
@@ -40,11 +52,24 @@ public interface ResourceRepository extends JpaRepository<AuthResource, Long>, J
      */
     List<AuthResource> findAllByCategoryId(Long categoryId);
 
+    /**
+     * 按资源类别分组查询所有资源，没有资源的类别也会返回一行
+     * @return [资源类别, 资源] 集合，按类别id、资源id排序，资源可能为 null
+     */
+    @Query(value = "select s, r from AuthResourceSort s" +
+            "       left join AuthResource r on r.categoryId = s.id" +
+            "       order by s.id, r.id")
+    List<Object[]> findAllGroupByCategory();
+
     /**
      * 根据角色id获取资源树数组
      * @param id 角色id
      * @return 角色的资源树数组
      */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegion.RELATION)
+    })
     @Query(value = "select" +
             "           resource_id" +
             "       from" +
@@ -54,30 +79,11 @@ public interface ResourceRepository extends JpaRepository<AuthResource, Long>, J
     List<Long> selectResourceTreeById(Long id);
 
     /**
-     * 根据角色id删除角色资源关系
-     * @param id 角色id
-     * @return
-     */
-    @Modifying
-    @Query(value = "delete" +
-            "       from" +
-            "           auth_role_resource_relation" +
-            "       where" +
-            "           role_id =:id", nativeQuery = true)
-    int deleteRoleResourceRelation(Long id);
-
-    /**
-     * 插入角色和资源对应关系
-     * @param resourceId 资源id
-     * @param roleId 角色id
-     * @return
+     * 游标分页查询资源，按id升序返回id大于游标的记录，不统计总数
+     * @param id 游标，上一页最后一条记录的id
+     * @param pageable 分页参数，页码固定为 0
+     * @return 资源切片
      */
-    @Modifying
-    @Query(value = "insert into" +
-            "       auth_role_resource_relation" +
-            "            (role_id, resource_id)" +
-            "        values" +
-            "            (?2 , ?1)", nativeQuery = true)
-    int insertRoleResourceRelation(Long resourceId, Long roleId);
+    Slice<AuthResource> findByIdGreaterThan(Long id, Pageable pageable);
 
 }
@@ -0,0 +1,152 @@
+package com.besscroft.lfs.system.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 角色关系同步：对比角色当前关联的id与目标id，只删除、插入差异部分
+ *
+ * 删除和插入都按批拼成一条多值语句，重新保存 800 个资源且无变化时只有加锁和查询两条语句。
+ * 同一角色的并发同步通过锁定 auth_role 行串行执行，避免重复插入。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 21:50
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class RoleRelationRepository {
+
+    /** 单条语句最多包含的id数量 */
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 角色关系表
+     */
+    public enum Relation {
+
+        /** 角色菜单关系 */
+        MENU("auth_role_menu_relation", "menu_id"),
+
+        /** 角色资源关系 */
+        RESOURCE("auth_role_resource_relation", "resource_id");
+
+        private final String table;
+
+        private final String column;
+
+        Relation(String table, String column) {
+            this.table = table;
+            this.column = column;
+        }
+
+    }
+
+    /**
+     * 同步结果
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SyncResult {
+
+        /** 删除的关系数 */
+        private final int deleted;
+
+        /** 插入的关系数 */
+        private final int inserted;
+
+        /** 保持不变的关系数 */
+        private final int unchanged;
+
+        public boolean isChanged() {
+            return deleted > 0 || inserted > 0;
+        }
+
+    }
+
+    /**
+     * 把角色的关系同步为目标id集合，需在事务中调用
+     * @param relation 关系类型
+     * @param roleId 角色id
+     * @param targetIds 目标id集合，null 视为清空
+     * @return 同步结果
+     */
+    public SyncResult sync(Relation relation, Long roleId, Collection<Long> targetIds) {
+        jdbcTemplate.queryForList("select id from auth_role where id = ? for update", Long.class, roleId);
+        List<Long> currentIds = jdbcTemplate.queryForList(
+                "select " + relation.column + " from " + relation.table + " where role_id = ?", Long.class, roleId);
+        Set<Long> current = new HashSet<>(currentIds);
+        Set<Long> target = new LinkedHashSet<>();
+        if (targetIds != null) {
+            targetIds.stream().filter(Objects::nonNull).forEach(target::add);
+        }
+        List<Long> toDelete = new ArrayList<>();
+        for (Long id : current) {
+            if (!target.contains(id)) {
+                toDelete.add(id);
+            }
+        }
+        List<Long> toInsert = new ArrayList<>();
+        for (Long id : target) {
+            if (!current.contains(id)) {
+                toInsert.add(id);
+            }
+        }
+        Collections.sort(toDelete);
+        int deleted = delete(relation, roleId, toDelete);
+        int inserted = insert(relation, roleId, toInsert);
+        SyncResult result = new SyncResult(deleted, inserted, target.size() - toInsert.size());
+        log.info("同步角色关系：{} 角色id={} 删除={} 插入={} 不变={}",
+                relation.table, roleId, result.getDeleted(), result.getInserted(), result.getUnchanged());
+        return result;
+    }
+
+    private int delete(Relation relation, Long roleId, List<Long> ids) {
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE));
+            StringBuilder sql = new StringBuilder("delete from ").append(relation.table)
+                    .append(" where role_id = ? and ").append(relation.column).append(" in (");
+            Object[] args = new Object[batch.size() + 1];
+            args[0] = roleId;
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                args[i + 1] = batch.get(i);
+            }
+            count += jdbcTemplate.update(sql.append(')').toString(), args);
+        }
+        return count;
+    }
+
+    private int insert(Relation relation, Long roleId, List<Long> ids) {
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE));
+            StringBuilder sql = new StringBuilder("insert into ").append(relation.table)
+                    .append(" (role_id, ").append(relation.column).append(") values ");
+            Object[] args = new Object[batch.size() * 2];
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+                args[i * 2] = roleId;
+                args[i * 2 + 1] = batch.get(i);
+            }
+            count += jdbcTemplate.update(sql.toString(), args);
+        }
+        return count;
+    }
+
+}
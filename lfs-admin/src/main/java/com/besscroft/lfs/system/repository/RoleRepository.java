@@ -1,15 +1,22 @@
 package com.besscroft.lfs.system.repository;
 
+import com.besscroft.lfs.constant.CacheRegion;
 import com.besscroft.lfs.entity.AuthRole;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 /**
  * @Author Bess Croft
  * @Time 2021/7/8 15:38
@@ -20,6 +27,7 @@ public interface RoleRepository extends JpaRepository<AuthRole, Long>, JpaSpecif
      * 查询所有角色
      * @return 角色集合
      */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<AuthRole> findAll();
 
     /**
@@ -77,4 +85,31 @@ public interface RoleRepository extends JpaRepository<AuthRole, Long>, JpaSpecif
             "            (?1, ?2)", nativeQuery = true)
     int insertUserRoleRelation(Long userId, Long roleId);
 
+    /**
+     * 根据用户id查询角色id，原生查询返回的数值类型由数据库列类型决定，调用方需转换为 Long
+     * @param userId 用户id
+     * @return 角色id集合
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegion.RELATION)
+    })
+    @Query(value = "select" +
+            "           role_id" +
+            "       from" +
+            "           auth_user_role_relation" +
+            "       where" +
+            "           user_id =:userId" +
+            "       order by role_id", nativeQuery = true)
+    List<Number> selectRoleIdsByUserId(Long userId);
+
+    /**
+     * 游标分页查询角色，按id升序返回id大于游标的记录，不统计总数
+     * @param del 删除标记，与分页列表一致传 1 只查询未删除的角色
+     * @param id 游标，上一页最后一条记录的id
+     * @param pageable 分页参数，页码固定为 0
+     * @return 角色切片
+     */
+    Slice<AuthRole> findByDelAndIdGreaterThan(Integer del, Long id, Pageable pageable);
+
 }
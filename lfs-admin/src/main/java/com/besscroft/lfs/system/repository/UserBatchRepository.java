@@ -0,0 +1,55 @@
+package com.besscroft.lfs.system.repository;
+
+import com.besscroft.lfs.entity.AuthUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户批量写入
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 00:45
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+
+    private static final String INSERT_SQL = "insert into auth_user" +
+            "            (username, password, icon, email, phone, nick_name, note, create_time, login_time, status, del)" +
+            "        values" +
+            "            (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" +
+            "        on conflict do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入用户，用户名、邮箱或手机号已存在的行跳过，不影响同一批的其他行
+     * @param users 用户集合
+     * @return 每行影响的行数，0 表示用户名、邮箱或手机号已存在，{@link java.sql.Statement#SUCCESS_NO_INFO} 表示驱动未返回行数
+     */
+    public int[] insertAll(List<AuthUser> users) {
+        List<Object[]> batchArgs = new ArrayList<>(users.size());
+        for (AuthUser user : users) {
+            batchArgs.add(new Object[]{
+                    user.getUsername(),
+                    user.getPassword(),
+                    user.getIcon(),
+                    user.getEmail(),
+                    user.getPhone(),
+                    user.getNickName(),
+                    user.getNote(),
+                    user.getCreateTime() == null ? null : Timestamp.valueOf(user.getCreateTime()),
+                    user.getLoginTime() == null ? null : Timestamp.valueOf(user.getLoginTime()),
+                    user.getStatus(),
+                    user.getDel()
+            });
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+}
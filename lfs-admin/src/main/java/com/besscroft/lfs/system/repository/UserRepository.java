@@ -1,12 +1,15 @@
 package com.besscroft.lfs.system.repository;
 
 import com.besscroft.lfs.entity.AuthUser;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import java.util.Date;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * @Author Bess Croft
@@ -22,16 +25,42 @@ public interface UserRepository extends JpaRepository<AuthUser, Long>, JpaSpecif
     AuthUser findByUsername(String username);
 
     /**
-     * 登录成功后设置登录时间
-     * @param loginTime 登录时间
-     * @param id 用户id
-     * @return
+     * 根据id查询用户，按id排序
+     * @param ids 用户id
+     * @return 用户集合
      */
-    @Modifying
-    @Query(value = "update auth_user" +
-                    " set login_time =:loginTime" +
-                    " where id =:id", nativeQuery = true)
-    int updateLoginTime(Date loginTime, Long id);
+    List<AuthUser> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * 查询已存在的用户名
+     * @param usernames 用户名集合
+     * @return 已存在的用户名
+     */
+    @Query("select u.username from AuthUser u where u.username in :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * 查询已存在的邮箱
+     * @param emails 邮箱集合
+     * @return 已存在的邮箱
+     */
+    @Query("select u.email from AuthUser u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * 查询已存在的手机号
+     * @param phones 手机号集合
+     * @return 已存在的手机号
+     */
+    @Query("select u.phone from AuthUser u where u.phone in :phones")
+    List<String> findExistingPhones(Collection<String> phones);
+
+    /**
+     * 根据用户名集合查询用户
+     * @param usernames 用户名集合
+     * @return 用户集合
+     */
+    List<AuthUser> findAllByUsernameIn(Collection<String> usernames);
 
     /**
      * 更新用户账户的可用状态
@@ -50,4 +79,12 @@ public interface UserRepository extends JpaRepository<AuthUser, Long>, JpaSpecif
             "           del = '1'", nativeQuery = true)
     int changeSwitch(Integer status, Long id);
 
+    /**
+     * 游标分页查询用户，按id升序返回id大于游标的记录，不统计总数
+     * @param id 游标，上一页最后一条记录的id
+     * @param pageable 分页参数，页码固定为 0
+     * @return 用户切片
+     */
+    Slice<AuthUser> findByIdGreaterThan(Long id, Pageable pageable);
+
 }
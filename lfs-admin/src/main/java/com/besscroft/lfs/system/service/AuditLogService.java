@@ -0,0 +1,28 @@
+package com.besscroft.lfs.system.service;
+
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.model.CursorSlice;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Description 操作审计日志
+ * @Author Bess Croft
+ * @Time 2026/10/18 06:30
+ */
+public interface AuditLogService {
+
+    /**
+     * 游标分页查询审计日志，按时间倒序
+     * @param before 上一页返回的 nextCursor，为空时查询第一页
+     * @param pageSize 每页条数
+     * @param username 用户名，为空时查询全部用户
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @param withTotal 是否返回近似总数
+     * @return 游标分页结果
+     */
+    CursorSlice<AuditLog> getAuditLogSlice(Long before, Integer pageSize, String username,
+                                           LocalDateTime startTime, LocalDateTime endTime, boolean withTotal);
+
+}
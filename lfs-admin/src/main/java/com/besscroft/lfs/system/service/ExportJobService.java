@@ -0,0 +1,43 @@
+package com.besscroft.lfs.system.service;
+
+import com.besscroft.lfs.model.ExportJob;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @Description 异步导出任务
+ * @Author Bess Croft
+ * @Time 2026/10/17 23:30
+ */
+public interface ExportJobService {
+
+    /**
+     * 提交用户导出任务
+     * @param ids 用户id
+     * @param owner 提交任务的用户名
+     * @return 导出任务
+     */
+    ExportJob submitUserExport(List<Long> ids, String owner);
+
+    /**
+     * 查询导出任务
+     * @param id 任务id
+     * @param owner 当前用户名
+     * @return 导出任务
+     */
+    ExportJob getJob(String id, String owner);
+
+    /**
+     * 下载导出文件，支持 Range 请求
+     * @param id 任务id
+     * @param owner 当前用户名
+     * @param request 请求
+     * @param response 响应
+     * @throws IOException 写出失败
+     */
+    void download(String id, String owner, HttpServletRequest request, HttpServletResponse response) throws IOException;
+
+}
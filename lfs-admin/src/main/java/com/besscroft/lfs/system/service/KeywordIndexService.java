@@ -0,0 +1,78 @@
+package com.besscroft.lfs.system.service;
+
+import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.entity.AuthResource;
+import com.besscroft.lfs.entity.AuthRole;
+import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @Description 管理后台关键字搜索服务
+ * @Author Bess Croft
+ * @Time 2026/10/18 02:30
+ */
+public interface KeywordIndexService {
+
+    /**
+     * 关键字分页查询，按id升序
+     * @param category 数据类别
+     * @param keyword 关键字，不能为空
+     * @param pageable 分页参数
+     * @param loader 根据id集合查询实体
+     * @param idGetter 实体id获取方法
+     * @return 分页结果
+     */
+    <T> Page<T> search(Category category, String keyword, Pageable pageable,
+                       Function<List<Long>, List<T>> loader, Function<T, Long> idGetter);
+
+    /**
+     * 新增或更新用户索引，事务提交后生效
+     * @param authUser 用户实体
+     */
+    void indexUser(AuthUser authUser);
+
+    /**
+     * 新增或更新角色索引，事务提交后生效
+     * @param authRole 角色实体
+     */
+    void indexRole(AuthRole authRole);
+
+    /**
+     * 新增或更新菜单索引，事务提交后生效
+     * @param authMenu 菜单实体
+     */
+    void indexMenu(AuthMenu authMenu);
+
+    /**
+     * 新增或更新资源索引，事务提交后生效
+     * @param authResource 资源实体
+     */
+    void indexResource(AuthResource authResource);
+
+    /**
+     * 删除索引，事务提交后生效
+     * @param category 数据类别
+     * @param ids id集合
+     */
+    void remove(Category category, Collection<Long> ids);
+
+    /**
+     * 从数据库重新读取指定数据的索引，用于其他实例的变更
+     * @param category 数据类别
+     * @param ids id集合
+     */
+    void refresh(Category category, Collection<Long> ids);
+
+    /**
+     * 清空并重新加载索引，加载完成前查询返回 503
+     * @param category 数据类别
+     */
+    void reload(Category category);
+
+}
@@ -1,6 +1,7 @@
 package com.besscroft.lfs.system.service;
 
 import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.model.CursorSlice;
 import com.besscroft.lfs.model.RouterVo;
 import org.springframework.data.domain.Page;
 
@@ -35,6 +36,15 @@ public interface MenuService {
      */
     Page<AuthMenu> getMenuPageList(Integer pageNum, Integer pageSize, String keyword);
 
+    /**
+     * 游标分页获取菜单列表，按id升序，翻页深度不影响查询耗时
+     * @param after 游标，上一页最后一条记录的id，第一页传 0
+     * @param pageSize 多少条
+     * @param withTotal 是否返回近似总数
+     * @return 游标分页菜单列表
+     */
+    CursorSlice<AuthMenu> getMenuSlice(Long after, Integer pageSize, boolean withTotal);
+
     /**
      * 获取所有父菜单
      * @return 所有父菜单
@@ -99,4 +109,9 @@ public interface MenuService {
      */
     boolean updateMenuTree(List<Long> menuIds, Long id);
 
+    /**
+     * 清空角色路由缓存，菜单、角色菜单关系、角色变更后调用
+     */
+    void clearRouterCache();
+
 }
@@ -1,6 +1,7 @@
 package com.besscroft.lfs.system.service;
 
 import com.besscroft.lfs.entity.AuthResource;
+import com.besscroft.lfs.model.CursorSlice;
 import com.besscroft.lfs.model.ResourceParam;
 import org.springframework.data.domain.Page;
 
@@ -34,6 +35,15 @@ public interface ResourceService {
      */
     Page<AuthResource> getResourcePageList(Integer pageNum, Integer pageSize, String keyword);
 
+    /**
+     * 游标分页获取资源列表，按id升序，翻页深度不影响查询耗时
+     * @param after 游标，上一页最后一条记录的id，第一页传 0
+     * @param pageSize 多少条
+     * @param withTotal 是否返回近似总数
+     * @return 游标分页资源列表
+     */
+    CursorSlice<AuthResource> getResourceSlice(Long after, Integer pageSize, boolean withTotal);
+
     /**
      * 根据id获取资源详情
      * @param id 资源id
@@ -83,4 +93,9 @@ public interface ResourceService {
      */
     boolean updateResourceTree(List<Long> resourceIds, Long id);
 
+    /**
+     * 清空资源树缓存，资源、资源类别变更后调用
+     */
+    void clearResourceTreeCache();
+
 }
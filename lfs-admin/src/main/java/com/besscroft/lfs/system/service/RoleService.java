@@ -1,6 +1,7 @@
 package com.besscroft.lfs.system.service;
 
 import com.besscroft.lfs.entity.AuthRole;
+import com.besscroft.lfs.model.CursorSlice;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -26,6 +27,15 @@ public interface RoleService {
      */
     Page<AuthRole> getRolePageList(Integer pageNum, Integer pageSize, String keyword);
 
+    /**
+     * 游标分页获取角色列表，按id升序，翻页深度不影响查询耗时
+     * @param after 游标，上一页最后一条记录的id，第一页传 0
+     * @param pageSize 多少条
+     * @param withTotal 是否返回近似总数
+     * @return 游标分页角色列表
+     */
+    CursorSlice<AuthRole> getRoleSlice(Long after, Integer pageSize, boolean withTotal);
+
     /**
      * 根据id查询角色详情
      * @param id 角色id
@@ -2,11 +2,14 @@ package com.besscroft.lfs.system.service;
 
 import com.besscroft.lfs.entity.AuthRole;
 import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.model.CursorSlice;
+import com.besscroft.lfs.model.UserImportResult;
 import org.springframework.data.domain.Page;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.servlet.http.HttpServletResponse;
-import java.util.Date;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -58,18 +61,12 @@ public interface UserService {
     List<AuthRole> getRoleList(Long userId);
 
     /**
-     * 登录成功后设置登录时间
-     * @param loginTime 登录时间
-     * @return
-     */
-    boolean setLoginTime(Date loginTime, Long id);
-
-    /**
-     * 系统用户退出登录处理
-     * @param adminId
-     * @return
+     * 系统用户退出登录处理，吊销当前token
+     * @param adminId 用户id
+     * @param headToken 带tokenHead的token
+     * @return 是否吊销成功
      */
-    boolean logout(Long adminId);
+    boolean logout(Long adminId, String headToken);
 
     /**
      * 分页查询用户
@@ -80,6 +77,15 @@ public interface UserService {
      */
     Page<AuthUser> getUserPageList(Integer pageNum, Integer pageSize, String keyword);
 
+    /**
+     * 游标分页获取用户列表，按id升序，翻页深度不影响查询耗时
+     * @param after 游标，上一页最后一条记录的id，第一页传 0
+     * @param pageSize 多少条
+     * @param withTotal 是否返回近似总数
+     * @return 游标分页用户列表
+     */
+    CursorSlice<AuthUser> getUserSlice(Long after, Integer pageSize, boolean withTotal);
+
     /**
      * 根据id获取用户信息
      * @param id 用户id
@@ -123,4 +129,19 @@ public interface UserService {
      */
     void export(List<Long> ids, HttpServletResponse response);
 
+    /**
+     * 导出选定用户数据到输出流
+     * @param ids 用户id
+     * @param outputStream 输出流，写完后关闭
+     * @return 导出行数
+     */
+    long exportTo(List<Long> ids, OutputStream outputStream);
+
+    /**
+     * 从 Excel 批量导入用户，出错的行跳过并记录原因
+     * @param inputStream Excel 输入流
+     * @return 导入结果
+     */
+    UserImportResult importUsers(InputStream inputStream);
+
 }
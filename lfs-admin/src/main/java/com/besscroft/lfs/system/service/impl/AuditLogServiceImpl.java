@@ -0,0 +1,35 @@
+package com.besscroft.lfs.system.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.model.CursorSlice;
+import com.besscroft.lfs.system.repository.ApproximateCountRepository;
+import com.besscroft.lfs.system.repository.AuditLogRepository;
+import com.besscroft.lfs.system.service.AuditLogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Description 操作审计日志
+ * @Author Bess Croft
+ * @Time 2026/10/18 06:35
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditLogServiceImpl implements AuditLogService {
+
+    private final AuditLogRepository auditLogRepository;
+    private final ApproximateCountRepository approximateCountRepository;
+
+    @Override
+    public CursorSlice<AuditLog> getAuditLogSlice(Long before, Integer pageSize, String username,
+                                                  LocalDateTime startTime, LocalDateTime endTime, boolean withTotal) {
+        Slice<AuditLog> slice = auditLogRepository.findBefore(before, StrUtil.emptyToNull(username), startTime, endTime, pageSize);
+        // 近似总数是全表的估算值，不受查询条件影响
+        return CursorSlice.of(slice, AuditLog::getId, withTotal ? approximateCountRepository.count("lfs_audit_log", null) : null);
+    }
+
+}
@@ -0,0 +1,292 @@
+package com.besscroft.lfs.system.service.impl;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.IdUtil;
+import com.besscroft.lfs.constant.HttpStatus;
+import com.besscroft.lfs.exception.PiscesException;
+import com.besscroft.lfs.model.ExportJob;
+import com.besscroft.lfs.system.repository.ExportJobRepository;
+import com.besscroft.lfs.system.service.ExportJobService;
+import com.besscroft.lfs.system.service.UserService;
+import com.besscroft.lfs.system.utils.ByteRange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步导出任务
+ *
+ * 导出在独立的有界线程池中执行，文件先写到暂存目录的 .part 文件，完成后改名，客户端轮询任务状态后下载。
+ * 客户端断开不影响导出；线程池和队列都满时提交直接以 429 失败。
+ * 任务状态保存在 lfs_export_job 表，暂存目录需要是各实例共享的目录（如 NFS），查询、下载请求可以落在任意实例上。
+ * 下载时 Tomcat 支持 sendfile 则交给 Tomcat 零拷贝发送，否则用 FileChannel.transferTo 写出，都支持单个 Range。
+ * 完成超过保留时间的任务及其文件定时清理，执行实例停止后遗留的任务和文件同样按保留时间清理。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 23:40
+ */
+@Slf4j
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private static final String EXECUTOR_NAME = "export-job";
+
+    private static final String FILE_SUFFIX = ".xlsx";
+
+    private static final String PART_SUFFIX = ".part";
+
+    private static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UserService userService;
+
+    private final ExportJobRepository exportJobRepository;
+
+    private final Path spoolDir;
+
+    private final Duration retention;
+
+    private final ThreadPoolExecutor executor;
+
+    public ExportJobServiceImpl(UserService userService,
+                                ExportJobRepository exportJobRepository,
+                                @Value("${lfs.export.spool-dir:data/export}") String spoolDir,
+                                @Value("${lfs.export.retention:PT1H}") Duration retention,
+                                @Value("${lfs.export.threads:2}") int threads,
+                                @Value("${lfs.export.queue-capacity:16}") int queueCapacity,
+                                MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.exportJobRepository = exportJobRepository;
+        this.spoolDir = Paths.get(spoolDir).toAbsolutePath();
+        this.retention = retention;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(EXECUTOR_NAME + "-");
+        threadFactory.setDaemon(true);
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(spoolDir);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ExportJob submitUserExport(List<Long> ids, String owner) {
+        if (CollUtil.isEmpty(ids)) {
+            throw new PiscesException(HttpStatus.BAD_REQUEST, "请选择要导出的用户");
+        }
+        ExportJob job = new ExportJob();
+        job.setId(IdUtil.fastSimpleUUID());
+        job.setOwner(owner);
+        job.setStatus(ExportJob.PENDING);
+        job.setCreateTime(LocalDateTime.now());
+        List<Long> userIds = new ArrayList<>(ids);
+        // 先写入任务再执行，执行线程更新状态时任务记录已经存在
+        exportJobRepository.insert(job);
+        try {
+            executor.execute(() -> run(job, userIds));
+        } catch (RejectedExecutionException e) {
+            log.warn("导出线程池已满，拒绝导出任务");
+            job.setMessage("导出任务过多");
+            job.setFinishTime(LocalDateTime.now());
+            job.setStatus(ExportJob.FAILED);
+            exportJobRepository.update(job);
+            throw new PiscesException(HttpStatus.TOO_MANY_REQUESTS, "导出任务过多，请稍后重试");
+        }
+        return job;
+    }
+
+    @Override
+    public ExportJob getJob(String id, String owner) {
+        ExportJob job = id == null ? null : exportJobRepository.findById(id);
+        if (job == null || !job.getOwner().equals(owner)) {
+            throw new PiscesException(HttpStatus.NOT_FOUND, "导出任务不存在或已过期");
+        }
+        return job;
+    }
+
+    @Override
+    public void download(String id, String owner, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportJob job = getJob(id, owner);
+        if (!ExportJob.DONE.equals(job.getStatus())) {
+            throw new PiscesException(HttpStatus.CONFLICT, "导出任务尚未完成");
+        }
+        Path file = file(job.getId());
+        long length;
+        try {
+            length = Files.size(file);
+        } catch (NoSuchFileException e) {
+            // 任务已完成但本实例看不到文件，暂存目录没有在各实例间共享
+            log.error("导出文件不存在：{}，请确认 lfs.export.spool-dir 为各实例共享的目录", file);
+            throw new PiscesException(HttpStatus.SERVICE_UNAVAILABLE, "导出文件暂时无法读取，请稍后重试");
+        }
+        String etag = "\"" + job.getId() + "-" + length + "\"";
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+        // If-Range 不匹配时返回完整内容
+        String ifRange = request.getHeader("If-Range");
+        ByteRange range = ifRange == null || ifRange.equals(etag) ? ByteRange.parse(request.getHeader("Range"), length) : null;
+        if (range == ByteRange.NOT_SATISFIABLE) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader("Content-Range", "bytes */" + length);
+            return;
+        }
+        long start = range == null ? 0 : range.getStart();
+        long count = range == null ? length : range.getLength();
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + range.getStart() + "-" + range.getEnd() + "/" + length);
+        }
+        response.setContentType(CONTENT_TYPE);
+        String fileName = URLEncoder.encode("用户信息", "UTF-8").replaceAll("\\+", "%20");
+        response.setHeader("Content-disposition", "attachment;filename*=utf-8''" + fileName + FILE_SUFFIX);
+        response.setContentLengthLong(count);
+        if (count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 交给 Tomcat 在响应提交后用 sendfile 发送
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        } catch (IOException e) {
+            // 客户端断开，可以用 Range 继续下载
+            log.debug("导出文件下载中断：{}", job.getId(), e);
+        }
+    }
+
+    /**
+     * 清理超过保留时间的任务和文件
+     */
+    @Scheduled(fixedDelayString = "${lfs.export.sweep-interval:PT5M}")
+    public void sweep() {
+        LocalDateTime expired = LocalDateTime.now().minus(retention);
+        try {
+            for (String id : exportJobRepository.deleteExpired(expired)) {
+                delete(file(id));
+            }
+        } catch (DataAccessException e) {
+            log.warn("清理过期导出任务失败", e);
+        }
+        // 任务记录已删除但文件删除失败，或执行中断遗留的 .part 文件，文件完成后不再修改，按修改时间清理
+        long expiredMillis = System.currentTimeMillis() - retention.toMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path path : files) {
+                if (Files.getLastModifiedTime(path).toMillis() < expiredMillis) {
+                    delete(path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理导出暂存目录失败：{}", spoolDir, e);
+        }
+    }
+
+    private void run(ExportJob job, List<Long> ids) {
+        Path part = spoolDir.resolve(job.getId() + FILE_SUFFIX + PART_SUFFIX);
+        try {
+            job.setStatus(ExportJob.RUNNING);
+            exportJobRepository.update(job);
+            long rows;
+            try (OutputStream outputStream = Files.newOutputStream(part)) {
+                rows = userService.exportTo(ids, outputStream);
+            }
+            Path file = file(job.getId());
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.setRows(rows);
+            job.setSize(Files.size(file));
+            job.setFinishTime(LocalDateTime.now());
+            job.setStatus(ExportJob.DONE);
+            exportJobRepository.update(job);
+            log.info("导出任务完成：{} 行数={} 大小={}", job.getId(), rows, job.getSize());
+        } catch (Exception e) {
+            log.error("导出任务失败：{}", job.getId(), e);
+            delete(part);
+            job.setMessage("导出失败");
+            job.setFinishTime(LocalDateTime.now());
+            job.setStatus(ExportJob.FAILED);
+            updateQuietly(job);
+        }
+    }
+
+    private void updateQuietly(ExportJob job) {
+        try {
+            exportJobRepository.update(job);
+        } catch (DataAccessException e) {
+            // 任务保持执行中状态，超过保留时间后清理
+            log.error("更新导出任务状态失败：{}", job.getId(), e);
+        }
+    }
+
+    private Path file(String id) {
+        return spoolDir.resolve(id + FILE_SUFFIX);
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除导出文件失败：{}", path, e);
+        }
+    }
+
+}
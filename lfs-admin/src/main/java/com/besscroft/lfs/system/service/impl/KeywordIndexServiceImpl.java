@@ -0,0 +1,256 @@
+package com.besscroft.lfs.system.service.impl;
+
+import com.besscroft.lfs.constant.HttpStatus;
+import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.entity.AuthResource;
+import com.besscroft.lfs.entity.AuthRole;
+import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.exception.PiscesException;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
+import com.besscroft.lfs.system.service.KeywordIndexService;
+import com.besscroft.lfs.system.utils.NgramIndex;
+import com.besscroft.lfs.system.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 管理后台关键字搜索
+ *
+ * 用户名、昵称、邮箱、手机号以及角色、菜单、资源名称建立内存二元组倒排索引，关键字查询不再扫描数据库。
+ * 启动完成后各类别并行加载：按id分块读取，分块在线程池中构建索引段，再按顺序合并。
+ * 每次加载构建新的索引，完成后替换正在使用的索引，重新加载期间查询使用旧索引；首次加载完成前查询返回 503，加载失败时下次查询重新加载。
+ * 增删改在事务提交后同步到正在使用和正在构建的索引；加载期间删除的数据可能被加载结果重新写入，查询时按id回表，已删除的数据不会返回。
+ * 其他实例的变更通过缓存失效总线按id重新读取，无法确定变更范围时整体重新加载。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 02:40
+ */
+@Slf4j
+@Service
+public class KeywordIndexServiceImpl implements KeywordIndexService {
+
+    private static final String EXECUTOR_NAME = "keyword-index";
+
+    private static final int CHUNK_SIZE = 5000;
+
+    /** 正在使用的索引，首次加载完成前没有 */
+    private final Map<Category, NgramIndex> indexes = new ConcurrentHashMap<>();
+
+    /** 正在构建的索引 */
+    private final Map<Category, NgramIndex> building = new ConcurrentHashMap<>();
+
+    private final Map<Category, CompletableFuture<Void>> loads = new ConcurrentHashMap<>();
+
+    private final KeywordDocumentRepository keywordDocumentRepository;
+
+    private final ThreadPoolExecutor executor;
+
+    public KeywordIndexServiceImpl(KeywordDocumentRepository keywordDocumentRepository,
+                                   @Value("${lfs.search.threads:0}") int threads) {
+        this.keywordDocumentRepository = keywordDocumentRepository;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(EXECUTOR_NAME + "-");
+        threadFactory.setDaemon(true);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // 加载完成后线程空闲回收
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        for (Category category : Category.values()) {
+            load(category);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public <T> Page<T> search(Category category, String keyword, Pageable pageable,
+                              Function<List<Long>, List<T>> loader, Function<T, Long> idGetter) {
+        load(category);
+        NgramIndex index = indexes.get(category);
+        if (index == null) {
+            throw new PiscesException(HttpStatus.SERVICE_UNAVAILABLE, "搜索索引正在加载，请稍后再试");
+        }
+        int[] ids = index.search(keyword);
+        if (ids == null) {
+            throw new PiscesException(HttpStatus.BAD_REQUEST, "关键字不能为空");
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+        if (from == to) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ids.length);
+        }
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add((long) ids[i]);
+        }
+        List<T> content = new ArrayList<>(loader.apply(pageIds));
+        content.sort(Comparator.comparing(idGetter));
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
+    @Override
+    public void indexUser(AuthUser authUser) {
+        put(Category.USER, authUser.getId(), authUser.getUsername(), authUser.getNickName(),
+                authUser.getEmail(), authUser.getPhone());
+    }
+
+    @Override
+    public void indexRole(AuthRole authRole) {
+        // 角色列表只展示未删除的角色
+        if (!Objects.equals(authRole.getDel(), 1)) {
+            remove(Category.ROLE, Collections.singletonList(authRole.getId()));
+            return;
+        }
+        put(Category.ROLE, authRole.getId(), authRole.getName());
+    }
+
+    @Override
+    public void indexMenu(AuthMenu authMenu) {
+        put(Category.MENU, authMenu.getId(), authMenu.getName(), authMenu.getTitle());
+    }
+
+    @Override
+    public void indexResource(AuthResource authResource) {
+        put(Category.RESOURCE, authResource.getId(), authResource.getName(), authResource.getUrl());
+    }
+
+    @Override
+    public void remove(Category category, Collection<Long> ids) {
+        List<Long> removed = new ArrayList<>(ids);
+        TransactionUtils.afterCommit(() -> update(category, index -> removed.stream().filter(Objects::nonNull).forEach(index::remove)));
+    }
+
+    @Override
+    public void refresh(Category category, Collection<Long> ids) {
+        Map<Long, String[]> found = new HashMap<>();
+        keywordDocumentRepository.find(category, ids, found::put);
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(found.keySet());
+        update(category, index -> {
+            found.forEach(index::put);
+            missing.forEach(index::remove);
+        });
+    }
+
+    @Override
+    public void reload(Category category) {
+        loads.compute(category, (c, current) -> {
+            // 正在加载时不重复加载，加载中读取的数据可能早于这次变更，加载完成后再重新加载一次
+            if (current != null && !current.isDone()) {
+                return current.handle((v, e) -> null).thenCompose(v -> startLoad(c));
+            }
+            return startLoad(c);
+        });
+    }
+
+    private void put(Category category, Long id, String... fields) {
+        if (id == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> update(category, index -> index.put(id, fields)));
+    }
+
+    /**
+     * 变更同时写入正在使用和正在构建的索引。加载完成时先替换再移除构建中的索引，变更不会在替换时丢失
+     */
+    private void update(Category category, Consumer<NgramIndex> action) {
+        NgramIndex next = building.get(category);
+        if (next != null) {
+            action.accept(next);
+        }
+        NgramIndex current = indexes.get(category);
+        if (current != null && current != next) {
+            action.accept(current);
+        }
+    }
+
+    private CompletableFuture<Void> load(Category category) {
+        return loads.compute(category, (c, current) ->
+                current != null && !current.isCompletedExceptionally() ? current : startLoad(c));
+    }
+
+    /**
+     * 读取在加载线程中顺序执行，每块数据交给线程池构建索引段，索引段按读取顺序合并，倒排表始终按id追加。
+     * 全部合并后替换正在使用的索引
+     */
+    private CompletableFuture<Void> startLoad(Category category) {
+        NgramIndex index = new NgramIndex();
+        building.put(category, index);
+        long start = System.currentTimeMillis();
+        return CompletableFuture.supplyAsync(() -> {
+            CompletableFuture<Void> merged = CompletableFuture.completedFuture(null);
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = new ArrayList<>(CHUNK_SIZE);
+                List<String[]> fields = new ArrayList<>(CHUNK_SIZE);
+                Long lastId = keywordDocumentRepository.scan(category, afterId, CHUNK_SIZE, (id, values) -> {
+                    ids.add(id);
+                    fields.add(values);
+                });
+                if (lastId == null) {
+                    return merged;
+                }
+                CompletableFuture<NgramIndex.Segment> segment = CompletableFuture.supplyAsync(() -> {
+                    NgramIndex.Segment built = new NgramIndex.Segment();
+                    for (int i = 0; i < ids.size(); i++) {
+                        built.add(ids.get(i), fields.get(i));
+                    }
+                    return built;
+                }, executor);
+                merged = merged.thenCombine(segment, (v, built) -> {
+                    index.merge(built);
+                    return null;
+                });
+                if (ids.size() < CHUNK_SIZE) {
+                    return merged;
+                }
+                afterId = lastId;
+            }
+        }, executor).thenCompose(Function.identity()).whenComplete((v, e) -> {
+            if (e != null) {
+                building.remove(category, index);
+                log.error("加载 {} 搜索索引失败", category, e);
+                return;
+            }
+            index.compact();
+            indexes.put(category, index);
+            building.remove(category, index);
+            log.info("加载 {} 搜索索引完成：{} 条，耗时 {}ms", category, index.size(), System.currentTimeMillis() - start);
+        });
+    }
+
+}
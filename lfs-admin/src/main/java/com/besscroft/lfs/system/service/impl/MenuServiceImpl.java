@@ -1,22 +1,41 @@
 package com.besscroft.lfs.system.service.impl;
 
+import cn.hutool.core.util.StrUtil;
 import com.besscroft.lfs.entity.AuthMenu;
-import com.besscroft.lfs.model.MetaVo;
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.model.CursorSlice;
 import com.besscroft.lfs.model.RouterVo;
+import com.besscroft.lfs.system.component.InvalidationBus;
+import com.besscroft.lfs.system.component.RbacCacheEvictor;
+import com.besscroft.lfs.system.repository.ApproximateCountRepository;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
 import com.besscroft.lfs.system.repository.MenuRepository;
+import com.besscroft.lfs.system.repository.RoleRelationRepository;
+import com.besscroft.lfs.system.repository.RoleRelationRepository.Relation;
+import com.besscroft.lfs.system.repository.RoleRepository;
+import com.besscroft.lfs.system.service.KeywordIndexService;
 import com.besscroft.lfs.system.service.MenuService;
+import com.besscroft.lfs.system.utils.MenuTreeBuilder;
+import com.besscroft.lfs.system.utils.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -28,25 +47,77 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MenuServiceImpl implements MenuService {
 
+    /** 合并后的路由树最多缓存的角色组合数量 */
+    private static final int ROLE_SET_LIMIT = 1024;
+
+    /** 与 findAllByUserId 一致按 sort 排序，sort 相同时按 id 排序 */
+    private static final Comparator<AuthMenu> MENU_ORDER = Comparator
+            .comparing(AuthMenu::getSort, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AuthMenu::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
     private final MenuRepository menuRepository;
+    private final ApproximateCountRepository approximateCountRepository;
+    private final KeywordIndexService keywordIndexService;
+    private final RbacCacheEvictor rbacCacheEvictor;
+    private final InvalidationBus invalidationBus;
+    private final RoleRepository roleRepository;
+    private final RoleRelationRepository roleRelationRepository;
+
+    /** 角色路由缓存，清空时整体替换 */
+    private volatile RouterCache routerCache = new RouterCache();
 
     @Override
     public List<RouterVo> getMenuList(Long userId) {
-        List<AuthMenu> menuList = menuRepository.findAllByUserId(userId);
-        List<AuthMenu> menus = getMenus(menuList);
-        log.info("menus:{}", menus);
-        return getRouter(menus);
+        List<Long> roleIds = roleRepository.selectRoleIdsByUserId(userId).stream()
+                .map(Number::longValue)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        if (roleIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 先取缓存引用再查询，查询期间缓存被清空时，旧数据只会写入已废弃的缓存
+        RouterCache cache = routerCache;
+        String roleSet = roleIds.toString();
+        List<RouterVo> routers = cache.routers.get(roleSet);
+        if (routers != null) {
+            return routers;
+        }
+        // 按菜单id合并各角色的菜单，再构建路由树
+        Map<Long, AuthMenu> merged = new HashMap<>();
+        for (Long roleId : roleIds) {
+            for (AuthMenu menu : cache.getRoleMenus(roleId, menuRepository::findAllByRoleId)) {
+                merged.putIfAbsent(menu.getId(), menu);
+            }
+        }
+        List<AuthMenu> menuList = new ArrayList<>(merged.values());
+        menuList.sort(MENU_ORDER);
+        routers = Collections.unmodifiableList(MenuTreeBuilder.buildRouters(menuList));
+        if (cache.routers.size() < ROLE_SET_LIMIT) {
+            cache.routers.putIfAbsent(roleSet, routers);
+        }
+        return routers;
     }
 
     @Override
     public List<AuthMenu> getMenuListById(Long adminId) {
         List<AuthMenu> authMenuList = menuRepository.findAllByUserId(adminId);
-        return getMenus(authMenuList);
+        return MenuTreeBuilder.buildMenus(authMenuList);
     }
 
     @Override
     public Page<AuthMenu> getMenuPageList(Integer pageNum, Integer pageSize, String keyword) {
-        return menuRepository.findAll(PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize));
+        PageRequest pageRequest = PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize);
+        if (StrUtil.isNotBlank(keyword)) {
+            return keywordIndexService.search(Category.MENU, keyword, pageRequest, menuRepository::findAllById, AuthMenu::getId);
+        }
+        return menuRepository.findAll(pageRequest);
+    }
+
+    @Override
+    public CursorSlice<AuthMenu> getMenuSlice(Long after, Integer pageSize, boolean withTotal) {
+        Slice<AuthMenu> slice = menuRepository.findByIdGreaterThan(after, PageRequest.of(0, pageSize, Sort.by("id")));
+        return CursorSlice.of(slice, AuthMenu::getId, withTotal ? approximateCountRepository.count("auth_menu", null) : null);
     }
 
     @Override
@@ -63,12 +134,20 @@ public class MenuServiceImpl implements MenuService {
     @Transactional(rollbackFor = Exception.class)
     public boolean updateMenu(AuthMenu authMenu) {
         menuRepository.save(authMenu);
+        keywordIndexService.indexMenu(authMenu);
+        // 菜单排序变化会影响关联查询结果的顺序
+        rbacCacheEvictor.evictRelations();
+        clearRouterCache();
+        invalidationBus.publish(ChangeEvent.Type.MENU, Collections.singletonList(authMenu.getId()));
         return true;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean changeSwitch(boolean hidden, Long id, Long adminId) {
+        rbacCacheEvictor.evictEntity(AuthMenu.class);
+        clearRouterCache();
+        invalidationBus.publish(ChangeEvent.Type.MENU, Collections.singletonList(id));
         if (hidden) {
             return menuRepository.changeSwitch(1, id) > 0;
         }
@@ -79,6 +158,10 @@ public class MenuServiceImpl implements MenuService {
     @Transactional(rollbackFor = Exception.class)
     public boolean delMenu(List<Long> ids) {
         menuRepository.deleteAllByIdInBatch(ids);
+        keywordIndexService.remove(Category.MENU, ids);
+        rbacCacheEvictor.evictRelations();
+        clearRouterCache();
+        invalidationBus.publish(ChangeEvent.Type.MENU, ids);
         return true;
     }
 
@@ -87,6 +170,9 @@ public class MenuServiceImpl implements MenuService {
     public boolean addMenu(AuthMenu authMenu) {
         authMenu.setCreateTime(LocalDateTime.now());
         menuRepository.save(authMenu);
+        keywordIndexService.indexMenu(authMenu);
+        clearRouterCache();
+        invalidationBus.publish(ChangeEvent.Type.MENU, Collections.singletonList(authMenu.getId()));
         return true;
     }
 
@@ -98,97 +184,43 @@ public class MenuServiceImpl implements MenuService {
     @Override
     public List<AuthMenu> getAllMenuTree() {
         List<AuthMenu> menuList = menuRepository.findAll();
-        return getMenus(menuList);
+        return MenuTreeBuilder.buildMenus(menuList);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean updateMenuTree(List<Long> menuIds, Long id) {
-        int i = menuRepository.deleteRoleMenuRelation(id);
-        if (i > 0) {
-            for (Long menuId : menuIds) {
-                menuRepository.insertRoleMenuRelation(menuId, id);
-            }
+        if (roleRelationRepository.sync(Relation.MENU, id, menuIds).isChanged()) {
+            rbacCacheEvictor.evictRelations();
+            clearRouterCache();
+            invalidationBus.publish(ChangeEvent.Type.RELATION, null);
         }
         return true;
     }
 
-    /**
-     * 菜单层级处理
-     * @param menuList
-     * @return
-     */
-    private List<AuthMenu> getMenus(List<AuthMenu> menuList) {
-        List<AuthMenu> parentMenus = menuList.stream().filter(menu -> menu.getParentId() == 0).collect(Collectors.toList());
-        List<AuthMenu> menus = menuList.stream().filter(menu -> menu.getParentId() != 0).collect(Collectors.toList());
-        parentMenus.forEach(menu -> {
-            List<AuthMenu> childMenu = getChildMenu(menu.getId(), menus);
-            menu.setChildren(childMenu);
-        });
-        return parentMenus;
+    @Override
+    public void clearRouterCache() {
+        TransactionUtils.nowAndAfterCommit(() -> routerCache = new RouterCache());
     }
 
     /**
-     * 菜单递归
-     * @param menuId 菜单id
-     * @param menuList 子菜单集合
-     * @return
+     * 角色路由缓存：角色id -> 角色菜单，排序后的角色id集合 -> 合并后的路由树
      */
-    private List<AuthMenu> getChildMenu(Long menuId, List<AuthMenu> menuList) {
-        List<AuthMenu> menus = menuList.stream().filter(menu -> menu.getParentId() == menuId).collect(Collectors.toList());
-        menus.forEach(menu -> {
-            List<AuthMenu> childMenu = getChildMenu(menu.getId(), menuList);
-            menu.setChildren(childMenu);
-        });
-        return menus;
-    }
+    private static final class RouterCache {
 
-    /**
-     * 获取路由信息
-     * @param menuList 菜单集合
-     * @return
-     */
-    private List<RouterVo> getRouter(List<AuthMenu> menuList) {
-        List<RouterVo> routerVoList = new LinkedList<>();
-        menuList.forEach(menuDto -> {
-            RouterVo routerVo = new RouterVo();
-            routerVo.setName(menuDto.getName());
-            routerVo.setPath(menuDto.getPath());
-            routerVo.setHidden(menuDto.getHidden() != 0);
-            routerVo.setComponent(menuDto.getComponent());
-            routerVo.setMeta(new MetaVo(menuDto.getTitle(), menuDto.getIcon(), false));
-            if (menuDto.getChildren().size() > 0 && !menuDto.getChildren().isEmpty()) {
-                routerVo.setAlwaysShow(true);
-                routerVo.setRedirect("noRedirect");
-                List<RouterVo> childRouter = getChildRouter(menuDto.getChildren());
-                routerVo.setChildren(childRouter);
-            }
-            routerVoList.add(routerVo);
-        });
-        return routerVoList;
-    }
+        private final Map<Long, List<AuthMenu>> roleMenus = new ConcurrentHashMap<>();
 
-    /**
-     * 子路由处理
-     * @param menuList 子菜单集合
-     * @return
-     */
-    private List<RouterVo> getChildRouter(List<AuthMenu> menuList) {
-        List<RouterVo> list = new ArrayList<>();
-        menuList.forEach(child -> {
-            RouterVo router = new RouterVo();
-            router.setPath(child.getPath());
-            router.setName(child.getName());
-            router.setComponent(child.getComponent());
-            router.setMeta(new MetaVo(child.getTitle(), child.getIcon(), false));
-            router.setHidden(child.getHidden() != 0);
-            if (child.getChildren().size() > 0 && !child.getChildren().isEmpty()) {
-                List<RouterVo> childRouter = getChildRouter(child.getChildren());
-                router.setChildren(childRouter);
+        private final Map<String, List<RouterVo>> routers = new ConcurrentHashMap<>();
+
+        private List<AuthMenu> getRoleMenus(Long roleId, Function<Long, List<AuthMenu>> loader) {
+            List<AuthMenu> menus = roleMenus.get(roleId);
+            if (menus == null) {
+                menus = Collections.unmodifiableList(loader.apply(roleId));
+                roleMenus.putIfAbsent(roleId, menus);
             }
-            list.add(router);
-        });
-        return list;
+            return menus;
+        }
+
     }
 
 }
@@ -1,19 +1,35 @@
 package com.besscroft.lfs.system.service.impl;
 
+import cn.hutool.core.util.StrUtil;
 import com.besscroft.lfs.entity.AuthResource;
 import com.besscroft.lfs.entity.AuthResourceSort;
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.model.CursorSlice;
 import com.besscroft.lfs.model.ResourceParam;
+import com.besscroft.lfs.security.component.DynamicSecurityMetadataSource;
+import com.besscroft.lfs.security.component.PrincipalCache;
+import com.besscroft.lfs.system.component.InvalidationBus;
+import com.besscroft.lfs.system.component.RbacCacheEvictor;
+import com.besscroft.lfs.system.repository.ApproximateCountRepository;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
 import com.besscroft.lfs.system.repository.ResourceRepository;
-import com.besscroft.lfs.system.repository.ResourceSortRepository;
+import com.besscroft.lfs.system.repository.RoleRelationRepository;
+import com.besscroft.lfs.system.repository.RoleRelationRepository.Relation;
+import com.besscroft.lfs.system.service.KeywordIndexService;
 import com.besscroft.lfs.system.service.ResourceService;
+import com.besscroft.lfs.system.utils.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -26,7 +42,17 @@ import java.util.Objects;
 public class ResourceServiceImpl implements ResourceService {
 
     private final ResourceRepository resourceRepository;
-    private final ResourceSortRepository resourceSortRepository;
+    private final ApproximateCountRepository approximateCountRepository;
+    private final KeywordIndexService keywordIndexService;
+    private final RbacCacheEvictor rbacCacheEvictor;
+    private final InvalidationBus invalidationBus;
+    private final RoleRelationRepository roleRelationRepository;
+    private final PrincipalCache principalCache;
+    /** 权限数据源由安全配置创建，而安全配置依赖用户服务，延迟获取避免循环依赖 */
+    private final ObjectProvider<DynamicSecurityMetadataSource> dynamicSecurityMetadataSource;
+
+    /** 资源树缓存，清空时整体替换 */
+    private volatile ResourceTreeCache resourceTreeCache = new ResourceTreeCache();
 
     @Override
     public List<AuthResource> getResourceList(Long userId) {
@@ -40,7 +66,17 @@ public class ResourceServiceImpl implements ResourceService {
 
     @Override
     public Page<AuthResource> getResourcePageList(Integer pageNum, Integer pageSize, String keyword) {
-        return resourceRepository.findAll(PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize));
+        PageRequest pageRequest = PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize);
+        if (StrUtil.isNotBlank(keyword)) {
+            return keywordIndexService.search(Category.RESOURCE, keyword, pageRequest, resourceRepository::findAllById, AuthResource::getId);
+        }
+        return resourceRepository.findAll(pageRequest);
+    }
+
+    @Override
+    public CursorSlice<AuthResource> getResourceSlice(Long after, Integer pageSize, boolean withTotal) {
+        Slice<AuthResource> slice = resourceRepository.findByIdGreaterThan(after, PageRequest.of(0, pageSize, Sort.by("id")));
+        return CursorSlice.of(slice, AuthResource::getId, withTotal ? approximateCountRepository.count("auth_resource", null) : null);
     }
 
     @Override
@@ -53,6 +89,10 @@ public class ResourceServiceImpl implements ResourceService {
     public boolean addResource(AuthResource authResource) {
         authResource.setCreateTime(LocalDateTime.now());
         resourceRepository.save(authResource);
+        keywordIndexService.indexResource(authResource);
+        reloadPermissions();
+        invalidationBus.publish(ChangeEvent.Type.RESOURCE, Collections.singletonList(authResource.getId()));
+        clearResourceTreeCache();
         return true;
     }
 
@@ -60,6 +100,11 @@ public class ResourceServiceImpl implements ResourceService {
     @Transactional(rollbackFor = Exception.class)
     public boolean updateResource(AuthResource authResource) {
         resourceRepository.save(authResource);
+        keywordIndexService.indexResource(authResource);
+        principalCache.invalidateAll();
+        reloadPermissions();
+        invalidationBus.publish(ChangeEvent.Type.RESOURCE, Collections.singletonList(authResource.getId()));
+        clearResourceTreeCache();
         return true;
     }
 
@@ -67,22 +112,44 @@ public class ResourceServiceImpl implements ResourceService {
     @Transactional(rollbackFor = Exception.class)
     public boolean delResource(List<Long> ids) {
         resourceRepository.deleteAllById(ids);
+        keywordIndexService.remove(Category.RESOURCE, ids);
+        rbacCacheEvictor.evictRelations();
+        principalCache.invalidateAll();
+        reloadPermissions();
+        invalidationBus.publish(ChangeEvent.Type.RESOURCE, ids);
+        clearResourceTreeCache();
         return true;
     }
 
     @Override
     public List<ResourceParam> getAllResourceTree() {
+        // 先取缓存引用再查询，查询期间缓存被清空时，旧数据只会写入已废弃的缓存
+        ResourceTreeCache cache = resourceTreeCache;
+        List<ResourceParam> tree = cache.tree;
+        if (tree != null) {
+            return tree;
+        }
+        // 结果按类别排序，一次遍历即可分组
         List<ResourceParam> list = new ArrayList<>();
-        List<AuthResourceSort> resourceSorts = resourceSortRepository.findAll();
-        resourceSorts.forEach(r -> {
-            ResourceParam resourceParam = new ResourceParam();
-            List<AuthResource> resources = resourceRepository.findAllByCategoryId(r.getId());
-            resourceParam.setName(r.getCategoryName());
-            resourceParam.setDisabled(true);
-            resourceParam.setChildren(resources);
-            list.add(resourceParam);
-        });
-        return list;
+        ResourceParam resourceParam = null;
+        Long categoryId = null;
+        for (Object[] row : resourceRepository.findAllGroupByCategory()) {
+            AuthResourceSort resourceSort = (AuthResourceSort) row[0];
+            if (resourceParam == null || !Objects.equals(categoryId, resourceSort.getId())) {
+                categoryId = resourceSort.getId();
+                resourceParam = new ResourceParam();
+                resourceParam.setName(resourceSort.getCategoryName());
+                resourceParam.setDisabled(true);
+                resourceParam.setChildren(new ArrayList<>());
+                list.add(resourceParam);
+            }
+            if (row[1] != null) {
+                resourceParam.getChildren().add((AuthResource) row[1]);
+            }
+        }
+        tree = Collections.unmodifiableList(list);
+        cache.tree = tree;
+        return tree;
     }
 
     @Override
@@ -93,12 +160,33 @@ public class ResourceServiceImpl implements ResourceService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean updateResourceTree(List<Long> resourceIds, Long id) {
-        int i = resourceRepository.deleteRoleResourceRelation(id);
-        if (i > 0) {
-            for (Long resourceId : resourceIds) {
-                resourceRepository.insertRoleResourceRelation(resourceId, id);
-            }
+        if (roleRelationRepository.sync(Relation.RESOURCE, id, resourceIds).isChanged()) {
+            rbacCacheEvictor.evictRelations();
+            principalCache.invalidateAll();
+            invalidationBus.publish(ChangeEvent.Type.RELATION, null);
         }
         return true;
     }
+
+    @Override
+    public void clearResourceTreeCache() {
+        TransactionUtils.nowAndAfterCommit(() -> resourceTreeCache = new ResourceTreeCache());
+    }
+
+    /**
+     * 资源路径变更提交后重新加载权限规则
+     */
+    private void reloadPermissions() {
+        TransactionUtils.afterCommit(() -> dynamicSecurityMetadataSource.ifAvailable(DynamicSecurityMetadataSource::reload));
+    }
+
+    /**
+     * 资源树缓存
+     */
+    private static final class ResourceTreeCache {
+
+        private volatile List<ResourceParam> tree;
+
+    }
+
 }
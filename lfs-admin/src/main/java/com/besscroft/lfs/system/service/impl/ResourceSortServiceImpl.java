@@ -1,7 +1,10 @@
 package com.besscroft.lfs.system.service.impl;
 
 import com.besscroft.lfs.entity.AuthResourceSort;
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.system.component.InvalidationBus;
 import com.besscroft.lfs.system.repository.ResourceSortRepository;
+import com.besscroft.lfs.system.service.ResourceService;
 import com.besscroft.lfs.system.service.ResourceSortService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -9,6 +12,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -22,6 +26,8 @@ import java.util.Objects;
 public class ResourceSortServiceImpl implements ResourceSortService {
 
     private final ResourceSortRepository resourceSortRepository;
+    private final ResourceService resourceService;
+    private final InvalidationBus invalidationBus;
 
     @Override
     public Page<AuthResourceSort> getResourcePageList(Integer pageNum, Integer pageSize, String keyword) {
@@ -37,6 +43,8 @@ public class ResourceSortServiceImpl implements ResourceSortService {
     public boolean addResourceSort(AuthResourceSort authResourceSort) {
         authResourceSort.setCreateTime(LocalDateTime.now());
         resourceSortRepository.save(authResourceSort);
+        resourceService.clearResourceTreeCache();
+        invalidationBus.publish(ChangeEvent.Type.RESOURCE_SORT, Collections.singletonList(authResourceSort.getId()));
         return true;
     }
 
@@ -44,12 +52,16 @@ public class ResourceSortServiceImpl implements ResourceSortService {
     public boolean updateResourceSort(AuthResourceSort authResourceSort) {
         authResourceSort.setCreateTime(LocalDateTime.now());
         resourceSortRepository.save(authResourceSort);
+        resourceService.clearResourceTreeCache();
+        invalidationBus.publish(ChangeEvent.Type.RESOURCE_SORT, Collections.singletonList(authResourceSort.getId()));
         return true;
     }
 
     @Override
     public boolean delResourceSort(List<Long> ids) {
         resourceSortRepository.deleteAllById(ids);
+        resourceService.clearResourceTreeCache();
+        invalidationBus.publish(ChangeEvent.Type.RESOURCE_SORT, ids);
         return true;
     }
 }
@@ -1,15 +1,28 @@
 package com.besscroft.lfs.system.service.impl;
 
+import cn.hutool.core.util.StrUtil;
 import com.besscroft.lfs.entity.AuthRole;
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.model.CursorSlice;
+import com.besscroft.lfs.security.component.PrincipalCache;
+import com.besscroft.lfs.system.component.InvalidationBus;
+import com.besscroft.lfs.system.component.RbacCacheEvictor;
+import com.besscroft.lfs.system.repository.ApproximateCountRepository;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
 import com.besscroft.lfs.system.repository.RoleRepository;
+import com.besscroft.lfs.system.service.KeywordIndexService;
+import com.besscroft.lfs.system.service.MenuService;
 import com.besscroft.lfs.system.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -22,6 +35,12 @@ import java.util.Objects;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final ApproximateCountRepository approximateCountRepository;
+    private final KeywordIndexService keywordIndexService;
+    private final RbacCacheEvictor rbacCacheEvictor;
+    private final InvalidationBus invalidationBus;
+    private final PrincipalCache principalCache;
+    private final MenuService menuService;
 
     @Override
     public List<AuthRole> listAll() {
@@ -30,7 +49,17 @@ public class RoleServiceImpl implements RoleService {
 
     @Override
     public Page<AuthRole> getRolePageList(Integer pageNum, Integer pageSize, String keyword) {
-        return roleRepository.findAll(PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize));
+        PageRequest pageRequest = PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize);
+        if (StrUtil.isNotBlank(keyword)) {
+            return keywordIndexService.search(Category.ROLE, keyword, pageRequest, roleRepository::findAllById, AuthRole::getId);
+        }
+        return roleRepository.findAll(pageRequest);
+    }
+
+    @Override
+    public CursorSlice<AuthRole> getRoleSlice(Long after, Integer pageSize, boolean withTotal) {
+        Slice<AuthRole> slice = roleRepository.findByDelAndIdGreaterThan(1, after, PageRequest.of(0, pageSize, Sort.by("id")));
+        return CursorSlice.of(slice, AuthRole::getId, withTotal ? approximateCountRepository.count("auth_role", "del = 1") : null);
     }
 
     @Override
@@ -46,6 +75,8 @@ public class RoleServiceImpl implements RoleService {
         // 设置时间
         authRole.setCreateTime(LocalDateTime.now());
         roleRepository.save(authRole);
+        keywordIndexService.indexRole(authRole);
+        invalidationBus.publish(ChangeEvent.Type.ROLE, Collections.singletonList(authRole.getId()));
         return true;
     }
 
@@ -55,6 +86,8 @@ public class RoleServiceImpl implements RoleService {
         // 设置时间
         authRole.setCreateTime(LocalDateTime.now());
         roleRepository.save(authRole);
+        keywordIndexService.indexRole(authRole);
+        invalidationBus.publish(ChangeEvent.Type.ROLE, Collections.singletonList(authRole.getId()));
         return true;
     }
 
@@ -62,12 +95,20 @@ public class RoleServiceImpl implements RoleService {
     @Transactional(rollbackFor = Exception.class)
     public boolean delRoleById(List<Long> ids) {
         roleRepository.deleteAllByIdInBatch(ids);
+        keywordIndexService.remove(Category.ROLE, ids);
+        rbacCacheEvictor.evictRelations();
+        principalCache.invalidateAll();
+        menuService.clearRouterCache();
+        invalidationBus.publish(ChangeEvent.Type.ROLE, ids);
         return true;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean changeSwitch(boolean status, Long id) {
+        principalCache.invalidateAll();
+        rbacCacheEvictor.evictEntity(AuthRole.class);
+        invalidationBus.publish(ChangeEvent.Type.ROLE, Collections.singletonList(id));
         if (status) {
             return roleRepository.changeSwitch(1, id) > 0;
         }
@@ -77,6 +118,9 @@ public class RoleServiceImpl implements RoleService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean updateRoleById(Long userId, Long roleId) {
+        principalCache.invalidateUser(userId);
+        rbacCacheEvictor.evictRelations();
+        invalidationBus.publish(ChangeEvent.Type.RELATION, Collections.singletonList(userId));
         // 先删除原有的
         int i = roleRepository.deleteUserRoleRelationById(userId);
         if (i > 0) {
@@ -1,25 +1,42 @@
 package com.besscroft.lfs.system.service.impl;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.json.JSONUtil;
+import cn.hutool.core.util.StrUtil;
 import com.alibaba.excel.EasyExcel;
-import com.besscroft.lfs.converter.UserConverterMapper;
-import com.besscroft.lfs.dto.AuthUserExcelDto;
+import com.besscroft.lfs.dto.AuthUserImportDto;
 import com.besscroft.lfs.entity.AuthResource;
 import com.besscroft.lfs.entity.AuthRole;
 import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.model.CursorSlice;
+import com.besscroft.lfs.model.UserImportResult;
+import com.besscroft.lfs.security.component.AuthorityVersions;
+import com.besscroft.lfs.security.component.LoginTimeRecorder;
+import com.besscroft.lfs.security.component.PasswordHasher;
+import com.besscroft.lfs.security.component.PrincipalCache;
 import com.besscroft.lfs.security.model.LFSUser;
+import com.besscroft.lfs.system.component.InvalidationBus;
+import com.besscroft.lfs.system.component.RbacCacheEvictor;
+import com.besscroft.lfs.system.repository.ApproximateCountRepository;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
+import com.besscroft.lfs.system.repository.UserBatchRepository;
 import com.besscroft.lfs.system.repository.UserRepository;
+import com.besscroft.lfs.system.service.KeywordIndexService;
 import com.besscroft.lfs.system.service.MenuService;
 import com.besscroft.lfs.system.service.ResourceService;
 import com.besscroft.lfs.system.service.UserService;
+import com.besscroft.lfs.system.utils.ChunkedReadListener;
+import com.besscroft.lfs.system.utils.UserExcelExporter;
 import com.besscroft.lfs.security.utils.JWTUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -28,16 +45,19 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -51,13 +71,27 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    /** 导入时每批处理的行数 */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final ApproximateCountRepository approximateCountRepository;
+    private final KeywordIndexService keywordIndexService;
+    private final RbacCacheEvictor rbacCacheEvictor;
+    private final InvalidationBus invalidationBus;
+    private final UserBatchRepository userBatchRepository;
     private final ResourceService resourceService;
     private final JWTUtils jwtUtils;
-    private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PrincipalCache principalCache;
+    private final AuthorityVersions authorityVersions;
+    private final PasswordHasher passwordHasher;
+    private final LoginTimeRecorder loginTimeRecorder;
 
     private final MenuService menuService;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // 先调用DAO层查询用户实体对象
@@ -66,10 +100,12 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         if (user == null) {
             throw new UsernameNotFoundException("用户名或密码错误");
         }
+        // 先取权限版本再查询权限集合，查询期间权限发生变更时，签发的token会被判定为过时
+        long authorityVersion = authorityVersions.issue(user.getId());
         // 查询权限集合
         List<AuthResource> resourceList = resourceService.getResourceList(user.getId());
         // 返回自定义的 UserDetail 对象
-        return new LFSUser(user, resourceList);
+        return new LFSUser(user, resourceList, authorityVersion);
     }
 
     @Override
@@ -78,8 +114,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         // 密码需要客户端加密后传递
         try {
             UserDetails userDetails = loadUserByUsername(username);
-            LOGGER.info("UserDetails:{}", JSONUtil.toJsonStr(userDetails));
-            if(!passwordEncoder.matches(password,userDetails.getPassword())){
+            LOGGER.debug("UserDetails:{}", userDetails.getUsername());
+            if(!passwordHasher.matches(password,userDetails.getPassword())){
                 throw new RuntimeException("密码不正确");
             }
             if(!userDetails.isEnabled()){
@@ -100,7 +136,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         String currentUserName;
         if (!(authentication instanceof AnonymousAuthenticationToken)) {
             currentUserName = authentication.getName();
-            log.info("currentUserName:{}", JSONUtil.toJsonStr(currentUserName));
+            log.debug("currentUserName:{}", currentUserName);
         } else {
             throw new RuntimeException("暂未登录或token已经过期");
         }
@@ -113,7 +149,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
+    @Transactional(readOnly = true)
     public Map<String, Object> getUserInfo() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         AuthUser currentAdmin = getCurrentAdminByUserName(username);
@@ -126,8 +162,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
             List<String> roles = roleList.stream().map(AuthRole::getName).collect(Collectors.toList());
             data.put("roles",roles);
         }
-        // 设置登录时间
-        setLoginTime(new Date(), currentAdmin.getId());
+        // 设置登录时间，延迟批量写入
+        loginTimeRecorder.record(currentAdmin.getId(), new Date());
         return data;
     }
 
@@ -137,19 +173,25 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public boolean setLoginTime(Date loginTime, Long id) {
-        return userRepository.updateLoginTime(loginTime, id) > 0;
+    public boolean logout(Long adminId, String headToken) {
+        boolean revoked = jwtUtils.revokeHeadToken(headToken);
+        log.info("用户退出登录:{}，token吊销:{}", adminId, revoked);
+        return revoked;
     }
 
     @Override
-    public boolean logout(Long adminId) {
-        return true;
+    public Page<AuthUser> getUserPageList(Integer pageNum, Integer pageSize, String keyword) {
+        PageRequest pageRequest = PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize);
+        if (StrUtil.isNotBlank(keyword)) {
+            return keywordIndexService.search(Category.USER, keyword, pageRequest, userRepository::findAllById, AuthUser::getId);
+        }
+        return userRepository.findAll(pageRequest);
     }
 
     @Override
-    public Page<AuthUser> getUserPageList(Integer pageNum, Integer pageSize, String keyword) {
-        return userRepository.findAll(PageRequest.of(Objects.equals(pageNum, 0) ? 0 : pageNum - 1, pageSize));
+    public CursorSlice<AuthUser> getUserSlice(Long after, Integer pageSize, boolean withTotal) {
+        Slice<AuthUser> slice = userRepository.findByIdGreaterThan(after, PageRequest.of(0, pageSize, Sort.by("id")));
+        return CursorSlice.of(slice, AuthUser::getId, withTotal ? approximateCountRepository.count("auth_user", null) : null);
     }
 
     @Override
@@ -161,6 +203,9 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     @Transactional(rollbackFor = Exception.class)
     public boolean updateUser(AuthUser authUser) {
         userRepository.save(authUser);
+        principalCache.invalidateUser(authUser.getId());
+        keywordIndexService.indexUser(authUser);
+        invalidationBus.publish(ChangeEvent.Type.USER, Collections.singletonList(authUser.getId()));
         return true;
     }
 
@@ -173,6 +218,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         } else {
             status = 0;
         }
+        principalCache.invalidateUser(id);
+        invalidationBus.publish(ChangeEvent.Type.USER, Collections.singletonList(id));
         return userRepository.changeSwitch(status, id) > 0;
     }
 
@@ -180,6 +227,11 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     @Transactional(rollbackFor = Exception.class)
     public boolean delUser(Long id) {
         userRepository.deleteById(id);
+        principalCache.invalidateUser(id);
+        keywordIndexService.remove(Category.USER, Collections.singletonList(id));
+        rbacCacheEvictor.evictRelations();
+        invalidationBus.publish(ChangeEvent.Type.USER, Collections.singletonList(id));
+        invalidationBus.publish(ChangeEvent.Type.RELATION, Collections.singletonList(id));
         return true;
     }
 
@@ -191,51 +243,164 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         // 设置用户登录时间与注册时间一致
         authUser.setLoginTime(LocalDateTime.now());
         // 加密密码
-        authUser.setPassword(new BCryptPasswordEncoder().encode(authUser.getPassword()));
+        authUser.setPassword(passwordHasher.encode(authUser.getPassword()));
         // 设置删除状态
         authUser.setDel(1);
         userRepository.save(authUser);
+        keywordIndexService.indexUser(authUser);
+        invalidationBus.publish(ChangeEvent.Type.USER, Collections.singletonList(authUser.getId()));
         return true;
     }
 
     @Override
     public void export(List<Long> ids, HttpServletResponse response) {
-        List<AuthUser> userList = userRepository.findAllById(ids);
-        if (CollUtil.isNotEmpty(userList)) {
-            List<AuthUserExcelDto> excelDtos = UserConverterMapper.INSTANCE.authUserToAuthUserExcelListDto(userList);
-            excelDtos.forEach(excelDto -> {
-                String status = excelDto.getStatus();
-                switch (status) {
-                    case "0":
-                        excelDto.setStatus("禁用");
-                        break;
-                    case "1":
-                        excelDto.setStatus("启用");
-                        break;
+        if (CollUtil.isEmpty(ids)) {
+            return;
+        }
+        try {
+            // 这里注意 有同学反应使用 swagger 会导致各种问题，请直接用浏览器或者用 postman
+            response.setContentType("application/vnd.ms-excel");
+            // 设置返回的数据编码
+            response.setCharacterEncoding("utf-8");
+            // 这里 URLEncoder.encode 可以防止中文乱码 当然和 easyexcel 没有关系
+            String fileName = URLEncoder.encode("用户信息", "UTF-8").replaceAll("\\+", "%20");
+            response.setHeader("Content-disposition", "attachment;filename*=utf-8''" + fileName + ".xlsx");
+            long rows = exportTo(ids, response.getOutputStream());
+            log.info("导出用户 {} 条", rows);
+        } catch (IOException e) {
+            log.error("excel 导出失败.", e);
+        }
+    }
+
+    @Override
+    public long exportTo(List<Long> ids, OutputStream outputStream) {
+        // 按id分块读取，每块写完后从持久化上下文中移除，内存占用与导出行数无关
+        Iterator<List<AuthUser>> chunks = UserExcelExporter.chunks(ids, chunk -> {
+            List<AuthUser> users = userRepository.findAllByIdInOrderByIdAsc(chunk);
+            users.forEach(entityManager::detach);
+            return users;
+        });
+        return UserExcelExporter.write(outputStream, chunks);
+    }
+
+    @Override
+    public UserImportResult importUsers(InputStream inputStream) {
+        UserImportResult result = new UserImportResult();
+        ChunkedReadListener<AuthUserImportDto> listener = new ChunkedReadListener<>(IMPORT_BATCH_SIZE,
+                (rows, users) -> importBatch(rows, users, result),
+                (row, message) -> {
+                    result.setTotal(result.getTotal() + 1);
+                    result.addError(row, null, message);
+                });
+        EasyExcel.read(inputStream, AuthUserImportDto.class, listener).sheet().doRead();
+        log.info("导入用户：读取 {} 行，成功 {} 行，失败 {} 行", result.getTotal(), result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * 导入一批用户，每批单独提交
+     */
+    private void importBatch(List<Integer> rows, List<AuthUserImportDto> users, UserImportResult result) {
+        result.setTotal(result.getTotal() + users.size());
+        // 用户名、邮箱、手机号都有唯一索引，先排除与数据库和本批次前面的行重复的行，避免整批写入失败
+        Set<String> existing = findExisting(users, AuthUserImportDto::getUsername, userRepository::findExistingUsernames);
+        Set<String> existingEmails = findExisting(users, AuthUserImportDto::getEmail, userRepository::findExistingEmails);
+        Set<String> existingPhones = findExisting(users, AuthUserImportDto::getPhone, userRepository::findExistingPhones);
+        List<Integer> validRows = new ArrayList<>();
+        List<AuthUser> validUsers = new ArrayList<>();
+        List<String> passwords = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < users.size(); i++) {
+            AuthUserImportDto user = users.get(i);
+            String username = StrUtil.trim(user.getUsername());
+            // 空邮箱、手机号按未填写处理，空字符串同样受唯一索引约束
+            String email = StrUtil.isBlank(user.getEmail()) ? null : user.getEmail().trim();
+            String phone = StrUtil.isBlank(user.getPhone()) ? null : user.getPhone().trim();
+            if (StrUtil.isBlank(username)) {
+                result.addError(rows.get(i), username, "用户名不能为空");
+            } else if (StrUtil.isBlank(user.getPassword())) {
+                result.addError(rows.get(i), username, "密码不能为空");
+            } else if (existing.contains(username)) {
+                result.addError(rows.get(i), username, "用户名已存在");
+            } else if (email != null && existingEmails.contains(email)) {
+                result.addError(rows.get(i), username, "邮箱已存在");
+            } else if (phone != null && existingPhones.contains(phone)) {
+                result.addError(rows.get(i), username, "手机号已存在");
+            } else {
+                // 本批次后面的行与这一行重复时同样跳过
+                existing.add(username);
+                if (email != null) {
+                    existingEmails.add(email);
                 }
-                String del = excelDto.getDel();
-                switch (del) {
-                    case "0":
-                        excelDto.setDel("已删除");
-                        break;
-                    case "1":
-                        excelDto.setDel("可用状态");
-                        break;
+                if (phone != null) {
+                    existingPhones.add(phone);
+                }
+                validRows.add(rows.get(i));
+                passwords.add(user.getPassword());
+                validUsers.add(AuthUser.builder()
+                        .username(username)
+                        .icon(user.getIcon())
+                        .email(email)
+                        .phone(phone)
+                        .nickName(user.getNickName())
+                        .note(user.getNote())
+                        .createTime(now)
+                        .loginTime(now)
+                        .status(1)
+                        .del(1)
+                        .build());
+            }
+        }
+        if (validUsers.isEmpty()) {
+            return;
+        }
+        // 密码在有界线程池中并行加密
+        List<String> encoded = passwordHasher.encodeAll(passwords);
+        for (int i = 0; i < validUsers.size(); i++) {
+            validUsers.get(i).setPassword(encoded.get(i));
+        }
+        try {
+            int[] counts = userBatchRepository.insertAll(validUsers);
+            List<String> inserted = new ArrayList<>(counts.length);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    // 检查之后其他请求写入了相同的用户名、邮箱或手机号
+                    result.addError(validRows.get(i), validUsers.get(i).getUsername(), "用户名、邮箱或手机号已存在");
+                } else {
+                    result.setSucceeded(result.getSucceeded() + 1);
+                    inserted.add(validUsers.get(i).getUsername());
                 }
-            });
-            try {
-                // 这里注意 有同学反应使用 swagger 会导致各种问题，请直接用浏览器或者用 postman
-                response.setContentType("application/vnd.ms-excel");
-                // 设置返回的数据编码
-                response.setCharacterEncoding("utf-8");
-                // 这里 URLEncoder.encode 可以防止中文乱码 当然和 easyexcel 没有关系
-                String fileName = URLEncoder.encode("用户信息", "UTF-8").replaceAll("\\+", "%20");
-                response.setHeader("Content-disposition", "attachment;filename*=utf-8''" + fileName + ".xlsx");
-                EasyExcel.write(response.getOutputStream(), AuthUserExcelDto.class).autoCloseStream(true).sheet("用户信息").doWrite(excelDtos);
-            } catch (IOException e) {
-                log.error("excel 导出失败.", e);
+            }
+            // 批量插入拿不到自增id，按用户名查回后加入搜索索引
+            if (!inserted.isEmpty()) {
+                List<AuthUser> insertedUsers = userRepository.findAllByUsernameIn(inserted);
+                insertedUsers.forEach(keywordIndexService::indexUser);
+                invalidationBus.publish(ChangeEvent.Type.USER,
+                        insertedUsers.stream().map(AuthUser::getId).collect(Collectors.toList()));
+            }
+        } catch (DataAccessException e) {
+            log.error("批量导入用户失败，第 {}-{} 行", validRows.get(0), validRows.get(validRows.size() - 1), e);
+            for (int i = 0; i < validUsers.size(); i++) {
+                result.addError(validRows.get(i), validUsers.get(i).getUsername(), "写入数据库失败");
             }
         }
     }
 
+    /**
+     * 查询本批次中已存在于数据库的值
+     * @param users 本批次用户
+     * @param getter 取值方法
+     * @param finder 按值集合查询已存在的值
+     * @return 已存在的值，可以继续加入本批次已使用的值
+     */
+    private static Set<String> findExisting(List<AuthUserImportDto> users, Function<AuthUserImportDto, String> getter,
+                                            Function<Set<String>, List<String>> finder) {
+        Set<String> values = users.stream()
+                .map(getter)
+                .filter(StrUtil::isNotBlank)
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        return values.isEmpty() ? new HashSet<>() : new HashSet<>(finder.apply(values));
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.besscroft.lfs.system.utils;
+
+/**
+ * HTTP Range 请求头解析，只支持单个字节范围
+ *
+ * 格式错误或包含多个范围的请求头按 RFC 7233 忽略，返回完整内容；
+ * 起始位置超出文件长度时返回 {@link #NOT_SATISFIABLE}，应响应 416。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 00:05
+ */
+public final class ByteRange {
+
+    /** 范围无法满足 */
+    public static final ByteRange NOT_SATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    /** 起始位置，包含 */
+    private final long start;
+
+    /** 结束位置，包含 */
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * 解析 Range 请求头
+     * @param header Range 请求头
+     * @param length 文件长度
+     * @return 字节范围，null 表示返回完整内容
+     */
+    public static ByteRange parse(String header, long length) {
+        if (header == null || !header.startsWith(BYTES_UNIT)) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // bytes=-n：最后 n 个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return suffix < 0 ? null : NOT_SATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return NOT_SATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, length - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+}
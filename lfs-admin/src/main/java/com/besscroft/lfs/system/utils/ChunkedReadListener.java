@@ -0,0 +1,79 @@
+package com.besscroft.lfs.system.utils;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.alibaba.excel.exception.ExcelDataConvertException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Excel 分块读取监听器
+ *
+ * EasyExcel 逐行解析，这里攒够一块再交给处理方，内存中只保留当前块。
+ * 单元格转换失败的行交给错误处理方，继续读取后面的行。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 00:35
+ */
+public class ChunkedReadListener<T> extends AnalysisEventListener<T> {
+
+    private final int chunkSize;
+
+    /** 处理一块数据：Excel 行号（从 1 开始）、数据 */
+    private final BiConsumer<List<Integer>, List<T>> chunkHandler;
+
+    /** 处理转换失败的行：Excel 行号、失败原因 */
+    private final BiConsumer<Integer, String> errorHandler;
+
+    private List<Integer> rows;
+
+    private List<T> data;
+
+    public ChunkedReadListener(int chunkSize, BiConsumer<List<Integer>, List<T>> chunkHandler,
+                               BiConsumer<Integer, String> errorHandler) {
+        this.chunkSize = chunkSize;
+        this.chunkHandler = chunkHandler;
+        this.errorHandler = errorHandler;
+        this.rows = new ArrayList<>(chunkSize);
+        this.data = new ArrayList<>(chunkSize);
+    }
+
+    @Override
+    public void invoke(T item, AnalysisContext context) {
+        rows.add(context.readRowHolder().getRowIndex() + 1);
+        data.add(item);
+        if (data.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        flush();
+    }
+
+    @Override
+    public void onException(Exception exception, AnalysisContext context) throws Exception {
+        if (exception instanceof ExcelDataConvertException) {
+            ExcelDataConvertException convertException = (ExcelDataConvertException) exception;
+            errorHandler.accept(convertException.getRowIndex() + 1,
+                    "第 " + (convertException.getColumnIndex() + 1) + " 列格式错误");
+            return;
+        }
+        throw exception;
+    }
+
+    private void flush() {
+        if (data.isEmpty()) {
+            return;
+        }
+        List<Integer> chunkRows = rows;
+        List<T> chunkData = data;
+        rows = new ArrayList<>(chunkSize);
+        data = new ArrayList<>(chunkSize);
+        chunkHandler.accept(chunkRows, chunkData);
+    }
+
+}
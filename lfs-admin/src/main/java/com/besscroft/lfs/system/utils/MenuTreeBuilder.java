@@ -0,0 +1,189 @@
+package com.besscroft.lfs.system.utils;
+
+import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.model.MetaVo;
+import com.besscroft.lfs.model.RouterVo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 菜单树构建
+ *
+ * 一次遍历按 parentId 建立子节点索引（long 为键的开放寻址表 + 数组链表，不装箱），再自顶向下组装，整体 O(n)。
+ * 输出与原先逐层过滤的实现一致：父级id为 0 的菜单为顶级菜单，同级菜单保持查询顺序，挂不到顶级菜单下的菜单被忽略。
+ * 菜单数据出现环时，环上重复出现的节点会被跳过。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 20:40
+ */
+public final class MenuTreeBuilder {
+
+    /** 顶级菜单的父级id */
+    private static final long ROOT_PARENT_ID = 0L;
+
+    private static final String NO_REDIRECT = "noRedirect";
+
+    private final List<AuthMenu> menus;
+
+    /** parentId -> 第一个子节点下标 */
+    private final LongIntMap firstChild;
+
+    /** 同一父节点下的下一个子节点下标，-1 表示没有 */
+    private final int[] nextSibling;
+
+    /** 当前构建路径上的节点，用于跳过环 */
+    private final boolean[] onPath;
+
+    private MenuTreeBuilder(List<AuthMenu> menus) {
+        this.menus = menus;
+        int size = menus.size();
+        this.firstChild = new LongIntMap(size);
+        this.nextSibling = new int[size];
+        this.onPath = new boolean[size];
+        // 倒序头插，链表中的顺序即为原列表顺序
+        for (int i = size - 1; i >= 0; i--) {
+            Long parentId = menus.get(i).getParentId();
+            if (parentId == null) {
+                nextSibling[i] = -1;
+                continue;
+            }
+            nextSibling[i] = firstChild.get(parentId);
+            firstChild.put(parentId, i);
+        }
+    }
+
+    /**
+     * 构建前端路由树
+     * @param menuList 菜单集合
+     * @return 顶级路由集合
+     */
+    public static List<RouterVo> buildRouters(List<AuthMenu> menuList) {
+        if (menuList == null || menuList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        MenuTreeBuilder builder = new MenuTreeBuilder(menuList);
+        List<RouterVo> routers = new ArrayList<>();
+        for (int i = builder.firstChild.get(ROOT_PARENT_ID); i >= 0; i = builder.nextSibling[i]) {
+            RouterVo router = builder.toRouter(i);
+            if (router.getChildren() != null) {
+                router.setAlwaysShow(true);
+                router.setRedirect(NO_REDIRECT);
+            }
+            routers.add(router);
+        }
+        return routers;
+    }
+
+    /**
+     * 构建菜单树，会设置每个可达菜单的 children
+     * @param menuList 菜单集合
+     * @return 顶级菜单集合
+     */
+    public static List<AuthMenu> buildMenus(List<AuthMenu> menuList) {
+        if (menuList == null || menuList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        MenuTreeBuilder builder = new MenuTreeBuilder(menuList);
+        List<AuthMenu> roots = new ArrayList<>();
+        for (int i = builder.firstChild.get(ROOT_PARENT_ID); i >= 0; i = builder.nextSibling[i]) {
+            roots.add(builder.toMenu(i));
+        }
+        return roots;
+    }
+
+    private RouterVo toRouter(int index) {
+        AuthMenu menu = menus.get(index);
+        RouterVo router = new RouterVo();
+        router.setName(menu.getName());
+        router.setPath(menu.getPath());
+        router.setHidden(menu.getHidden() != null && menu.getHidden() != 0);
+        router.setComponent(menu.getComponent());
+        router.setMeta(new MetaVo(menu.getTitle(), menu.getIcon(), false));
+        Long id = menu.getId();
+        // 顶级菜单只会出现在第一层
+        int child = id == null || id == ROOT_PARENT_ID ? -1 : firstChild.get(id);
+        if (child >= 0) {
+            onPath[index] = true;
+            List<RouterVo> children = new ArrayList<>();
+            for (; child >= 0; child = nextSibling[child]) {
+                if (!onPath[child]) {
+                    children.add(toRouter(child));
+                }
+            }
+            onPath[index] = false;
+            if (!children.isEmpty()) {
+                router.setChildren(children);
+            }
+        }
+        return router;
+    }
+
+    private AuthMenu toMenu(int index) {
+        AuthMenu menu = menus.get(index);
+        Long id = menu.getId();
+        // 顶级菜单只会出现在第一层
+        int child = id == null || id == ROOT_PARENT_ID ? -1 : firstChild.get(id);
+        List<AuthMenu> children = new ArrayList<>();
+        if (child >= 0) {
+            onPath[index] = true;
+            for (; child >= 0; child = nextSibling[child]) {
+                if (!onPath[child]) {
+                    children.add(toMenu(child));
+                }
+            }
+            onPath[index] = false;
+        }
+        menu.setChildren(children);
+        return menu;
+    }
+
+    /**
+     * long -> int 开放寻址哈希表，值为 -1 表示不存在
+     */
+    private static final class LongIntMap {
+
+        private final long[] keys;
+
+        private final int[] values;
+
+        private final int mask;
+
+        private LongIntMap(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(values, -1);
+        }
+
+        private int get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                if (values[slot] < 0) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+        }
+
+        private void put(long key, int value) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                if (values[slot] < 0 || keys[slot] == key) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    return;
+                }
+            }
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+    }
+
+}
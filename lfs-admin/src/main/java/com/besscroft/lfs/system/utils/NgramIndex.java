@@ -0,0 +1,339 @@
+package com.besscroft.lfs.system.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存倒排索引，按二元组（相邻两个字符）索引文档的各个字段，用于关键字包含匹配
+ *
+ * 关键字拆成二元组后对倒排表求交集，再用原文校验，结果与 {@code like '%keyword%'} 一致（忽略大小写）。
+ * 单个字符的关键字无法拆出二元组，直接扫描原文。
+ * 倒排表为升序 int 数组，按id顺序追加时不需要移动元素。读多写少，读写锁保护。
+ * 批量加载时可以在多个线程中分别构建 {@link Segment}，再调用 {@link #merge(Segment)} 合并。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 01:50
+ */
+public class NgramIndex {
+
+    private static final int GRAM = 2;
+
+    /** 字段分隔符，校验原文时关键字不会跨字段匹配 */
+    private static final char FIELD_SEPARATOR = '\n';
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, IntList> postings = new HashMap<>();
+
+    /** 文档id -> 规范化后的原文 */
+    private final Map<Integer, String> documents = new HashMap<>();
+
+    /**
+     * 新增或更新文档
+     * @param id 文档id
+     * @param fields 需要索引的字段，null 忽略
+     */
+    public void put(long id, String... fields) {
+        int key = toKey(id);
+        String text = normalize(fields);
+        lock.writeLock().lock();
+        try {
+            String old = documents.get(key);
+            if (text.equals(old)) {
+                return;
+            }
+            if (old != null) {
+                unindex(key, old);
+            }
+            documents.put(key, text);
+            for (String gram : grams(text)) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档
+     * @param id 文档id
+     */
+    public void remove(long id) {
+        int key = toKey(id);
+        lock.writeLock().lock();
+        try {
+            String old = documents.remove(key);
+            if (old != null) {
+                unindex(key, old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 合并批量构建的文档段。索引中已存在的文档说明在加载期间被更新过，保留索引中的版本
+     * @param segment 文档段
+     */
+    public void merge(Segment segment) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> skipped = new HashSet<>();
+            for (int i = 0; i < segment.ids.size(); i++) {
+                int key = segment.ids.get(i);
+                if (documents.putIfAbsent(key, segment.texts.get(i)) != null) {
+                    skipped.add(key);
+                }
+            }
+            segment.postings.forEach((gram, ids) -> {
+                IntList target = postings.computeIfAbsent(gram, g -> new IntList());
+                for (int i = 0; i < ids.size; i++) {
+                    if (skipped.isEmpty() || !skipped.contains(ids.data[i])) {
+                        target.add(ids.data[i]);
+                    }
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 释放倒排表扩容预留的空间，批量加载完成后调用
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(IntList::trim);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询包含关键字的文档
+     * @param keyword 关键字，忽略大小写和首尾空白
+     * @return 升序文档id，关键字为空时返回 null
+     */
+    public int[] search(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return null;
+        }
+        String query = keyword.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Set<String> grams = grams(query);
+            if (grams.isEmpty()) {
+                return scan(query);
+            }
+            List<IntList> lists = new ArrayList<>();
+            for (String gram : grams) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    return EMPTY;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int[] candidates = Arrays.copyOf(lists.get(0).data, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = retain(candidates, count, lists.get(i));
+            }
+            // 二元组全部命中不代表原文连续包含关键字，用原文校验
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                if (documents.get(candidates[i]).contains(query)) {
+                    candidates[matched++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 文档数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] scan(String query) {
+        int[] ids = new int[16];
+        int count = 0;
+        for (Map.Entry<Integer, String> entry : documents.entrySet()) {
+            if (entry.getValue().contains(query)) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = entry.getKey();
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * 保留候选集中同时出现在倒排表中的id，两者都升序。
+     * 候选集远小于倒排表时用二分查找跳过，规模接近时顺序归并
+     */
+    private static int retain(int[] candidates, int count, IntList list) {
+        int kept = 0;
+        int from = 0;
+        boolean gallop = (long) count * 16 < list.size;
+        for (int i = 0; i < count && from < list.size; i++) {
+            int candidate = candidates[i];
+            if (gallop) {
+                int index = Arrays.binarySearch(list.data, from, list.size, candidate);
+                from = index >= 0 ? index : -index - 1;
+            } else {
+                while (from < list.size && list.data[from] < candidate) {
+                    from++;
+                }
+            }
+            if (from < list.size && list.data[from] == candidate) {
+                candidates[kept++] = candidate;
+                from++;
+            }
+        }
+        return kept;
+    }
+
+    private void unindex(int key, String text) {
+        for (String gram : grams(text)) {
+            IntList list = postings.get(gram);
+            if (list != null && list.remove(key) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static int toKey(long id) {
+        // 数据库主键为 int4
+        return Math.toIntExact(id);
+    }
+
+    private static String normalize(String... fields) {
+        StringBuilder builder = new StringBuilder();
+        for (String field : fields) {
+            if (field == null || field.trim().isEmpty()) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(FIELD_SEPARATOR);
+            }
+            builder.append(field.trim().toLowerCase(Locale.ROOT));
+        }
+        return builder.toString();
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM);
+            if (gram.indexOf(FIELD_SEPARATOR) < 0) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * 批量构建的文档段，只在构建线程中使用，不是线程安全的
+     */
+    public static final class Segment {
+
+        private final List<Integer> ids = new ArrayList<>();
+
+        private final List<String> texts = new ArrayList<>();
+
+        private final Map<String, IntList> postings = new HashMap<>();
+
+        /**
+         * 添加文档，同一个段内按id升序添加
+         * @param id 文档id
+         * @param fields 需要索引的字段，null 忽略
+         */
+        public void add(long id, String... fields) {
+            int key = toKey(id);
+            String text = normalize(fields);
+            ids.add(key);
+            texts.add(text);
+            for (String gram : grams(text)) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(key);
+            }
+        }
+
+        public int size() {
+            return ids.size();
+        }
+
+    }
+
+    /**
+     * 升序 int 数组
+     */
+    private static final class IntList {
+
+        private int[] data = new int[4];
+
+        private int size;
+
+        void add(int value) {
+            if (size > 0 && value <= data[size - 1]) {
+                int index = Arrays.binarySearch(data, 0, size, value);
+                if (index >= 0) {
+                    return;
+                }
+                insert(-index - 1, value);
+                return;
+            }
+            insert(size, value);
+        }
+
+        boolean remove(int value) {
+            int index = Arrays.binarySearch(data, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(data, index + 1, data, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        void trim() {
+            if (data.length > size) {
+                data = Arrays.copyOf(data, size);
+            }
+        }
+
+        private void insert(int index, int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, Math.max(4, size + (size >> 1)));
+            }
+            System.arraycopy(data, index, data, index + 1, size - index);
+            data[index] = value;
+            size++;
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.besscroft.lfs.system.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交后执行
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 13:30
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * 当前事务提交后执行，不在事务中时立即执行
+     * @param action 要执行的操作
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 立即执行，在事务中时提交后再执行一次。用于清空缓存：事务提交前其他请求可能读到旧数据并写入新缓存
+     * @param action 要执行的操作
+     */
+    public static void nowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(action);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.besscroft.lfs.system.utils;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.besscroft.lfs.converter.UserConverterMapper;
+import com.besscroft.lfs.dto.AuthUserExcelDto;
+import com.besscroft.lfs.entity.AuthUser;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * 用户 Excel 流式导出
+ *
+ * 用户按块读取、转换后立即追加到同一个 sheet，EasyExcel 写 xlsx 时只在内存中保留最近的行，
+ * 所以导出占用的内存只与块大小有关，与总行数无关。
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 23:00
+ */
+public final class UserExcelExporter {
+
+    /** 每块读取的用户数 */
+    public static final int CHUNK_SIZE = 1000;
+
+    public static final String SHEET_NAME = "用户信息";
+
+    private UserExcelExporter() {
+    }
+
+    /**
+     * 逐块写入用户数据
+     * @param outputStream 输出流，写完后关闭
+     * @param chunks 用户数据块
+     * @return 写入的行数
+     */
+    public static long write(OutputStream outputStream, Iterator<List<AuthUser>> chunks) {
+        ExcelWriter excelWriter = EasyExcel.write(outputStream, AuthUserExcelDto.class).autoCloseStream(true).build();
+        long rows = 0;
+        try {
+            WriteSheet writeSheet = EasyExcel.writerSheet(SHEET_NAME).build();
+            // 没有数据时也写出表头
+            excelWriter.write(new ArrayList<>(), writeSheet);
+            while (chunks.hasNext()) {
+                List<AuthUser> users = chunks.next();
+                List<AuthUserExcelDto> excelDtos = new ArrayList<>(users.size());
+                users.forEach(user -> excelDtos.add(toExcelDto(user)));
+                excelWriter.write(excelDtos, writeSheet);
+                rows += excelDtos.size();
+            }
+        } finally {
+            excelWriter.finish();
+        }
+        return rows;
+    }
+
+    /**
+     * 按id顺序分块读取用户，每块最多 {@link #CHUNK_SIZE} 个id
+     * @param ids 用户id，重复和 null 会被忽略
+     * @param loader 根据一块id查询用户，结果按id排序
+     * @return 用户数据块
+     */
+    public static Iterator<List<AuthUser>> chunks(Collection<Long> ids, Function<List<Long>, List<AuthUser>> loader) {
+        TreeSet<Long> sortedIds = new TreeSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(sortedIds::add);
+        Iterator<Long> idIterator = sortedIds.iterator();
+        return new Iterator<List<AuthUser>>() {
+            @Override
+            public boolean hasNext() {
+                return idIterator.hasNext();
+            }
+
+            @Override
+            public List<AuthUser> next() {
+                if (!idIterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Long> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (idIterator.hasNext() && chunk.size() < CHUNK_SIZE) {
+                    chunk.add(idIterator.next());
+                }
+                return loader.apply(chunk);
+            }
+        };
+    }
+
+    /**
+     * 转换为导出对象，状态转为中文描述
+     */
+    public static AuthUserExcelDto toExcelDto(AuthUser user) {
+        AuthUserExcelDto excelDto = UserConverterMapper.INSTANCE.authUserToAuthUserExcelDto(user);
+        switch (excelDto.getStatus()) {
+            case "0":
+                excelDto.setStatus("禁用");
+                break;
+            case "1":
+                excelDto.setStatus("启用");
+                break;
+        }
+        switch (excelDto.getDel()) {
+            case "0":
+                excelDto.setDel("已删除");
+                break;
+            case "1":
+                excelDto.setDel("可用状态");
+                break;
+        }
+        return excelDto;
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.besscroft.lfs.benchmark;
+
+import com.besscroft.lfs.security.utils.JWTUtils;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * token 刷新、校验基准测试：旧的多次验签流程 vs 单次解析流程
+ *
+ * 旧流程按原实现的调用顺序逐次验签：刷新 3 次，校验 2 次；新流程都只验签 1 次。
+ * 运行方式：mvn test -Dtest=JWTUtilsBenchmark -Dbenchmark=true
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 16:55
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JWTUtilsBenchmark {
+
+    private static final String TOKEN_HEAD = "Bearer ";
+
+    private static final int WARMUP = 20_000;
+
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    public void benchmark() {
+        CountingJWTUtils jwtUtils = new CountingJWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", "pisces-lfs");
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 604800L);
+        ReflectionTestUtils.setField(jwtUtils, "tokenHead", TOKEN_HEAD);
+        UserDetails userDetails = new User("admin", "", Collections.emptyList());
+        String token = jwtUtils.generateToken(userDetails);
+        String headToken = TOKEN_HEAD + token;
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += legacyRefresh(jwtUtils, headToken).length();
+            sink += jwtUtils.refreshHeadToken(headToken).length();
+            sink += legacyValidate(jwtUtils, token, userDetails) ? 1 : 0;
+            sink += jwtUtils.validateToken(token, userDetails) ? 1 : 0;
+        }
+
+        jwtUtils.parseCount.set(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += legacyRefresh(jwtUtils, headToken).length();
+        }
+        report("refresh legacy", start, jwtUtils, sink);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += jwtUtils.refreshHeadToken(headToken).length();
+        }
+        report("refresh single-parse", start, jwtUtils, sink);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += legacyValidate(jwtUtils, token, userDetails) ? 1 : 0;
+        }
+        report("validate legacy", start, jwtUtils, sink);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += jwtUtils.validateToken(token, userDetails) ? 1 : 0;
+        }
+        report("validate single-parse", start, jwtUtils, sink);
+    }
+
+    private static void report(String name, long start, CountingJWTUtils jwtUtils, long sink) {
+        double nanos = (System.nanoTime() - start) / (double) ITERATIONS;
+        double parses = jwtUtils.parseCount.getAndSet(0) / (double) ITERATIONS;
+        log.info("{}: {}ns/op, {} parse/op (sink={})", name, String.format("%.0f", nanos), parses, sink);
+    }
+
+    /**
+     * 原 refreshHeadToken：getClaimsFromToken、isTokenExpired、tokenRefreshJustBefore 各验签一次
+     */
+    private static String legacyRefresh(CountingJWTUtils jwtUtils, String oldToken) {
+        String token = oldToken.substring(TOKEN_HEAD.length());
+        Claims claims = jwtUtils.parse(token);
+        if (jwtUtils.parse(token).getExpiration().before(new Date())) {
+            return null;
+        }
+        Date created = jwtUtils.parse(token).get("created", Date.class);
+        Date refreshDate = new Date();
+        if (refreshDate.after(created) && refreshDate.before(new Date(created.getTime() + 30 * 60 * 1000L))) {
+            return token;
+        }
+        claims.put("created", refreshDate);
+        return jwtUtils.generateToken(claims);
+    }
+
+    /**
+     * 原 validateToken：getUserNameFromToken、isTokenExpired 各验签一次
+     */
+    private static boolean legacyValidate(CountingJWTUtils jwtUtils, String token, UserDetails userDetails) {
+        String username = jwtUtils.parse(token).getSubject();
+        return username.equals(userDetails.getUsername()) && !jwtUtils.parse(token).getExpiration().before(new Date());
+    }
+
+    private static class CountingJWTUtils extends JWTUtils {
+
+        private final AtomicLong parseCount = new AtomicLong();
+
+        @Override
+        protected Claims parseClaims(String token) {
+            parseCount.incrementAndGet();
+            return super.parseClaims(token);
+        }
+
+        private Claims parse(String token) {
+            return parseClaims(token);
+        }
+
+    }
+
+}
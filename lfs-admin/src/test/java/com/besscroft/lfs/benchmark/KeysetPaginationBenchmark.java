@@ -0,0 +1,109 @@
+package com.besscroft.lfs.benchmark;
+
+import com.besscroft.lfs.TestBase;
+import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.system.repository.UserBatchRepository;
+import com.besscroft.lfs.system.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 用户列表分页基准测试：页码分页 vs 游标分页，分别测第 1 页和第 5000 页
+ *
+ * 页码分页每次都执行 count 和 offset 扫描，页数越深越慢；游标分页走主键索引定位，深度不影响耗时。
+ * 测试数据在事务中写入，结束后回滚。
+ * 运行方式：mvn test -Dtest=KeysetPaginationBenchmark -Dbenchmark=true
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 01:30
+ */
+@Slf4j
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class KeysetPaginationBenchmark extends TestBase {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int DEEP_PAGE = 5000;
+
+    private static final int USERS = DEEP_PAGE * PAGE_SIZE + PAGE_SIZE;
+
+    private static final int WARMUP = 5;
+
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBatchRepository userBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void benchmark() {
+        seed();
+        jdbcTemplate.execute("analyze auth_user");
+        // 游标分页第 N 页的游标是第 N-1 页最后一条记录的id
+        Long deepCursor = jdbcTemplate.queryForObject("select id from auth_user order by id offset ? limit 1",
+                Long.class, (DEEP_PAGE - 1) * PAGE_SIZE - 1);
+
+        log.info("page=1 offset={}us/op keyset={}us/op", measure(() -> userService.getUserPageList(1, PAGE_SIZE, null).getContent()),
+                measure(() -> userService.getUserSlice(0L, PAGE_SIZE, false).getContent()));
+        log.info("page={} offset={}us/op keyset={}us/op", DEEP_PAGE,
+                measure(() -> userService.getUserPageList(DEEP_PAGE, PAGE_SIZE, null).getContent()),
+                measure(() -> userService.getUserSlice(deepCursor, PAGE_SIZE, false).getContent()));
+        log.info("page={} keyset+approximateTotal={}us/op", DEEP_PAGE,
+                measure(() -> userService.getUserSlice(deepCursor, PAGE_SIZE, true).getContent()));
+    }
+
+    private long measure(Supplier<List<AuthUser>> page) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += page.get().size();
+            entityManager.clear();
+        }
+        long nanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            sink += page.get().size();
+            nanos += System.nanoTime() - start;
+            entityManager.clear();
+        }
+        if (sink != (long) (WARMUP + ITERATIONS) * PAGE_SIZE) {
+            log.warn("返回条数不足一页：{}", sink);
+        }
+        return nanos / ITERATIONS / 1000;
+    }
+
+    private void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AuthUser> batch = new ArrayList<>(1000);
+        for (int i = 0; i < USERS; i++) {
+            batch.add(AuthUser.builder().username("keyset_bench_" + i).password("{noop}password").nickName("分页" + i)
+                    .createTime(now).status(1).del(1).build());
+            if (batch.size() == 1000) {
+                userBatchRepository.insertAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            userBatchRepository.insertAll(batch);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.besscroft.lfs.benchmark;
+
+import com.besscroft.lfs.exception.PiscesException;
+import com.besscroft.lfs.security.component.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 登录突发负载测试：模拟 Tomcat 请求线程池，在登录突发期间统计其他接口的响应延迟
+ *
+ * 对比 BCrypt 直接在请求线程上执行与交给 {@link PasswordHasher} 有界线程池执行两种情况。
+ * 运行方式：mvn test -Dtest=LoginBurstLoadTest -Dbenchmark=true
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 20:10
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LoginBurstLoadTest {
+
+    private static final int REQUEST_THREADS = 32;
+
+    private static final int LOGIN_REQUESTS = 400;
+
+    private static final int OTHER_REQUESTS = 400;
+
+    private static final String PASSWORD = "666666";
+
+    @Test
+    public void otherEndpointsStayResponsive() throws Exception {
+        String encoded = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        BCryptPasswordEncoder inlineEncoder = new BCryptPasswordEncoder();
+        long inlineP99 = run("inline", () -> inlineEncoder.matches(PASSWORD, encoded));
+
+        PasswordHasher passwordHasher = new PasswordHasher(2, 8, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        try {
+            long hasherP99 = run("password-hasher", () -> passwordHasher.matches(PASSWORD, encoded));
+            assertTrue(hasherP99 < inlineP99, "有界线程池下其他接口的 p99 延迟应低于直接执行");
+        } finally {
+            passwordHasher.shutdown();
+        }
+    }
+
+    /**
+     * 登录请求与其他请求交替提交到同一个请求线程池
+     * @return 其他请求的 p99 延迟（毫秒）
+     */
+    private long run(String name, Runnable login) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < Math.max(LOGIN_REQUESTS, OTHER_REQUESTS); i++) {
+            if (i < LOGIN_REQUESTS) {
+                futures.add(requestThreads.submit(() -> {
+                    try {
+                        login.run();
+                        succeeded.incrementAndGet();
+                    } catch (PiscesException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            if (i < OTHER_REQUESTS) {
+                long submitted = System.nanoTime();
+                futures.add(requestThreads.submit(() -> latencies.add((System.nanoTime() - submitted) / 1_000_000)));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        requestThreads.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2);
+        long p99 = sorted.get((int) (sorted.size() * 0.99) - 1);
+        log.info("{}: 其他接口 p50={}ms p99={}ms, 登录成功={} 拒绝={}, 总耗时={}ms",
+                name, p50, p99, succeeded.get(), rejected.get(), elapsed);
+        return p99;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.besscroft.lfs.benchmark;
+
+import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.model.MetaVo;
+import com.besscroft.lfs.model.RouterVo;
+import com.besscroft.lfs.system.utils.MenuTreeBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * 菜单树构建基准测试：逐层过滤 vs 一次索引
+ *
+ * 对照实现与原 MenuServiceImpl 相同，只是把 Long 的 == 换成 Objects.equals，保证两边构建出同样规模的树。
+ * 运行方式：mvn test -Dtest=MenuTreeBuilderBenchmark -Dbenchmark=true
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 21:20
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MenuTreeBuilderBenchmark {
+
+    private static final int WARMUP = 5;
+
+    private static final int ITERATIONS = 20;
+
+    @Test
+    public void benchmark() {
+        for (int size : new int[]{500, 5_000}) {
+            run(size);
+        }
+    }
+
+    private void run(int size) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += legacy(randomMenus(i, size)).size();
+            sink += MenuTreeBuilder.buildRouters(randomMenus(i, size)).size();
+        }
+        long legacyNanos = 0;
+        long builderNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<AuthMenu> menus = randomMenus(i, size);
+            long start = System.nanoTime();
+            sink += legacy(menus).size();
+            legacyNanos += System.nanoTime() - start;
+
+            menus = randomMenus(i, size);
+            start = System.nanoTime();
+            sink += MenuTreeBuilder.buildRouters(menus).size();
+            builderNanos += System.nanoTime() - start;
+        }
+        log.info("menus={} legacy={}us/op builder={}us/op (sink={})", size,
+                legacyNanos / ITERATIONS / 1000, builderNanos / ITERATIONS / 1000, sink);
+    }
+
+    private static List<AuthMenu> randomMenus(long seed, int size) {
+        Random random = new Random(seed);
+        List<AuthMenu> menus = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            long parentId = id <= 20 ? 0L : 1 + random.nextInt((int) id - 1);
+            menus.add(AuthMenu.builder().id(id).parentId(parentId).name("menu" + id).path("/menu/" + id)
+                    .title("菜单" + id).icon("icon" + id).component("component" + id).hidden(0)
+                    .children(new ArrayList<>()).build());
+        }
+        Collections.shuffle(menus, random);
+        return menus;
+    }
+
+    private static List<RouterVo> legacy(List<AuthMenu> menuList) {
+        List<AuthMenu> parentMenus = menuList.stream().filter(menu -> menu.getParentId() == 0).collect(Collectors.toList());
+        List<AuthMenu> menus = menuList.stream().filter(menu -> menu.getParentId() != 0).collect(Collectors.toList());
+        parentMenus.forEach(menu -> menu.setChildren(legacyChildMenu(menu.getId(), menus)));
+        return legacyRouter(parentMenus, true);
+    }
+
+    private static List<AuthMenu> legacyChildMenu(Long menuId, List<AuthMenu> menuList) {
+        List<AuthMenu> menus = menuList.stream().filter(menu -> Objects.equals(menu.getParentId(), menuId)).collect(Collectors.toList());
+        menus.forEach(menu -> menu.setChildren(legacyChildMenu(menu.getId(), menuList)));
+        return menus;
+    }
+
+    private static List<RouterVo> legacyRouter(List<AuthMenu> menuList, boolean root) {
+        List<RouterVo> list = new ArrayList<>();
+        menuList.forEach(menu -> {
+            RouterVo router = new RouterVo();
+            router.setName(menu.getName());
+            router.setPath(menu.getPath());
+            router.setHidden(menu.getHidden() != 0);
+            router.setComponent(menu.getComponent());
+            router.setMeta(new MetaVo(menu.getTitle(), menu.getIcon(), false));
+            if (!menu.getChildren().isEmpty()) {
+                if (root) {
+                    router.setAlwaysShow(true);
+                    router.setRedirect("noRedirect");
+                }
+                router.setChildren(legacyRouter(menu.getChildren(), false));
+            }
+            list.add(router);
+        });
+        return list;
+    }
+
+}
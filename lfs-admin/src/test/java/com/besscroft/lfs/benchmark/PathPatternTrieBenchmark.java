@@ -0,0 +1,95 @@
+package com.besscroft.lfs.benchmark;
+
+import com.besscroft.lfs.security.utils.PathPatternTrie;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 资源路径匹配基准测试：逐个 AntPathMatcher 匹配 vs 路径前缀树
+ *
+ * 运行方式：mvn test -Dtest=PathPatternTrieBenchmark -Dbenchmark=true
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 11:05
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PathPatternTrieBenchmark {
+
+    private static final int WARMUP = 20_000;
+
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    public void benchmark() {
+        for (int resources : new int[]{100, 1_000, 10_000}) {
+            run(resources);
+        }
+    }
+
+    private void run(int resources) {
+        Random random = new Random(resources);
+        List<String> patterns = new ArrayList<>(resources);
+        PathPatternTrie<String> trie = new PathPatternTrie<>();
+        for (int i = 0; i < resources; i++) {
+            String pattern = randomPattern(random, i);
+            patterns.add(pattern);
+            trie.insert(pattern, pattern);
+        }
+        String[] paths = new String[1024];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = patterns.get(random.nextInt(resources)).replace("**", "a/b").replace("{id}", "42").replace("*", "x");
+        }
+        PathMatcher pathMatcher = new AntPathMatcher();
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += linear(pathMatcher, patterns, paths[i & 1023]);
+            sink += trie.match(paths[i & 1023]).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS / 100; i++) {
+            sink += linear(pathMatcher, patterns, paths[i & 1023]);
+        }
+        double linearNanos = (System.nanoTime() - start) / (ITERATIONS / 100.0);
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += trie.match(paths[i & 1023]).size();
+        }
+        double trieNanos = (System.nanoTime() - start) / (double) ITERATIONS;
+        log.info("resources={} antPathMatcher={}ns/op trie={}ns/op (sink={})",
+                resources, String.format("%.0f", linearNanos), String.format("%.0f", trieNanos), sink);
+    }
+
+    private static int linear(PathMatcher pathMatcher, List<String> patterns, String path) {
+        int matched = 0;
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static String randomPattern(Random random, int index) {
+        String[] modules = {"user", "role", "menu", "resource", "resourceSort", "dept", "job", "dict"};
+        String module = modules[random.nextInt(modules.length)];
+        switch (random.nextInt(4)) {
+            case 0:
+                return "/" + module + "/op" + index + "/**";
+            case 1:
+                return "/" + module + "/op" + index + "/{id}";
+            case 2:
+                return "/" + module + "/*/op" + index;
+            default:
+                return "/" + module + "/op" + index;
+        }
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.besscroft.lfs.benchmark;
+
+import cn.hutool.core.lang.UUID;
+import cn.hutool.json.JSONUtil;
+import com.besscroft.lfs.annotation.WebLog;
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.system.aspectj.WebLogAspect;
+import com.besscroft.lfs.system.component.AuditLogWriter;
+import com.besscroft.lfs.system.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * web操作日志切面基准测试：原切面 vs 缓存方法信息、单条异步日志的切面
+ *
+ * 两个切面都通过 Spring AOP 代理调用同一个空接口，测量每次调用的额外开销。
+ * 原切面的日志按原配置同步写入根日志的追加器，新切面写入 log4j2.xml 中的异步追加器，
+ * 并把审计日志放入写入队列（批量写入替换为空操作，只测量请求线程的开销）。
+ * 运行方式：mvn test -Dtest=WebLogAspectBenchmark -Dbenchmark=true
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 05:10
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WebLogAspectBenchmark {
+
+    private static final int WARMUP = 5_000;
+
+    private static final int ITERATIONS = 20_000;
+
+    @AfterEach
+    public void reset() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void benchmark() throws InterruptedException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/role/update");
+        request.setRemoteAddr("127.0.0.1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        SampleController legacy = proxy(new LegacyWebLogAspect());
+        AuditLogWriter auditLogWriter = new AuditLogWriter(new NoopAuditLogRepository(), new SimpleMeterRegistry(),
+                true, true, 10000, 200, Duration.ofSeconds(1), Duration.ZERO);
+        auditLogWriter.start();
+        SampleController current = proxy(new WebLogAspect(512, auditLogWriter));
+        SampleController plain = new SampleController();
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", "管理员");
+        body.put("description", "系统管理员");
+        body.put("sort", 1);
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += legacy.update(1L, ids, body);
+            sink += current.update(1L, ids, body);
+            sink += plain.update(1L, ids, body);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += plain.update(1L, ids, body);
+        }
+        report("no aspect", start, sink);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += legacy.update(1L, ids, body);
+        }
+        report("legacy aspect", start, sink);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += current.update(1L, ids, body);
+        }
+        report("cached async aspect", start, sink);
+        auditLogWriter.shutdown();
+    }
+
+    private static SampleController proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleController());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    private static void report(String name, long start, long sink) {
+        double nanos = (System.nanoTime() - start) / (double) ITERATIONS;
+        log.info("{}: {}ns/op (sink={})", name, String.format("%.0f", nanos), sink);
+    }
+
+    private static class NoopAuditLogRepository extends AuditLogRepository {
+
+        private NoopAuditLogRepository() {
+            super(null);
+        }
+
+        @Override
+        public void insertAll(List<AuditLog> auditLogs) {
+        }
+
+    }
+
+    public static class SampleController {
+
+        @WebLog(description = "修改角色")
+        public int update(Long id, List<Long> ids, Map<String, Object> body) {
+            return ids.size() + body.size();
+        }
+
+    }
+
+    /**
+     * 原切面：每次调用反射查找注解，同步输出 8 行日志
+     */
+    @Aspect
+    public static class LegacyWebLogAspect {
+
+        private static final String KEY = "requestId";
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(LegacyWebLogAspect.class);
+
+        private static final String LINE_SEPARATOR = System.lineSeparator();
+
+        ThreadLocal<Long> START_TIME = new ThreadLocal<>();
+
+        @Pointcut("@annotation(com.besscroft.lfs.annotation.WebLog)")
+        public void webLog() {
+
+        }
+
+        @Around("webLog()")
+        public Object doAround(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+            START_TIME.set(System.currentTimeMillis());
+            Object result = proceedingJoinPoint.proceed();
+            LOGGER.info("Time Consuming:{}", System.currentTimeMillis() - START_TIME.get());
+            MDC.remove(KEY);
+            return result;
+        }
+
+        @Before("webLog()")
+        public void deBefore(JoinPoint joinPoint) throws Exception {
+            MDC.put(KEY, UUID.randomUUID().toString());
+            ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+            HttpServletRequest request = requestAttributes.getRequest();
+            String methodDescription = getAspectLogDescription(joinPoint);
+            LOGGER.info("================== Start ==================");
+            LOGGER.info("URL            :{}", request.getRequestURL().toString());
+            LOGGER.info("Description    :{}", methodDescription);
+            LOGGER.info("HTTP Method    :{}", request.getMethod());
+            LOGGER.info("Class Method   :{}.{}()", joinPoint.getSignature().getDeclaringTypeName(), joinPoint.getSignature().getName());
+            LOGGER.info("IP             :{}", request.getRemoteAddr());
+            LOGGER.info("Request Args   :{}", JSONUtil.toJsonStr(joinPoint.getArgs()));
+        }
+
+        @After("webLog()")
+        public void doAfter(JoinPoint joinPoint) {
+            LOGGER.info("================== End ==================" + LINE_SEPARATOR);
+        }
+
+        public String getAspectLogDescription(JoinPoint joinPoint) throws Exception {
+            String targetName = joinPoint.getTarget().getClass().getName();
+            String methodName = joinPoint.getSignature().getName();
+            Object[] arguments = joinPoint.getArgs();
+            Class<?> targetClass = Class.forName(targetName);
+            Method[] methods = targetClass.getMethods();
+            StringBuilder description = new StringBuilder("");
+            for (Method method : methods) {
+                if (method.getName().equals(methodName)) {
+                    Class[] clazzs = method.getParameterTypes();
+                    if (clazzs.length == arguments.length) {
+                        description.append(method.getAnnotation(WebLog.class).description());
+                        break;
+                    }
+                }
+            }
+            return description.toString();
+        }
+
+    }
+
+}
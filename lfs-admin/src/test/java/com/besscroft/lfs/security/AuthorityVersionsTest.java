@@ -0,0 +1,110 @@
+package com.besscroft.lfs.security;
+
+import com.besscroft.lfs.security.component.AuthorityVersions;
+import com.besscroft.lfs.security.component.PrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 权限版本测试：未开启时不访问序列，本实例变更提升版本，其他实例的变更只追平版本
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 12:10
+ */
+public class AuthorityVersionsTest {
+
+    @Test
+    public void disabledNeverTouchesSequence() {
+        SequenceJdbcTemplate sequence = new SequenceJdbcTemplate();
+        AuthorityVersions versions = new AuthorityVersions(sequence, false);
+        versions.init();
+        PrincipalCache cache = cache(versions);
+        cache.invalidateUser(1L);
+        cache.invalidateAll();
+        cache.evictUsers(Collections.singletonList(1L));
+        cache.evictAll();
+        versions.issue(1L);
+        assertEquals(0, sequence.queries);
+        assertFalse(versions.isCurrent(1L, Long.MAX_VALUE), "未开启时token中的权限不使用");
+    }
+
+    @Test
+    public void localChangeBumpsOnceOutsideTransaction() {
+        SequenceJdbcTemplate sequence = new SequenceJdbcTemplate();
+        AuthorityVersions versions = new AuthorityVersions(sequence, true);
+        versions.init();
+        PrincipalCache cache = cache(versions);
+        long issued = versions.issue(1L);
+
+        cache.invalidateUser(1L);
+        assertEquals(1, sequence.nextCalls);
+        assertFalse(versions.isCurrent(1L, issued));
+        assertTrue(versions.isCurrent(2L, issued), "只影响该用户");
+
+        cache.invalidateAll();
+        assertEquals(2, sequence.nextCalls);
+        assertFalse(versions.isCurrent(2L, issued));
+    }
+
+    @Test
+    public void remoteChangeOnlyCatchesUp() {
+        SequenceJdbcTemplate sequence = new SequenceJdbcTemplate();
+        AuthorityVersions node1 = new AuthorityVersions(sequence, true);
+        AuthorityVersions node2 = new AuthorityVersions(sequence, true);
+        node1.init();
+        node2.init();
+        long before = node2.issue(1L);
+
+        // 实例 1 变更后实例 2 收到事件
+        cache(node1).invalidateAll();
+        long after = node1.issue(1L);
+        cache(node2).evictAll();
+        assertEquals(1, sequence.nextCalls, "其他实例的变更不取新版本");
+        assertFalse(node2.isCurrent(1L, before));
+        assertTrue(node2.isCurrent(1L, after), "变更后签发的token在其他实例同样有效");
+
+        cache(node1).invalidateUser(1L);
+        long user = node1.issue(1L);
+        cache(node2).evictUsers(Collections.singletonList(1L));
+        assertFalse(node2.isCurrent(1L, after));
+        assertTrue(node2.isCurrent(1L, user));
+        assertTrue(node2.isCurrent(2L, after));
+    }
+
+    private static PrincipalCache cache(AuthorityVersions versions) {
+        return new PrincipalCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry(), versions);
+    }
+
+    /**
+     * 模拟 lfs_authority_version_seq
+     */
+    private static class SequenceJdbcTemplate extends JdbcTemplate {
+
+        private long value = 1;
+
+        private int queries;
+
+        private int nextCalls;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            queries++;
+            if (sql.startsWith("select nextval")) {
+                nextCalls++;
+                return (T) Long.valueOf(++value);
+            }
+            return (T) Long.valueOf(value);
+        }
+
+    }
+
+}
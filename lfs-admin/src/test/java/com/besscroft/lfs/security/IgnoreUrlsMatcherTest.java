@@ -0,0 +1,60 @@
+package com.besscroft.lfs.security;
+
+import com.besscroft.lfs.security.component.IgnoreUrlsMatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 白名单匹配器测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 07:10
+ */
+public class IgnoreUrlsMatcherTest {
+
+    private static final List<String> URLS = Arrays.asList(
+            "/user/login", "/**/*.js", "/**/*.css", "/v3/**", "/swagger-ui/**", "/actuator/health");
+
+    private final IgnoreUrlsMatcher matcher = new IgnoreUrlsMatcher(URLS);
+
+    @Test
+    public void matchesLikeAntPathMatcher() {
+        AntPathMatcher antPathMatcher = new AntPathMatcher();
+        String[] paths = {"/user/login", "/user//login", "/user/login/", "/user/info", "/static/app.js", "/app.min.js",
+                "/static/app.js/", "/static/js", "/v3", "/v3/api-docs", "/v3/api-docs/x", "/swagger-ui/index.html",
+                "/actuator/health", "/actuator/metrics", "/"};
+        for (String path : paths) {
+            boolean expected = URLS.stream().anyMatch(url -> antPathMatcher.match(url, path));
+            assertEquals(expected, matcher.matches(path), path);
+        }
+    }
+
+    @Test
+    public void usesServletPathAndPathInfo() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/lfs/v3/api-docs");
+        request.setContextPath("/lfs");
+        request.setServletPath("/v3");
+        request.setPathInfo("/api-docs");
+        assertTrue(matcher.matches(request));
+    }
+
+    @Test
+    public void forwardedRequestIsMatchedAgain() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/login");
+        request.setServletPath("/user/login");
+        assertTrue(matcher.matches(request));
+
+        // 白名单接口转发到受保护的路径时，按新路径重新判断
+        request.setServletPath("/user/info");
+        assertFalse(matcher.matches(request));
+    }
+
+}
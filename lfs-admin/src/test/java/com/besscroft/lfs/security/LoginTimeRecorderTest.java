@@ -0,0 +1,86 @@
+package com.besscroft.lfs.security;
+
+import com.besscroft.lfs.security.component.LoginTimeRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 登录时间延迟写入测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 22:50
+ */
+public class LoginTimeRecorderTest {
+
+    @Test
+    public void keepsLatestTimePerUser() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoginTimeRecorder recorder = new LoginTimeRecorder(jdbcTemplate, meterRegistry);
+        recorder.record(1L, new Date(2000));
+        recorder.record(1L, new Date(1000));
+        recorder.record(1L, new Date(3000));
+        recorder.record(2L, new Date(1000));
+        assertEquals(2.0, meterRegistry.get("lfs.login-time.pending").gauge().value());
+        assertEquals(2.0, meterRegistry.get("lfs.login-time.coalesced").counter().count());
+
+        recorder.flush();
+        assertEquals(1, jdbcTemplate.batches.size());
+        List<Object[]> batch = jdbcTemplate.batches.get(0);
+        assertEquals(2, batch.size());
+        for (Object[] args : batch) {
+            long expected = Long.valueOf(1L).equals(args[1]) ? 3000 : 1000;
+            assertEquals(new Timestamp(expected), args[0]);
+        }
+        assertEquals(0.0, meterRegistry.get("lfs.login-time.pending").gauge().value());
+        assertEquals(1, meterRegistry.get("lfs.login-time.flush").timer().count());
+
+        recorder.flush();
+        assertEquals(1, jdbcTemplate.batches.size(), "没有待写入记录时不访问数据库");
+    }
+
+    @Test
+    public void failedFlushIsRetried() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoginTimeRecorder recorder = new LoginTimeRecorder(jdbcTemplate, meterRegistry);
+        recorder.record(1L, new Date(1000));
+        jdbcTemplate.fail = true;
+        recorder.flush();
+        assertTrue(jdbcTemplate.batches.isEmpty());
+        assertEquals(1.0, meterRegistry.get("lfs.login-time.pending").gauge().value());
+
+        jdbcTemplate.fail = false;
+        recorder.shutdown();
+        assertEquals(1, jdbcTemplate.batches.size());
+        assertEquals(new Timestamp(1000), jdbcTemplate.batches.get(0).get(0)[0]);
+    }
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<List<Object[]>> batches = new ArrayList<>();
+
+        private boolean fail;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (fail) {
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            batches.add(new ArrayList<>(batchArgs));
+            return new int[batchArgs.size()];
+        }
+
+    }
+
+}
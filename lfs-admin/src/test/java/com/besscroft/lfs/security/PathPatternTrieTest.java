@@ -0,0 +1,102 @@
+package com.besscroft.lfs.security;
+
+import com.besscroft.lfs.security.utils.PathPatternTrie;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 路径前缀树与 AntPathMatcher 的一致性测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 10:40
+ */
+public class PathPatternTrieTest {
+
+    private static final String[] PATTERN_TOKENS = {"user", "role", "menu", "1", "*", "**", "{id}", "*.js", "get?", "{id:\\d+}"};
+
+    private static final String[] PATH_TOKENS = {"user", "role", "menu", "1", "42", "app.js", "gets", "getRole"};
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Test
+    public void matchResourceUrls() {
+        PathPatternTrie<String> trie = new PathPatternTrie<>();
+        trie.insert("/user/addUser", "addUser");
+        trie.insert("/user/delUser/**", "delUser");
+        trie.insert("/user/getUser/{id}", "getUser");
+        trie.insert("/**/*.js", "js");
+        trie.insert("/role/*", "role");
+
+        assertEquals(set("addUser"), new TreeSet<>(trie.match("/user/addUser")));
+        assertEquals(set("delUser"), new TreeSet<>(trie.match("/user/delUser")));
+        assertEquals(set("delUser"), new TreeSet<>(trie.match("/user/delUser/1/2")));
+        assertEquals(set("getUser"), new TreeSet<>(trie.match("/user/getUser/1")));
+        assertEquals(set("js"), new TreeSet<>(trie.match("/static/js/app.js")));
+        assertEquals(set("role"), new TreeSet<>(trie.match("/role/")));
+        assertEquals(set(), new TreeSet<>(trie.match("/user/addUser/")));
+        assertEquals(set(), new TreeSet<>(trie.match("/menu/list")));
+    }
+
+    @Test
+    public void matchSameAsAntPathMatcher() {
+        Random random = new Random(20211207L);
+        for (int round = 0; round < 2000; round++) {
+            PathPatternTrie<String> trie = new PathPatternTrie<>();
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String pattern = randomPath(random, PATTERN_TOKENS, 5);
+                if (!patterns.contains(pattern)) {
+                    patterns.add(pattern);
+                    trie.insert(pattern, pattern);
+                }
+            }
+            for (int i = 0; i < 50; i++) {
+                String path = randomPath(random, PATH_TOKENS, 6);
+                Set<String> expected = new TreeSet<>();
+                for (String pattern : patterns) {
+                    if (antPathMatcher.match(pattern, path)) {
+                        expected.add(pattern);
+                    }
+                }
+                List<String> actual = trie.match(path);
+                assertEquals(expected, new TreeSet<>(actual), "path: " + path);
+                assertEquals(expected.size(), actual.size(), "path: " + path);
+            }
+        }
+    }
+
+    private static String randomPath(Random random, String[] tokens, int maxDepth) {
+        StringBuilder builder = new StringBuilder();
+        if (random.nextInt(10) > 0) {
+            builder.append('/');
+        }
+        int depth = random.nextInt(maxDepth);
+        for (int i = 0; i < depth; i++) {
+            if (i > 0) {
+                builder.append(random.nextInt(15) == 0 ? "//" : "/");
+            }
+            builder.append(tokens[random.nextInt(tokens.length)]);
+        }
+        if (random.nextInt(5) == 0) {
+            builder.append('/');
+        }
+        return builder.toString();
+    }
+
+    private static Set<String> set(String... values) {
+        Set<String> set = new TreeSet<>();
+        for (String value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.besscroft.lfs.security;
+
+import com.besscroft.lfs.security.component.FileRevokedTokenPersistence;
+import com.besscroft.lfs.security.component.RevokedTokenPersistence;
+import com.besscroft.lfs.security.component.TokenRevocationStore;
+import com.besscroft.lfs.security.utils.JWTUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 已吊销token存储测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 19:30
+ */
+public class TokenRevocationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void revokedTokensAreNeverMissed() {
+        TokenRevocationStore store = store(null);
+        long expireTime = System.currentTimeMillis() + 60_000;
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String jti = UUID.randomUUID().toString();
+            store.revoke(jti, expireTime);
+            revoked.add(jti);
+        }
+        for (String jti : revoked) {
+            assertTrue(store.isRevoked(jti));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(store.isRevoked(UUID.randomUUID().toString()));
+        }
+        assertFalse(store.isRevoked(null));
+    }
+
+    @Test
+    public void purgeRemovesExpired() throws InterruptedException {
+        TokenRevocationStore store = store(null);
+        store.revoke("short", System.currentTimeMillis() + 20);
+        store.revoke("long", System.currentTimeMillis() + 60_000);
+        Thread.sleep(50);
+        store.purge();
+        assertFalse(store.isRevoked("short"));
+        assertTrue(store.isRevoked("long"));
+    }
+
+    @Test
+    public void fileSnapshotSurvivesRestart() {
+        String file = tempDir.resolve("revoked-tokens.txt").toString();
+        TokenRevocationStore store = store(new FileRevokedTokenPersistence(file));
+        store.revoke("a", System.currentTimeMillis() + 60_000);
+        store.revoke("b", System.currentTimeMillis() + 60_000);
+        store.purge();
+        store.revoke("c", System.currentTimeMillis() + 60_000);
+
+        FileRevokedTokenPersistence persistence = new FileRevokedTokenPersistence(file);
+        assertEquals(3, persistence.loadAll(System.currentTimeMillis()).size());
+        TokenRevocationStore restarted = store(persistence);
+        assertTrue(restarted.isRevoked("a"));
+        assertTrue(restarted.isRevoked("b"));
+        assertTrue(restarted.isRevoked("c"));
+        assertFalse(restarted.isRevoked("d"));
+    }
+
+    @Test
+    public void revocationIsSyncedToOtherInstances() {
+        SharedPersistence persistence = new SharedPersistence();
+        persistence.save("before", System.currentTimeMillis() + 60_000);
+        TokenRevocationStore node1 = store(persistence);
+        TokenRevocationStore node2 = store(persistence);
+        assertTrue(node2.isRevoked("before"));
+
+        node1.revoke("logout", System.currentTimeMillis() + 60_000);
+        assertTrue(node1.isRevoked("logout"));
+        assertFalse(node2.isRevoked("logout"));
+        node2.sync();
+        assertTrue(node2.isRevoked("logout"));
+
+        // 已过期的记录不会同步
+        persistence.save("expired", System.currentTimeMillis() - 1);
+        node2.sync();
+        assertFalse(node2.isRevoked("expired"));
+    }
+
+    @Test
+    public void refreshRevokesPreviousToken() {
+        JWTUtils jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", "pisces-lfs");
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 604800L);
+        ReflectionTestUtils.setField(jwtUtils, "tokenHead", "Bearer ");
+        ReflectionTestUtils.setField(jwtUtils, "tokenRevocationStore", store(null));
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "admin");
+        // 超过 30 分钟才会签发新token
+        claims.put("created", new Date(System.currentTimeMillis() - 3_600_000));
+        String token = jwtUtils.generateToken(claims);
+
+        String refreshed = jwtUtils.refreshHeadToken("Bearer " + token);
+        assertNotEquals(token, refreshed);
+        assertNull(jwtUtils.parseToken(token), "刷新后原token不能再使用");
+        assertNotNull(jwtUtils.parseToken(refreshed));
+
+        assertTrue(jwtUtils.revokeHeadToken("Bearer " + refreshed));
+        assertNull(jwtUtils.parseToken(refreshed), "退出登录后同一会话的token都已失效");
+    }
+
+    private static TokenRevocationStore store(RevokedTokenPersistence persistence) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        if (persistence != null) {
+            beanFactory.registerSingleton("revokedTokenPersistence", persistence);
+        }
+        TokenRevocationStore store = new TokenRevocationStore(beanFactory.getBeanProvider(RevokedTokenPersistence.class),
+                1_000, 0.001, 100, new SimpleMeterRegistry());
+        store.load();
+        return store;
+    }
+
+    /**
+     * 多个实例共用的持久化，按写入顺序分配自增id
+     */
+    private static class SharedPersistence implements RevokedTokenPersistence {
+
+        private final List<String> jtis = new ArrayList<>();
+
+        private final Map<String, Long> records = new HashMap<>();
+
+        @Override
+        public synchronized Map<String, Long> loadAll(long now) {
+            Map<String, Long> loaded = new HashMap<>();
+            records.forEach((jti, expireTime) -> {
+                if (expireTime >= now) {
+                    loaded.put(jti, expireTime);
+                }
+            });
+            return loaded;
+        }
+
+        @Override
+        public synchronized void save(String jti, long expireTime) {
+            if (records.putIfAbsent(jti, expireTime) == null) {
+                jtis.add(jti);
+            }
+        }
+
+        @Override
+        public synchronized void purge(long now, Map<String, Long> remaining) {
+        }
+
+        @Override
+        public synchronized long maxId() {
+            return jtis.size();
+        }
+
+        @Override
+        public synchronized long loadSince(long afterId, BiConsumer<String, Long> consumer) {
+            for (int i = (int) afterId; i < jtis.size(); i++) {
+                consumer.accept(jtis.get(i), records.get(jtis.get(i)));
+            }
+            return jtis.size();
+        }
+
+    }
+
+}
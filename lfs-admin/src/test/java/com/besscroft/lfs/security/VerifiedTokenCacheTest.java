@@ -0,0 +1,88 @@
+package com.besscroft.lfs.security;
+
+import com.besscroft.lfs.security.component.VerifiedTokenCache;
+import com.besscroft.lfs.security.model.ParsedToken;
+import com.besscroft.lfs.security.utils.JWTUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 已验签token缓存测试：篡改、过期的token不能从缓存中取到
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 17:45
+ */
+public class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100, Duration.ofMinutes(30), new SimpleMeterRegistry());
+
+    @Test
+    public void cachedAfterFirstVerification() {
+        JWTUtils jwtUtils = jwtUtils("pisces-lfs", 600L);
+        String token = jwtUtils.generateToken(new User("admin", "", Collections.emptyList()));
+
+        ParsedToken first = jwtUtils.parseToken(token);
+        assertNotNull(first);
+        assertSame(first, jwtUtils.parseToken(token));
+        assertEquals(1, verifiedTokenCache.size());
+    }
+
+    @Test
+    public void tamperedTokenNeverServed() {
+        JWTUtils jwtUtils = jwtUtils("pisces-lfs", 600L);
+        String token = jwtUtils.generateToken(new User("admin", "", Collections.emptyList()));
+        assertNotNull(jwtUtils.parseToken(token));
+
+        // 修改签名（最后一个字符含填充位，改第一个字符）
+        String[] parts = token.split("\\.");
+        char first = parts[2].charAt(0);
+        String tamperedSignature = parts[0] + "." + parts[1] + "." + (first == 'A' ? 'B' : 'A') + parts[2].substring(1);
+        assertNull(jwtUtils.parseToken(tamperedSignature));
+
+        // 修改负载，保留原签名
+        String forgedPayload = jwtUtils("pisces-lfs", 600L).generateToken(new User("root", "", Collections.emptyList())).split("\\.")[1];
+        assertNull(jwtUtils.parseToken(parts[0] + "." + forgedPayload + "." + parts[2]));
+
+        // 其他密钥签发
+        String foreign = jwtUtils("other-secret", 600L).generateToken(new User("admin", "", Collections.emptyList()));
+        assertNull(jwtUtils.parseToken(foreign));
+
+        // 原token仍然可用
+        assertNotNull(jwtUtils.parseToken(token));
+    }
+
+    @Test
+    public void expiredTokenNeverServed() throws InterruptedException {
+        JWTUtils jwtUtils = jwtUtils("pisces-lfs", 2L);
+        String token = jwtUtils.generateToken(new User("admin", "", Collections.emptyList()));
+        ParsedToken parsedToken = jwtUtils.parseToken(token);
+        assertNotNull(parsedToken);
+        assertSame(parsedToken, jwtUtils.parseToken(token));
+
+        long wait = parsedToken.getExpiration().getTime() - System.currentTimeMillis() + 50;
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+        assertNull(jwtUtils.parseToken(token));
+    }
+
+    private JWTUtils jwtUtils(String secret, Long expiration) {
+        JWTUtils jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", secret);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtils, "tokenHead", "Bearer ");
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCache", verifiedTokenCache);
+        return jwtUtils;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.besscroft.lfs.security;
+
+import com.besscroft.lfs.TestBase;
+import com.besscroft.lfs.security.component.IgnoreUrlsMatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 白名单配置测试：监控端点只开放健康检查和应用信息
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 10:40
+ */
+public class WhitelistConfigTest extends TestBase {
+
+    @Autowired
+    private IgnoreUrlsMatcher ignoreUrlsMatcher;
+
+    @Test
+    public void onlyHealthAndInfoArePublic() {
+        assertTrue(ignoreUrlsMatcher.matches("/actuator/health"));
+        assertTrue(ignoreUrlsMatcher.matches("/actuator/info"));
+        assertFalse(ignoreUrlsMatcher.matches("/actuator/metrics"));
+        assertFalse(ignoreUrlsMatcher.matches("/actuator/metrics/jvm.memory.used"));
+        assertFalse(ignoreUrlsMatcher.matches("/actuator"));
+    }
+
+}
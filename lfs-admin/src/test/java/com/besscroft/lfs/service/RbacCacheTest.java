@@ -0,0 +1,128 @@
+package com.besscroft.lfs.service;
+
+import com.besscroft.lfs.TestBase;
+import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.entity.AuthRole;
+import com.besscroft.lfs.system.repository.MenuRepository;
+import com.besscroft.lfs.system.repository.RoleRepository;
+import com.besscroft.lfs.system.service.MenuService;
+import com.besscroft.lfs.system.service.RoleService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 权限相关二级缓存测试：命中缓存，原生 SQL 和 JdbcTemplate 修改后不返回旧数据
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 03:30
+ */
+@Transactional
+public class RbacCacheTest extends TestBase {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void evictAll() {
+        // 测试事务回滚，缓存中可能留下未提交的数据
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void nativeSwitchEvictsRole() {
+        Long roleId = saveRole();
+        roleRepository.findById(roleId);
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertEquals(1, roleRepository.findById(roleId).get().getStatus());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        entityManager.clear();
+
+        roleService.changeSwitch(false, roleId);
+        entityManager.clear();
+        assertEquals(0, roleRepository.findById(roleId).get().getStatus());
+    }
+
+    @Test
+    public void relationSyncEvictsQueryCache() {
+        Long roleId = saveRole();
+        Long menuId = menuRepository.save(AuthMenu.builder()
+                .parentId(0L)
+                .title("缓存测试")
+                .level(0)
+                .sort(1)
+                .name("cache-test")
+                .path("/cache-test")
+                .hidden(0)
+                .createTime(LocalDateTime.now())
+                .build()).getId();
+        entityManager.flush();
+
+        assertTrue(menuIds(roleId).isEmpty());
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertTrue(menuIds(roleId).isEmpty());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        // 关联关系通过 JdbcTemplate 写入，Hibernate 感知不到
+        menuService.updateMenuTree(Collections.singletonList(menuId), roleId);
+        assertEquals(Collections.singletonList(menuId), menuIds(roleId));
+    }
+
+    private Long saveRole() {
+        Long roleId = roleRepository.save(AuthRole.builder()
+                .name("缓存测试")
+                .description("缓存测试")
+                .userCount(0L)
+                .createTime(LocalDateTime.now())
+                .status(1)
+                .sort(1L)
+                .del(1)
+                .build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+        return roleId;
+    }
+
+    private List<Long> menuIds(Long roleId) {
+        // 原生查询按数据库列类型返回数值
+        List<?> ids = menuRepository.selectMenuTreeById(roleId);
+        return ids.stream().map(id -> ((Number) id).longValue()).collect(Collectors.toList());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.besscroft.lfs.service;
+
+import com.besscroft.lfs.TestBase;
+import com.besscroft.lfs.entity.AuthResource;
+import com.besscroft.lfs.entity.AuthResourceSort;
+import com.besscroft.lfs.model.ResourceParam;
+import com.besscroft.lfs.system.repository.ResourceRepository;
+import com.besscroft.lfs.system.repository.ResourceSortRepository;
+import com.besscroft.lfs.system.service.ResourceService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 资源树查询次数测试：类别数量变化时语句数保持不变，缓存命中时不访问数据库
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 22:20
+ */
+@Transactional
+public class ResourceServiceTest extends TestBase {
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private ResourceSortRepository resourceSortRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 测试数据随事务回滚，缓存的资源树中不能留下这些数据
+     */
+    @AfterEach
+    public void clearCache() {
+        resourceService.clearResourceTreeCache();
+    }
+
+    @Test
+    public void resourceTreeUsesConstantStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int categories : new int[]{1, 10, 50}) {
+            for (int i = 0; i < categories; i++) {
+                AuthResourceSort resourceSort = resourceSortRepository.save(AuthResourceSort.builder()
+                        .categoryName("test-category-" + categories + "-" + i)
+                        .createTime(LocalDateTime.now())
+                        .build());
+                resourceRepository.save(AuthResource.builder()
+                        .name("test-resource-" + categories + "-" + i)
+                        .url("/test/" + categories + "/" + i)
+                        .categoryId(resourceSort.getId())
+                        .createTime(LocalDateTime.now())
+                        .build());
+            }
+            entityManager.flush();
+            entityManager.clear();
+            resourceService.clearResourceTreeCache();
+
+            statistics.clear();
+            List<ResourceParam> tree = resourceService.getAllResourceTree();
+            assertEquals(1, statistics.getPrepareStatementCount(), "categories=" + categories);
+            assertEquals(resourceSortRepository.count(), tree.size());
+
+            statistics.clear();
+            resourceService.getAllResourceTree();
+            assertEquals(0, statistics.getPrepareStatementCount(), "cached, categories=" + categories);
+        }
+    }
+
+}
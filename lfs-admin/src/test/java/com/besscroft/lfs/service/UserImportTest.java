@@ -0,0 +1,82 @@
+package com.besscroft.lfs.service;
+
+import com.alibaba.excel.EasyExcel;
+import com.besscroft.lfs.TestBase;
+import com.besscroft.lfs.dto.AuthUserImportDto;
+import com.besscroft.lfs.model.UserImportResult;
+import com.besscroft.lfs.model.UserImportResult.RowError;
+import com.besscroft.lfs.system.repository.UserRepository;
+import com.besscroft.lfs.system.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 用户批量导入测试：用户名、邮箱、手机号重复的行单独跳过，同一批的其他行正常写入
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 10:10
+ */
+@Transactional
+public class UserImportTest extends TestBase {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void duplicateRowsAreSkippedIndividually() {
+        UserImportResult first = userService.importUsers(excel(Collections.singletonList(
+                user("import-test-1", "import-test-1@lfs.test", "19900000001"))));
+        assertEquals(1, first.getSucceeded());
+
+        UserImportResult result = userService.importUsers(excel(Arrays.asList(
+                user("import-test-1", "import-test-9@lfs.test", "19900000009"),
+                user("import-test-2", "import-test-1@lfs.test", "19900000002"),
+                user("import-test-3", "import-test-3@lfs.test", "19900000001"),
+                user("import-test-4", "import-test-4@lfs.test", "19900000004"),
+                user("import-test-5", "import-test-4@lfs.test", "19900000005"),
+                user("import-test-6", "import-test-6@lfs.test", "19900000004"),
+                user("import-test-7", "", " "),
+                user("import-test-8", null, ""))));
+        assertEquals(8, result.getTotal());
+        assertEquals(3, result.getSucceeded());
+        assertEquals(5, result.getFailed());
+        // 第 1 行为表头
+        Map<Integer, String> errors = result.getErrors().stream().collect(Collectors.toMap(RowError::getRow, RowError::getMessage));
+        assertEquals("用户名已存在", errors.get(2));
+        assertEquals("邮箱已存在", errors.get(3));
+        assertEquals("手机号已存在", errors.get(4));
+        assertEquals("邮箱已存在", errors.get(6), "与本批次前面的行重复");
+        assertEquals("手机号已存在", errors.get(7), "与本批次前面的行重复");
+
+        List<String> imported = userRepository.findExistingUsernames(Arrays.asList("import-test-4", "import-test-7", "import-test-8"));
+        assertEquals(3, imported.size());
+        assertNull(userRepository.findAllByUsernameIn(Collections.singletonList("import-test-7")).get(0).getEmail(),
+                "空邮箱按未填写保存");
+    }
+
+    private static AuthUserImportDto user(String username, String email, String phone) {
+        return new AuthUserImportDto(username, "666666", null, email, phone, username, null);
+    }
+
+    private static ByteArrayInputStream excel(List<AuthUserImportDto> users) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcel.write(outputStream, AuthUserImportDto.class).sheet("用户").doWrite(users);
+        return new ByteArrayInputStream(outputStream.toByteArray());
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.besscroft.lfs.system;
+
+import cn.hutool.core.util.StrUtil;
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.system.repository.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 审计日志写入测试：字段按列长度截断
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 11:20
+ */
+public class AuditLogRepositoryTest {
+
+    @Test
+    public void truncatesToColumnLengths() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+        AuditLog auditLog = new AuditLog();
+        auditLog.setRequestId(StrUtil.repeat('r', 100));
+        auditLog.setUsername(StrUtil.repeat('u', 100));
+        auditLog.setDescription(StrUtil.repeat('描', 300));
+        auditLog.setMethod(StrUtil.repeat('m', 300));
+        auditLog.setUrl("/" + StrUtil.repeat('a', 253) + "😀");
+        auditLog.setHttpMethod(StrUtil.repeat('H', 20));
+        auditLog.setIp(StrUtil.repeat('1', 100));
+        auditLog.setArgs(StrUtil.repeat('x', 1000));
+        auditLog.setResult(StrUtil.repeat('e', 200));
+        auditLog.setCost(1);
+        auditLog.setCreateTime(LocalDateTime.now());
+        AuditLog empty = new AuditLog();
+        empty.setCreateTime(LocalDateTime.now());
+
+        new AuditLogRepository(jdbcTemplate).insertAll(Arrays.asList(auditLog, empty));
+        Object[] args = jdbcTemplate.batchArgs.get(0);
+        assertEquals(64, ((String) args[0]).length());
+        assertEquals(64, ((String) args[1]).length());
+        assertEquals(255, ((String) args[2]).length());
+        assertEquals(255, ((String) args[3]).length());
+        assertEquals(254, ((String) args[4]).length(), "不拆开代理对");
+        assertEquals(16, ((String) args[5]).length());
+        assertEquals(64, ((String) args[6]).length());
+        assertEquals(1000, ((String) args[7]).length(), "args 为 text 类型，不截断");
+        assertEquals(128, ((String) args[8]).length());
+        assertNull(jdbcTemplate.batchArgs.get(1)[0]);
+    }
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<Object[]> batchArgs = new ArrayList<>();
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            this.batchArgs.addAll(batchArgs);
+            return new int[batchArgs.size()];
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.model.AuditLog;
+import com.besscroft.lfs.system.component.AuditLogWriter;
+import com.besscroft.lfs.system.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 操作审计日志异步批量写入测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 06:50
+ */
+public class AuditLogWriterTest {
+
+    @Test
+    public void writesInBatchesAndDropsWhenFull() {
+        RecordingAuditLogRepository repository = new RecordingAuditLogRepository();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLogWriter writer = writer(repository, meterRegistry, true);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writer.record(auditLog(i)));
+        }
+        assertFalse(writer.record(auditLog(5)), "队列已满时丢弃");
+        assertEquals(5.0, meterRegistry.get("lfs.audit.pending").gauge().value());
+        assertEquals(1.0, meterRegistry.get("lfs.audit.dropped").tag("reason", "overflow").counter().count());
+
+        assertEquals(2, writer.flush());
+        assertEquals(2, writer.flush());
+        assertEquals(1, writer.flush());
+        assertEquals(0, writer.flush());
+        assertEquals(3, repository.batches.size());
+        assertEquals("0", repository.batches.get(0).get(0).getRequestId());
+        assertEquals("4", repository.batches.get(2).get(0).getRequestId());
+        assertEquals(0.0, meterRegistry.get("lfs.audit.pending").gauge().value());
+
+        assertTrue(writer.record(auditLog(6)), "写入后队列恢复可用");
+    }
+
+    @Test
+    public void failedBatchIsCountedAsDropped() throws InterruptedException {
+        RecordingAuditLogRepository repository = new RecordingAuditLogRepository();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLogWriter writer = writer(repository, meterRegistry, true);
+        writer.record(auditLog(0));
+        writer.record(auditLog(1));
+        repository.fail = true;
+        assertEquals(2, writer.flush());
+        assertEquals(2.0, meterRegistry.get("lfs.audit.dropped").tag("reason", "error").counter().count());
+
+        repository.fail = false;
+        writer.record(auditLog(2));
+        writer.shutdown();
+        assertEquals(1, repository.batches.size(), "关闭时写完剩余日志");
+        assertEquals("2", repository.batches.get(0).get(0).getRequestId());
+    }
+
+    @Test
+    public void skipsReadRequests() {
+        AuditLogWriter writer = writer(new RecordingAuditLogRepository(), new SimpleMeterRegistry(), true);
+        assertFalse(writer.accepts("GET"));
+        assertTrue(writer.accepts("POST"));
+        assertTrue(writer.accepts(null));
+        assertFalse(writer(new RecordingAuditLogRepository(), new SimpleMeterRegistry(), false).accepts("POST"));
+    }
+
+    private static AuditLogWriter writer(AuditLogRepository repository, SimpleMeterRegistry meterRegistry, boolean enabled) {
+        return new AuditLogWriter(repository, meterRegistry, enabled, false, 5, 2, Duration.ofSeconds(1), Duration.ZERO);
+    }
+
+    private static AuditLog auditLog(int i) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setRequestId(String.valueOf(i));
+        auditLog.setUsername("admin");
+        auditLog.setDescription("修改角色");
+        auditLog.setResult("ok");
+        auditLog.setCreateTime(LocalDateTime.now());
+        return auditLog;
+    }
+
+    private static class RecordingAuditLogRepository extends AuditLogRepository {
+
+        private final List<List<AuditLog>> batches = new ArrayList<>();
+
+        private boolean fail;
+
+        private RecordingAuditLogRepository() {
+            super(null);
+        }
+
+        @Override
+        public void insertAll(List<AuditLog> auditLogs) {
+            if (fail) {
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            batches.add(new ArrayList<>(auditLogs));
+        }
+
+    }
+
+}
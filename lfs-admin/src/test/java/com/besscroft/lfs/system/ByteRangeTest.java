@@ -0,0 +1,51 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.system.utils.ByteRange;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Range 请求头解析测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 00:10
+ */
+public class ByteRangeTest {
+
+    @Test
+    public void parsesSingleRanges() {
+        assertRange(0, 99, ByteRange.parse("bytes=0-99", 1000));
+        assertRange(500, 999, ByteRange.parse("bytes=500-", 1000));
+        assertRange(900, 999, ByteRange.parse("bytes=-100", 1000));
+        assertRange(0, 999, ByteRange.parse("bytes=-5000", 1000));
+        // 结束位置超出文件长度时截断
+        assertRange(990, 999, ByteRange.parse("bytes=990-2000", 1000));
+    }
+
+    @Test
+    public void unsatisfiableRanges() {
+        assertSame(ByteRange.NOT_SATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.NOT_SATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+        assertSame(ByteRange.NOT_SATISFIABLE, ByteRange.parse("bytes=-10", 0));
+    }
+
+    @Test
+    public void ignoredHeadersServeFullContent() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", 1000));
+        assertNull(ByteRange.parse("bytes=9-1", 1000));
+        assertNull(ByteRange.parse("bytes=a-b", 1000));
+        assertNull(ByteRange.parse("bytes=", 1000));
+    }
+
+    private static void assertRange(long start, long end, ByteRange range) {
+        assertEquals(start, range.getStart());
+        assertEquals(end, range.getEnd());
+        assertEquals(end - start + 1, range.getLength());
+    }
+
+}
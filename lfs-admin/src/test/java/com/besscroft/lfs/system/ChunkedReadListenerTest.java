@@ -0,0 +1,56 @@
+package com.besscroft.lfs.system;
+
+import com.alibaba.excel.EasyExcel;
+import com.besscroft.lfs.dto.AuthUserImportDto;
+import com.besscroft.lfs.system.utils.ChunkedReadListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Excel 分块读取测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 00:55
+ */
+public class ChunkedReadListenerTest {
+
+    @Test
+    public void readsInChunksWithRowNumbers() {
+        List<AuthUserImportDto> users = new ArrayList<>();
+        for (int i = 1; i <= 1234; i++) {
+            users.add(new AuthUserImportDto("user" + i, "password" + i, null, "user" + i + "@example.com", null, "用户" + i, null));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcel.write(outputStream, AuthUserImportDto.class).sheet("用户").doWrite(users);
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        List<AuthUserImportDto> read = new ArrayList<>();
+        List<Integer> errors = new ArrayList<>();
+        ChunkedReadListener<AuthUserImportDto> listener = new ChunkedReadListener<>(500, (chunkRows, chunk) -> {
+            chunkSizes.add(chunk.size());
+            rows.addAll(chunkRows);
+            read.addAll(chunk);
+        }, (row, message) -> errors.add(row));
+        EasyExcel.read(new ByteArrayInputStream(outputStream.toByteArray()), AuthUserImportDto.class, listener).sheet().doRead();
+
+        assertEquals(Arrays.asList(500, 500, 234), chunkSizes);
+        assertTrue(errors.isEmpty());
+        assertEquals(1234, read.size());
+        // 第 1 行是表头
+        assertEquals(2, rows.get(0));
+        assertEquals(1235, rows.get(1233));
+        assertEquals("user1", read.get(0).getUsername());
+        assertEquals("password1234", read.get(1233).getPassword());
+        assertEquals("用户1234", read.get(1233).getNickName());
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.constant.HttpStatus;
+import com.besscroft.lfs.exception.PiscesException;
+import com.besscroft.lfs.model.ExportJob;
+import com.besscroft.lfs.system.repository.ExportJobRepository;
+import com.besscroft.lfs.system.service.UserService;
+import com.besscroft.lfs.system.service.impl.ExportJobServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.BeanUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 异步导出任务测试：任务状态和文件在实例间共享，过期后清理
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 09:40
+ */
+public class ExportJobServiceTest {
+
+    private static final byte[] CONTENT = "exported".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path spoolDir;
+
+    @Test
+    public void jobIsVisibleOnOtherInstances() throws Exception {
+        SharedExportJobRepository repository = new SharedExportJobRepository();
+        ExportJobServiceImpl node1 = service(repository, userService(false), Duration.ofHours(1));
+        ExportJobServiceImpl node2 = service(repository, userService(false), Duration.ofHours(1));
+
+        ExportJob submitted = node1.submitUserExport(Arrays.asList(1L, 2L), "admin");
+        ExportJob job = await(node2, submitted.getId());
+        assertEquals(ExportJob.DONE, job.getStatus());
+        assertEquals(2, job.getRows());
+        assertEquals(CONTENT.length, job.getSize());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        node2.download(job.getId(), "admin", new MockHttpServletRequest(), response);
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+
+        PiscesException e = assertThrows(PiscesException.class, () -> node2.getJob(job.getId(), "other"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getCode(), "只有提交人可以查询");
+    }
+
+    @Test
+    public void expiredJobsAndFilesAreSwept() throws Exception {
+        SharedExportJobRepository repository = new SharedExportJobRepository();
+        ExportJobServiceImpl node1 = service(repository, userService(false), Duration.ofMillis(1));
+        ExportJobServiceImpl node2 = service(repository, userService(false), Duration.ofMillis(1));
+        String id = node1.submitUserExport(Collections.singletonList(1L), "admin").getId();
+        assertEquals(ExportJob.DONE, await(node1, id).getStatus());
+        assertTrue(Files.exists(spoolDir.resolve(id + ".xlsx")));
+
+        Thread.sleep(10);
+        node2.sweep();
+        assertTrue(repository.jobs.isEmpty());
+        assertFalse(Files.exists(spoolDir.resolve(id + ".xlsx")), "任意实例都可以清理共享目录中的文件");
+        PiscesException e = assertThrows(PiscesException.class, () -> node1.getJob(id, "admin"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getCode());
+    }
+
+    @Test
+    public void failedJobLeavesNoFile() throws Exception {
+        SharedExportJobRepository repository = new SharedExportJobRepository();
+        ExportJobServiceImpl service = service(repository, userService(true), Duration.ofHours(1));
+        String id = service.submitUserExport(Collections.singletonList(1L), "admin").getId();
+        ExportJob job = await(service, id);
+        assertEquals(ExportJob.FAILED, job.getStatus());
+        assertEquals(0, Files.list(spoolDir).count());
+
+        PiscesException e = assertThrows(PiscesException.class,
+                () -> service.download(id, "admin", new MockHttpServletRequest(), new MockHttpServletResponse()));
+        assertEquals(HttpStatus.CONFLICT, e.getCode());
+    }
+
+    @Test
+    public void missingFileIsNotReportedAsExpired() throws Exception {
+        SharedExportJobRepository repository = new SharedExportJobRepository();
+        ExportJobServiceImpl service = service(repository, userService(false), Duration.ofHours(1));
+        String id = service.submitUserExport(Collections.singletonList(1L), "admin").getId();
+        await(service, id);
+        // 模拟暂存目录没有在实例间共享
+        Files.delete(spoolDir.resolve(id + ".xlsx"));
+
+        PiscesException e = assertThrows(PiscesException.class,
+                () -> service.download(id, "admin", new MockHttpServletRequest(), new MockHttpServletResponse()));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getCode());
+    }
+
+    private ExportJobServiceImpl service(ExportJobRepository repository, UserService userService, Duration retention) throws IOException {
+        ExportJobServiceImpl service = new ExportJobServiceImpl(userService, repository, spoolDir.toString(), retention,
+                1, 4, new SimpleMeterRegistry());
+        service.init();
+        return service;
+    }
+
+    private static ExportJob await(ExportJobServiceImpl service, String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            ExportJob job = service.getJob(id, "admin");
+            if (ExportJob.DONE.equals(job.getStatus()) || ExportJob.FAILED.equals(job.getStatus())
+                    || System.currentTimeMillis() > deadline) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * 只实现导出方法的用户服务
+     */
+    private static UserService userService(boolean fail) {
+        return (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(), new Class<?>[]{UserService.class},
+                (proxy, method, args) -> {
+                    if (!"exportTo".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (fail) {
+                        throw new IllegalStateException("导出失败");
+                    }
+                    ((OutputStream) args[1]).write(CONTENT);
+                    return (long) ((List<?>) args[0]).size();
+                });
+    }
+
+    /**
+     * 多个实例共用的任务表，保存副本模拟数据库
+     */
+    private static class SharedExportJobRepository extends ExportJobRepository {
+
+        private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+        private SharedExportJobRepository() {
+            super(null);
+        }
+
+        @Override
+        public void insert(ExportJob job) {
+            jobs.put(job.getId(), copy(job));
+        }
+
+        @Override
+        public void update(ExportJob job) {
+            jobs.computeIfPresent(job.getId(), (id, old) -> copy(job));
+        }
+
+        @Override
+        public ExportJob findById(String id) {
+            ExportJob job = jobs.get(id);
+            return job == null ? null : copy(job);
+        }
+
+        @Override
+        public List<String> deleteExpired(LocalDateTime before) {
+            List<String> ids = new ArrayList<>();
+            jobs.values().removeIf(job -> {
+                LocalDateTime time = job.getFinishTime() == null ? job.getCreateTime() : job.getFinishTime();
+                if (time.isBefore(before)) {
+                    ids.add(job.getId());
+                    return true;
+                }
+                return false;
+            });
+            return ids;
+        }
+
+        private static ExportJob copy(ExportJob job) {
+            ExportJob copy = new ExportJob();
+            BeanUtils.copyProperties(job, copy);
+            return copy;
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.model.ChangeEvent;
+import com.besscroft.lfs.system.component.AbstractInvalidationBus;
+import com.besscroft.lfs.system.component.InvalidationBus;
+import com.besscroft.lfs.system.component.LocalInvalidationBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存失效总线测试：投递、去重、丢失检测
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 04:50
+ */
+public class InvalidationBusTest {
+
+    @Test
+    public void localBusDeliversToOtherInstances() {
+        LocalInvalidationBus first = new LocalInvalidationBus("node");
+        LocalInvalidationBus second = new LocalInvalidationBus("node");
+        try {
+            RecordingListener firstListener = new RecordingListener();
+            RecordingListener secondListener = new RecordingListener();
+            first.subscribe(firstListener);
+            second.subscribe(secondListener);
+
+            first.publish(ChangeEvent.Type.ROLE, Arrays.asList(1L, 2L, 2L, null));
+            first.publish(ChangeEvent.Type.MENU, Collections.emptyList());
+            first.publish(ChangeEvent.Type.RELATION, null);
+
+            // 本实例的事件不投递给自己，空集合不发布，null 表示全部数据
+            assertTrue(firstListener.events.isEmpty());
+            assertEquals(2, secondListener.events.size());
+            assertEquals(ChangeEvent.Type.ROLE, secondListener.events.get(0).getType());
+            assertEquals(Arrays.asList(1L, 2L), secondListener.events.get(0).getIds());
+            assertEquals(ChangeEvent.Type.RELATION, secondListener.events.get(1).getType());
+            assertTrue(secondListener.events.get(1).getIds().isEmpty());
+            assertEquals(Long.valueOf(2), second.versions().values().iterator().next());
+            assertEquals(0, secondListener.missed);
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void tooManyIdsMeansAll() {
+        LocalInvalidationBus first = new LocalInvalidationBus("node");
+        LocalInvalidationBus second = new LocalInvalidationBus("node");
+        try {
+            RecordingListener listener = new RecordingListener();
+            second.subscribe(listener);
+            List<Long> ids = LongStream.rangeClosed(1, 5000).boxed().collect(Collectors.toList());
+            first.publish(ChangeEvent.Type.USER, ids);
+            assertEquals(1, listener.events.size());
+            assertTrue(listener.events.get(0).getIds().isEmpty());
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void versionVectorDropsDuplicatesAndDetectsGaps() {
+        LossyBus sender = new LossyBus();
+        LossyBus receiver = new LossyBus();
+        RecordingListener listener = new RecordingListener();
+        receiver.subscribe(listener);
+        sender.target = receiver;
+
+        sender.publish(ChangeEvent.Type.USER, Collections.singletonList(1L));
+        sender.redeliver();
+        assertEquals(1, listener.events.size());
+
+        // 第 2 个事件丢失，收到第 3 个事件时发现序号不连续
+        sender.drop = true;
+        sender.publish(ChangeEvent.Type.USER, Collections.singletonList(2L));
+        sender.drop = false;
+        sender.publish(ChangeEvent.Type.USER, Collections.singletonList(3L));
+        assertEquals(1, listener.events.size());
+        assertEquals(1, listener.missed);
+
+        // 之后的事件正常处理
+        sender.publish(ChangeEvent.Type.USER, Collections.singletonList(4L));
+        assertEquals(2, listener.events.size());
+        assertEquals(Long.valueOf(4), listener.events.get(1).getSequence());
+    }
+
+    private static class RecordingListener implements InvalidationBus.Listener {
+
+        private final List<ChangeEvent> events = new ArrayList<>();
+
+        private int missed;
+
+        @Override
+        public void onChange(ChangeEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onMissed(String origin) {
+            missed++;
+        }
+
+    }
+
+    /**
+     * 可以丢弃和重复投递事件的总线
+     */
+    private static class LossyBus extends AbstractInvalidationBus {
+
+        private LossyBus target;
+
+        private boolean drop;
+
+        private ChangeEvent last;
+
+        private LossyBus() {
+            super("node");
+        }
+
+        @Override
+        protected void send(ChangeEvent.Type type, List<Long> ids) {
+            last = event(nextSequence(), type, ids);
+            if (!drop) {
+                target.receive(last);
+            }
+        }
+
+        private void redeliver() {
+            target.receive(last);
+        }
+
+    }
+
+}
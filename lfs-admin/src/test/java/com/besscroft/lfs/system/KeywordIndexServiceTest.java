@@ -0,0 +1,131 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.exception.PiscesException;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository;
+import com.besscroft.lfs.system.repository.KeywordDocumentRepository.Category;
+import com.besscroft.lfs.system.service.impl.KeywordIndexServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 关键字搜索测试：重新加载期间使用旧索引，加载期间的变更在替换后保留
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 13:10
+ */
+public class KeywordIndexServiceTest {
+
+    @Test
+    public void reloadKeepsServingOldIndex() throws Exception {
+        DocumentRepository repository = new DocumentRepository();
+        repository.names.put(1L, "admin");
+        KeywordIndexServiceImpl service = new KeywordIndexServiceImpl(repository, 1);
+        try {
+            assertEquals(Collections.singletonList(1L), await(service, Collections.singletonList(1L)));
+
+            repository.paused = new CountDownLatch(1);
+            repository.names.put(2L, "admin2");
+            service.reload(Category.USER);
+            assertTrue(repository.scanning.await(5, TimeUnit.SECONDS));
+            assertEquals(Collections.singletonList(1L), search(service), "重新加载期间使用旧索引");
+
+            // 加载已读取的数据中没有 3
+            repository.names.put(3L, "admin3");
+            service.refresh(Category.USER, Collections.singletonList(3L));
+            assertEquals(Arrays.asList(1L, 3L), search(service));
+
+            repository.paused.countDown();
+            assertEquals(Arrays.asList(1L, 2L, 3L), await(service, Arrays.asList(1L, 2L, 3L)));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static List<Long> search(KeywordIndexServiceImpl service) {
+        return service.search(Category.USER, "admin", PageRequest.of(0, 10), ids -> ids, Function.identity()).getContent();
+    }
+
+    private static List<Long> await(KeywordIndexServiceImpl service, List<Long> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<Long> result = null;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                result = search(service);
+                if (result.equals(expected)) {
+                    return result;
+                }
+            } catch (PiscesException e) {
+                // 首次加载未完成
+            }
+            Thread.sleep(10);
+        }
+        return result;
+    }
+
+    /**
+     * 只有用户名的用户数据，读取时可以暂停
+     */
+    private static class DocumentRepository extends KeywordDocumentRepository {
+
+        private final Map<Long, String> names = new ConcurrentSkipListMap<>();
+
+        private final CountDownLatch scanning = new CountDownLatch(1);
+
+        private volatile CountDownLatch paused;
+
+        DocumentRepository() {
+            super(null);
+        }
+
+        @Override
+        public Long scan(Category category, long afterId, int limit, BiConsumer<Long, String[]> consumer) {
+            Map<Long, String> snapshot = new TreeMap<>(names);
+            if (category != Category.USER) {
+                return null;
+            }
+            CountDownLatch latch = paused;
+            if (latch != null) {
+                scanning.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            // 数据量远小于分块大小，一次读完
+            Long lastId = null;
+            for (Map.Entry<Long, String> entry : snapshot.entrySet()) {
+                consumer.accept(entry.getKey(), new String[]{entry.getValue()});
+                lastId = entry.getKey();
+            }
+            return lastId;
+        }
+
+        @Override
+        public void find(Category category, Collection<Long> ids, BiConsumer<Long, String[]> consumer) {
+            for (Long id : ids) {
+                String name = names.get(id);
+                if (name != null) {
+                    consumer.accept(id, new String[]{name});
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.system.component.LogSamplingFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按请求开启 DEBUG 日志测试：请求头只有携带密钥才生效
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 11:00
+ */
+public class LogSamplingFilterTest {
+
+    private static final String HEADER = "X-Debug-Log";
+
+    @Test
+    public void headerRequiresSecret() throws Exception {
+        LogSamplingFilter filter = new LogSamplingFilter(0, HEADER, "s3cret");
+        assertTrue(sampled(filter, "s3cret"));
+        assertFalse(sampled(filter, "true"), "匿名请求不能只凭请求头开启");
+        assertFalse(sampled(filter, "s3cret2"));
+        assertFalse(sampled(filter, null));
+        assertNull(MDC.get(LogSamplingFilter.KEY), "请求结束后清除");
+    }
+
+    @Test
+    public void headerIsIgnoredWithoutSecret() throws Exception {
+        assertFalse(sampled(new LogSamplingFilter(0, HEADER, ""), "true"));
+        assertFalse(sampled(new LogSamplingFilter(0, HEADER, ""), ""));
+        assertFalse(sampled(new LogSamplingFilter(0, "", "s3cret"), "s3cret"));
+    }
+
+    private static boolean sampled(LogSamplingFilter filter, String value) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/info");
+        if (value != null) {
+            request.addHeader(HEADER, value);
+        }
+        boolean[] sampled = new boolean[1];
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> sampled[0] = "true".equals(MDC.get(LogSamplingFilter.KEY)));
+        return sampled[0];
+    }
+
+}
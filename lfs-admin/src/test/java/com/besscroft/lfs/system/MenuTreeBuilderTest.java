@@ -0,0 +1,181 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.entity.AuthMenu;
+import com.besscroft.lfs.model.MetaVo;
+import com.besscroft.lfs.model.RouterVo;
+import com.besscroft.lfs.system.utils.MenuTreeBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 菜单树构建测试：与原先逐层过滤的实现输出一致
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 21:00
+ */
+public class MenuTreeBuilderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void matchesLegacyRouters() throws Exception {
+        for (int seed = 0; seed < 200; seed++) {
+            // 原实现用 == 比较 Long，只有 -128~127 之间的id结果正确
+            String legacy = objectMapper.writeValueAsString(LegacyMenuTree.getRouter(LegacyMenuTree.getMenus(randomMenus(seed, 120))));
+            String built = objectMapper.writeValueAsString(MenuTreeBuilder.buildRouters(randomMenus(seed, 120)));
+            assertEquals(legacy, built, "seed=" + seed);
+        }
+    }
+
+    @Test
+    public void matchesLegacyMenus() {
+        for (int seed = 0; seed < 200; seed++) {
+            String legacy = describe(LegacyMenuTree.getMenus(randomMenus(seed, 120)));
+            String built = describe(MenuTreeBuilder.buildMenus(randomMenus(seed, 120)));
+            assertEquals(legacy, built, "seed=" + seed);
+        }
+    }
+
+    @Test
+    public void largeIdsAreNested() {
+        List<AuthMenu> menus = new ArrayList<>();
+        menus.add(menu(1000L, 0L, 1));
+        menus.add(menu(2000L, 1000L, 0));
+        menus.add(menu(3000L, 2000L, 0));
+        menus.add(menu(4000L, 9999L, 0));
+        List<RouterVo> routers = MenuTreeBuilder.buildRouters(menus);
+        assertEquals(1, routers.size());
+        assertEquals("menu1000", routers.get(0).getName());
+        assertEquals(Boolean.TRUE, routers.get(0).getAlwaysShow());
+        assertEquals("noRedirect", routers.get(0).getRedirect());
+        assertEquals("menu2000", routers.get(0).getChildren().get(0).getName());
+        assertEquals("menu3000", routers.get(0).getChildren().get(0).getChildren().get(0).getName());
+        assertEquals("[1000[2000[3000]]]", describe(MenuTreeBuilder.buildMenus(menus)));
+    }
+
+    @Test
+    public void cyclesAreSkipped() {
+        List<AuthMenu> menus = new ArrayList<>();
+        menus.add(menu(1L, 0L, 0));
+        menus.add(menu(2L, 1L, 0));
+        menus.add(menu(3L, 2L, 0));
+        menus.add(menu(2L, 3L, 0));
+        assertEquals("[1[2[3[2]]]]", describe(MenuTreeBuilder.buildMenus(menus)));
+    }
+
+    /**
+     * 随机生成菜单，父节点可能缺失，同级顺序随机
+     */
+    static List<AuthMenu> randomMenus(long seed, int size) {
+        Random random = new Random(seed);
+        List<AuthMenu> menus = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            long parentId;
+            if (id == 1 || random.nextInt(4) == 0) {
+                parentId = 0L;
+            } else if (random.nextInt(20) == 0) {
+                // 父节点不存在
+                parentId = size + 1L;
+            } else {
+                parentId = 1 + random.nextInt((int) id - 1);
+            }
+            menus.add(menu(id, parentId, random.nextInt(2)));
+        }
+        Collections.shuffle(menus, random);
+        return menus;
+    }
+
+    static AuthMenu menu(Long id, Long parentId, int hidden) {
+        return AuthMenu.builder()
+                .id(id)
+                .parentId(parentId)
+                .name("menu" + id)
+                .path("/menu/" + id)
+                .title("菜单" + id)
+                .icon("icon" + id)
+                .component("component" + id)
+                .hidden(hidden)
+                .children(new ArrayList<>())
+                .build();
+    }
+
+    private static String describe(List<AuthMenu> menus) {
+        return menus.stream()
+                .map(menu -> menu.getId() + (menu.getChildren().isEmpty() ? "" : describe(menu.getChildren())))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    /**
+     * 原 MenuServiceImpl 中的实现，作为对照
+     */
+    static class LegacyMenuTree {
+
+        static List<AuthMenu> getMenus(List<AuthMenu> menuList) {
+            List<AuthMenu> parentMenus = menuList.stream().filter(menu -> menu.getParentId() == 0).collect(Collectors.toList());
+            List<AuthMenu> menus = menuList.stream().filter(menu -> menu.getParentId() != 0).collect(Collectors.toList());
+            parentMenus.forEach(menu -> {
+                List<AuthMenu> childMenu = getChildMenu(menu.getId(), menus);
+                menu.setChildren(childMenu);
+            });
+            return parentMenus;
+        }
+
+        static List<AuthMenu> getChildMenu(Long menuId, List<AuthMenu> menuList) {
+            List<AuthMenu> menus = menuList.stream().filter(menu -> menu.getParentId() == menuId).collect(Collectors.toList());
+            menus.forEach(menu -> {
+                List<AuthMenu> childMenu = getChildMenu(menu.getId(), menuList);
+                menu.setChildren(childMenu);
+            });
+            return menus;
+        }
+
+        static List<RouterVo> getRouter(List<AuthMenu> menuList) {
+            List<RouterVo> routerVoList = new LinkedList<>();
+            menuList.forEach(menuDto -> {
+                RouterVo routerVo = new RouterVo();
+                routerVo.setName(menuDto.getName());
+                routerVo.setPath(menuDto.getPath());
+                routerVo.setHidden(menuDto.getHidden() != 0);
+                routerVo.setComponent(menuDto.getComponent());
+                routerVo.setMeta(new MetaVo(menuDto.getTitle(), menuDto.getIcon(), false));
+                if (menuDto.getChildren().size() > 0 && !menuDto.getChildren().isEmpty()) {
+                    routerVo.setAlwaysShow(true);
+                    routerVo.setRedirect("noRedirect");
+                    List<RouterVo> childRouter = getChildRouter(menuDto.getChildren());
+                    routerVo.setChildren(childRouter);
+                }
+                routerVoList.add(routerVo);
+            });
+            return routerVoList;
+        }
+
+        static List<RouterVo> getChildRouter(List<AuthMenu> menuList) {
+            List<RouterVo> list = new ArrayList<>();
+            menuList.forEach(child -> {
+                RouterVo router = new RouterVo();
+                router.setPath(child.getPath());
+                router.setName(child.getName());
+                router.setComponent(child.getComponent());
+                router.setMeta(new MetaVo(child.getTitle(), child.getIcon(), false));
+                router.setHidden(child.getHidden() != 0);
+                if (child.getChildren().size() > 0 && !child.getChildren().isEmpty()) {
+                    List<RouterVo> childRouter = getChildRouter(child.getChildren());
+                    router.setChildren(childRouter);
+                }
+                list.add(router);
+            });
+            return list;
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.system.utils.NgramIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 内存倒排索引测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 02:10
+ */
+public class NgramIndexTest {
+
+    @Test
+    public void searchesLikeContains() {
+        NgramIndex index = new NgramIndex();
+        index.put(1, "admin", "管理员", "admin@qq.com", "12345678901");
+        index.put(2, "test", "测试员", "test@qq.com", "12345678902");
+        index.put(3, "user1", "普通用户1", "user1@qq.com", null);
+
+        assertArrayEquals(new int[]{1, 2, 3}, index.search("qq.com"));
+        assertArrayEquals(new int[]{1}, index.search(" ADMIN "));
+        assertArrayEquals(new int[]{1, 2}, index.search("员"));
+        assertArrayEquals(new int[]{2}, index.search("8902"));
+        assertArrayEquals(new int[]{3}, index.search("普通用户"));
+        // 二元组都存在但原文不连续
+        assertArrayEquals(new int[0], index.search("adqq"));
+        // 不跨字段匹配
+        assertArrayEquals(new int[0], index.search("admin管理"));
+        assertNull(index.search("  "));
+    }
+
+    @Test
+    public void updatesAndRemoves() {
+        NgramIndex index = new NgramIndex();
+        index.put(1, "alice");
+        index.put(2, "bob");
+        index.put(1, "carol");
+        assertArrayEquals(new int[0], index.search("alice"));
+        assertArrayEquals(new int[]{1}, index.search("carol"));
+        index.remove(1);
+        assertArrayEquals(new int[0], index.search("carol"));
+        assertArrayEquals(new int[]{2}, index.search("bo"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void mergeKeepsNewerDocuments() {
+        NgramIndex index = new NgramIndex();
+        // 加载期间更新的文档
+        index.put(2, "updated");
+        NgramIndex.Segment segment = new NgramIndex.Segment();
+        segment.add(1, "first");
+        segment.add(2, "stale");
+        segment.add(3, "third");
+        index.merge(segment);
+        index.compact();
+        assertArrayEquals(new int[0], index.search("stale"));
+        assertArrayEquals(new int[]{2}, index.search("updated"));
+        assertArrayEquals(new int[]{1, 3}, index.search("ir"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void matchesBruteForce() {
+        Random random = new Random(42);
+        List<String> texts = new ArrayList<>();
+        NgramIndex index = new NgramIndex();
+        NgramIndex.Segment segment = new NgramIndex.Segment();
+        for (int id = 0; id < 2000; id++) {
+            String text = randomText(random);
+            texts.add(text);
+            if (id < 1000) {
+                segment.add(id, text);
+            } else {
+                index.put(id, text);
+            }
+        }
+        index.merge(segment);
+        for (int i = 0; i < 200; i++) {
+            String text = texts.get(random.nextInt(texts.size()));
+            int start = random.nextInt(text.length());
+            String keyword = text.substring(start, Math.min(text.length(), start + 1 + random.nextInt(4)));
+            int[] expected = IntStream.range(0, texts.size())
+                    .filter(id -> texts.get(id).toLowerCase(Locale.ROOT).contains(keyword.toLowerCase(Locale.ROOT)))
+                    .toArray();
+            assertArrayEquals(expected, index.search(keyword), keyword);
+        }
+    }
+
+    private static String randomText(Random random) {
+        String alphabet = "abcdeABCDE张王李0123";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0, length = 3 + random.nextInt(10); i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.besscroft.lfs.system;
+
+import com.besscroft.lfs.system.repository.RoleRelationRepository;
+import com.besscroft.lfs.system.repository.RoleRelationRepository.Relation;
+import com.besscroft.lfs.system.repository.RoleRelationRepository.SyncResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 角色关系同步测试：只写差异部分，按批合并语句
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 22:05
+ */
+public class RoleRelationRepositoryTest {
+
+    @Test
+    public void insertsAllWhenRoleHasNoRelations() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate(Collections.emptyList());
+        SyncResult result = new RoleRelationRepository(jdbcTemplate).sync(Relation.MENU, 1L, Arrays.asList(3L, 4L, 5L));
+        assertEquals(0, result.getDeleted());
+        assertEquals(3, result.getInserted());
+        assertEquals(1, jdbcTemplate.updates.size());
+        assertEquals("insert into auth_role_menu_relation (role_id, menu_id) values (?, ?), (?, ?), (?, ?)", jdbcTemplate.updates.get(0));
+        assertEquals(Arrays.asList(1L, 3L, 1L, 4L, 1L, 5L), jdbcTemplate.args.get(0));
+    }
+
+    @Test
+    public void writesOnlyTheDelta() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate(Arrays.asList(1L, 2L, 3L));
+        SyncResult result = new RoleRelationRepository(jdbcTemplate).sync(Relation.RESOURCE, 7L, Arrays.asList(2L, 3L, 4L, 4L, null));
+        assertEquals(1, result.getDeleted());
+        assertEquals(1, result.getInserted());
+        assertEquals(2, result.getUnchanged());
+        assertEquals(Arrays.asList(
+                "delete from auth_role_resource_relation where role_id = ? and resource_id in (?)",
+                "insert into auth_role_resource_relation (role_id, resource_id) values (?, ?)"), jdbcTemplate.updates);
+        assertEquals(Arrays.asList(7L, 1L), jdbcTemplate.args.get(0));
+        assertEquals(Arrays.asList(7L, 4L), jdbcTemplate.args.get(1));
+    }
+
+    @Test
+    public void unchangedSetWritesNothing() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate(Arrays.asList(1L, 2L));
+        SyncResult result = new RoleRelationRepository(jdbcTemplate).sync(Relation.MENU, 1L, Arrays.asList(2L, 1L));
+        assertFalse(result.isChanged());
+        assertTrue(jdbcTemplate.updates.isEmpty());
+    }
+
+    @Test
+    public void largeDeltaIsBatched() {
+        List<Long> current = LongStream.rangeClosed(1, 800).boxed().collect(Collectors.toList());
+        List<Long> target = LongStream.rangeClosed(801, 1600).boxed().collect(Collectors.toList());
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate(current);
+        SyncResult result = new RoleRelationRepository(jdbcTemplate).sync(Relation.RESOURCE, 1L, target);
+        assertEquals(800, result.getDeleted());
+        assertEquals(800, result.getInserted());
+        // 删除、插入各两批
+        assertEquals(4, jdbcTemplate.updates.size());
+    }
+
+    /**
+     * 记录写语句，查询返回固定的当前关系，update 返回影响行数
+     */
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<Long> current;
+
+        private final List<String> updates = new ArrayList<>();
+
+        private final List<List<Object>> args = new ArrayList<>();
+
+        RecordingJdbcTemplate(List<Long> current) {
+            this.current = current;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            if (sql.contains("for update")) {
+                return Collections.emptyList();
+            }
+            return (List<T>) new ArrayList<>(current);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            updates.add(sql);
+            this.args.add(Arrays.asList(args));
+            return sql.startsWith("insert") ? args.length / 2 : args.length - 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.besscroft.lfs.system;
+
+import com.alibaba.excel.EasyExcel;
+import com.besscroft.lfs.dto.AuthUserExcelDto;
+import com.besscroft.lfs.entity.AuthUser;
+import com.besscroft.lfs.system.utils.UserExcelExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用户 Excel 流式导出测试
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/17 23:15
+ */
+@Slf4j
+public class UserExcelExporterTest {
+
+    @Test
+    public void chunksAreSortedAndBounded() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+        Collections.reverse(ids);
+        ids.add(1L);
+        ids.add(null);
+        List<List<Long>> requested = new ArrayList<>();
+        Iterator<List<AuthUser>> chunks = UserExcelExporter.chunks(ids, chunk -> {
+            requested.add(chunk);
+            return new ArrayList<>();
+        });
+        while (chunks.hasNext()) {
+            chunks.next();
+        }
+        assertEquals(Arrays.asList(1000, 1000, 500), requested.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(1L, requested.get(0).get(0));
+        assertEquals(2500L, requested.get(2).get(499));
+    }
+
+    @Test
+    public void writesAllChunksToOneSheet() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long rows = UserExcelExporter.write(outputStream, UserExcelExporter.chunks(ids, UserExcelExporterTest::users));
+        assertEquals(2500, rows);
+
+        List<AuthUserExcelDto> read = EasyExcel.read(new ByteArrayInputStream(outputStream.toByteArray()))
+                .head(AuthUserExcelDto.class).sheet(UserExcelExporter.SHEET_NAME).doReadSync();
+        assertEquals(2500, read.size());
+        assertEquals(1L, read.get(0).getId());
+        assertEquals("user1", read.get(0).getUsername());
+        assertEquals("启用", read.get(0).getStatus());
+        assertEquals("可用状态", read.get(0).getDel());
+        assertEquals("禁用", read.get(1).getStatus());
+        assertEquals(2500L, read.get(2499).getId());
+    }
+
+    /**
+     * 导出 50 万行，堆内存峰值不随行数增长
+     *
+     * 运行方式：mvn test -Dtest=UserExcelExporterTest -Dbenchmark=true -DargLine=-Xmx128m
+     * 原先一次性加载再写入的方式在 128m 堆下会内存溢出。
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void exportsHalfMillionRowsWithFlatHeap() {
+        int total = 500_000;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        long[] peak = {0};
+        List<Long> ids = LongStream.rangeClosed(1, total).boxed().collect(Collectors.toList());
+        Iterator<List<AuthUser>> chunks = UserExcelExporter.chunks(ids, chunk -> {
+            if (chunk.get(0) % 50_000 == 1) {
+                System.gc();
+                peak[0] = Math.max(peak[0], memory.getHeapMemoryUsage().getUsed() - baseline);
+            }
+            return users(chunk);
+        });
+        CountingOutputStream outputStream = new CountingOutputStream();
+        long start = System.nanoTime();
+        long rows = UserExcelExporter.write(outputStream, chunks);
+        log.info("rows={} bytes={} elapsed={}ms retainedHeapPeak={}MB", rows, outputStream.count,
+                (System.nanoTime() - start) / 1_000_000, peak[0] / 1024 / 1024);
+        assertEquals(total, rows);
+        // id 列表本身约 20MB，其余只有当前块和 EasyExcel 的行窗口
+        assertTrue(peak[0] < 64L * 1024 * 1024, "导出期间存活的堆内存应保持平稳");
+    }
+
+    private static List<AuthUser> users(List<Long> ids) {
+        List<AuthUser> users = new ArrayList<>(ids.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : ids) {
+            users.add(AuthUser.builder()
+                    .id(id)
+                    .username("user" + id)
+                    .icon("https://example.com/avatar/" + id + ".png")
+                    .email("user" + id + "@example.com")
+                    .phone("138" + String.format("%08d", id))
+                    .nickName("用户" + id)
+                    .note("备注" + id)
+                    .createTime(now)
+                    .loginTime(now)
+                    .status((int) (id % 2))
+                    .del(1)
+                    .build());
+        }
+        return users;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+    }
+
+}
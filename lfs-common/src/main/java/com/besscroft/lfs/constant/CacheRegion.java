@@ -0,0 +1,46 @@
+package com.besscroft.lfs.constant;
+
+/**
+ * Hibernate 二级缓存区域
+ *
+ * @Author Bess Croft
+ * @Time 2026/10/18 03:00
+ */
+public class CacheRegion {
+
+    /**
+     * 资源实体
+     */
+    public static final String RESOURCE = "rbac.resource";
+
+    /**
+     * 资源类别实体
+     */
+    public static final String RESOURCE_SORT = "rbac.resource-sort";
+
+    /**
+     * 菜单实体
+     */
+    public static final String MENU = "rbac.menu";
+
+    /**
+     * 角色实体
+     */
+    public static final String ROLE = "rbac.role";
+
+    /**
+     * 用户、角色、菜单、资源关联关系查询结果
+     */
+    public static final String RELATION = "rbac.relation";
+
+    /**
+     * Hibernate 默认查询结果区域
+     */
+    public static final String DEFAULT_QUERY = "default-query-results-region";
+
+    /**
+     * Hibernate 表更新时间戳区域，查询缓存依赖它判断结果是否过时，不能过期淘汰
+     */
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+}
@@ -78,6 +78,11 @@ public class HttpStatus {
      */
     public static final int UNSUPPORTED_TYPE = 415;
 
+    /**
+     * 请求过于频繁
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
+
     /**
      * 系统内部错误
      */
@@ -88,4 +93,9 @@ public class HttpStatus {
      */
     public static final int NOT_IMPLEMENTED = 501;
 
+    /**
+     * 服务暂时不可用
+     */
+    public static final int SERVICE_UNAVAILABLE = 503;
+
 }
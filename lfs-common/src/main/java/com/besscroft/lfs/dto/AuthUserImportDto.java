@@ -0,0 +1,46 @@
+package com.besscroft.lfs.dto;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Description 用户导入模板
+ * @Author Bess Croft
+ * @Time 2026/10/18 00:30
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthUserImportDto {
+
+    /** 用户名 */
+    @ExcelProperty("用户名")
+    private String username;
+
+    /** 密码 */
+    @ExcelProperty("密码")
+    private String password;
+
+    /** 头像 */
+    @ExcelProperty("头像")
+    private String icon;
+
+    /** 邮箱 */
+    @ExcelProperty("邮箱")
+    private String email;
+
+    /** 手机 */
+    @ExcelProperty("手机")
+    private String phone;
+
+    /** 昵称 */
+    @ExcelProperty("昵称")
+    private String nickName;
+
+    /** 备注信息 */
+    @ExcelProperty("备注信息")
+    private String note;
+
+}
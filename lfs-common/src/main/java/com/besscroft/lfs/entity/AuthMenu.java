@@ -1,11 +1,14 @@
 package com.besscroft.lfs.entity;
 
+import com.besscroft.lfs.constant.CacheRegion;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -21,6 +24,8 @@ import java.util.List;
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegion.MENU)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,11 +1,14 @@
 package com.besscroft.lfs.entity;
 
+import com.besscroft.lfs.constant.CacheRegion;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -19,6 +22,8 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegion.RESOURCE_SORT)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
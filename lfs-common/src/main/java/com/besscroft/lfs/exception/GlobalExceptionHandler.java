@@ -4,6 +4,7 @@ import com.besscroft.lfs.constant.HttpStatus;
 import com.besscroft.lfs.result.CommonResult;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -120,12 +121,17 @@ public class GlobalExceptionHandler {
 
     /**
      * 自定义异常 PiscesException
+     *
+     * 限流类错误（429、503）同时设置 HTTP 状态码，便于客户端和负载均衡退避重试
      */
     @ResponseBody
     @ExceptionHandler(value = PiscesException.class)
-    public CommonResult<?> piscesExceptionHandler(PiscesException ex) {
+    public ResponseEntity<CommonResult<?>> piscesExceptionHandler(PiscesException ex) {
         log.info("自定义异常.[异常原因={}]", ex.getMessage(), ex);
-        return CommonResult.failed(ex.getCode(), ex.getMessage());
+        Integer code = ex.getCode();
+        boolean throttled = code != null && (code == HttpStatus.TOO_MANY_REQUESTS || code == HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(throttled ? code : HttpStatus.SUCCESS)
+                .body(CommonResult.failed(code, ex.getMessage()));
     }
 
     /**
@@ -0,0 +1,55 @@
+package com.besscroft.lfs.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Description 操作审计日志
+ * @Author Bess Croft
+ * @Time 2026/10/18 06:10
+ */
+@Data
+@Schema(title = "操作审计日志")
+public class AuditLog {
+
+    @Schema(title = "日志id", type = "Long")
+    private Long id;
+
+    @Schema(title = "请求ID，与 web.log 中的 requestId 对应", type = "String")
+    private String requestId;
+
+    @Schema(title = "操作用户名，未登录时为空", type = "String")
+    private String username;
+
+    @Schema(title = "操作描述", type = "String")
+    private String description;
+
+    @Schema(title = "接口方法", type = "String")
+    private String method;
+
+    @Schema(title = "请求路径", type = "String")
+    private String url;
+
+    @Schema(title = "请求方式", type = "String")
+    private String httpMethod;
+
+    @Schema(title = "客户端IP", type = "String")
+    private String ip;
+
+    @Schema(title = "请求参数，超长部分截断", type = "String")
+    private String args;
+
+    @Schema(title = "执行结果：ok 或异常类名", type = "String")
+    private String result;
+
+    @Schema(title = "耗时（毫秒）", type = "Long")
+    private long cost;
+
+    @Schema(title = "操作时间", type = "Date")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+}
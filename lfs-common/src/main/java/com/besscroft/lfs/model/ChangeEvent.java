@@ -0,0 +1,48 @@
+package com.besscroft.lfs.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * @Description 权限相关数据变更事件，用于通知其他实例清除缓存
+ * @Author Bess Croft
+ * @Time 2026/10/18 04:00
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 发布事件的实例 */
+    private String origin;
+
+    /** 实例内连续递增的序号，从 1 开始 */
+    private Long sequence;
+
+    /** 变更类型 */
+    private Type type;
+
+    /** 变更数据的id，为空表示该类型的全部数据；关联关系变更时为受影响的用户id */
+    private List<Long> ids;
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+
+        USER,
+        ROLE,
+        RESOURCE,
+        RESOURCE_SORT,
+        MENU,
+        RELATION
+
+    }
+
+}
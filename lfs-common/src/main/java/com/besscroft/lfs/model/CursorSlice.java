@@ -0,0 +1,48 @@
+package com.besscroft.lfs.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @Description 游标分页结果，按id顺序翻页，不统计精确总数
+ * @Author Bess Croft
+ * @Time 2026/10/18 01:10
+ */
+@Data
+@Schema(title = "游标分页结果")
+public class CursorSlice<T> {
+
+    @Schema(title = "当前页数据", type = "List")
+    private List<T> content;
+
+    @Schema(title = "是否还有下一页", type = "Boolean")
+    private boolean hasNext;
+
+    @Schema(title = "下一页游标，作为 after 参数传入", type = "Long")
+    private Long nextCursor;
+
+    @Schema(title = "近似总数，未请求时为空", type = "Long")
+    private Long approximateTotal;
+
+    /**
+     * 由 Slice 构建，游标为最后一条记录的id
+     * @param slice 查询结果
+     * @param idGetter id 获取方法
+     * @param approximateTotal 近似总数
+     * @return 游标分页结果
+     */
+    public static <T> CursorSlice<T> of(Slice<T> slice, Function<T, Long> idGetter, Long approximateTotal) {
+        CursorSlice<T> cursorSlice = new CursorSlice<>();
+        List<T> content = slice.getContent();
+        cursorSlice.setContent(content);
+        cursorSlice.setHasNext(slice.hasNext());
+        cursorSlice.setNextCursor(slice.hasNext() && !content.isEmpty() ? idGetter.apply(content.get(content.size() - 1)) : null);
+        cursorSlice.setApproximateTotal(approximateTotal);
+        return cursorSlice;
+    }
+
+}
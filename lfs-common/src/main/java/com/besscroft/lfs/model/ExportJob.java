@@ -0,0 +1,58 @@
+package com.besscroft.lfs.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Description 导出任务
+ * @Author Bess Croft
+ * @Time 2026/10/17 23:30
+ */
+@Data
+@Schema(title = "导出任务")
+public class ExportJob {
+
+    /** 等待执行 */
+    public static final String PENDING = "PENDING";
+
+    /** 执行中 */
+    public static final String RUNNING = "RUNNING";
+
+    /** 已完成，可以下载 */
+    public static final String DONE = "DONE";
+
+    /** 执行失败 */
+    public static final String FAILED = "FAILED";
+
+    @Schema(title = "任务id", type = "String")
+    private String id;
+
+    /** 提交任务的用户名，只有本人可以查询、下载 */
+    @JsonIgnore
+    private String owner;
+
+    @Schema(title = "任务状态：PENDING、RUNNING、DONE、FAILED", type = "String")
+    private volatile String status;
+
+    @Schema(title = "导出行数", type = "Long")
+    private volatile long rows;
+
+    @Schema(title = "文件大小（字节）", type = "Long")
+    private volatile long size;
+
+    @Schema(title = "失败原因", type = "String")
+    private volatile String message;
+
+    @Schema(title = "创建时间", type = "Date")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    @Schema(title = "完成时间", type = "Date")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private volatile LocalDateTime finishTime;
+
+}
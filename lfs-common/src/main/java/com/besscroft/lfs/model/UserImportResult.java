@@ -0,0 +1,67 @@
+package com.besscroft.lfs.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Description 用户导入结果
+ * @Author Bess Croft
+ * @Time 2026/10/18 00:30
+ */
+@Data
+@Schema(title = "用户导入结果")
+public class UserImportResult {
+
+    /** 最多返回的错误明细数量 */
+    public static final int MAX_ERRORS = 1000;
+
+    @Schema(title = "读取行数", type = "Long")
+    private long total;
+
+    @Schema(title = "导入成功行数", type = "Long")
+    private long succeeded;
+
+    @Schema(title = "导入失败行数", type = "Long")
+    private long failed;
+
+    @Schema(title = "错误明细，最多返回 1000 条", type = "List")
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 记录一行导入失败
+     * @param row Excel 行号，从 1 开始
+     * @param username 用户名
+     * @param message 失败原因
+     */
+    public void addError(int row, String username, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, username, message));
+        }
+    }
+
+    /**
+     * 单行错误
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        @Schema(title = "Excel 行号", type = "Integer")
+        private int row;
+
+        @Schema(title = "用户名", type = "String")
+        private String username;
+
+        @Schema(title = "失败原因", type = "String")
+        private String message;
+
+    }
+
+}